@@ -1,8 +1,18 @@
 package com.wrike.qaa.allure.runner.provider;
 
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Singleton, which represents the current state of parallel retry.
  *
+ * <p>
+ * Attempts of one test may start and finish at any time, if they are not behind a barrier of a pack.
+ * That's why the start of the first attempt of every test is tracked, and not passed results of the test are moved right before it.
+ * Starts are tracked only while the parallel retry is in progress, tests are keyed by their Allure history id.
+ * </p>
+ *
  * @author daniil.shylko on 09.02.2023
  */
 class AllureParallelRetryState {
@@ -14,6 +24,10 @@ class AllureParallelRetryState {
      * Current pack is a set of tests, which is retrying in parallel now
      */
     private volatile long parallelRetryCurrentPackStartTime = 0L;
+    /**
+     * Start of the first attempt of every test in the current parallel retry
+     */
+    private final ConcurrentMap<String, Long> firstAttemptStartTimes = new ConcurrentHashMap<>();
 
     AllureParallelRetryState() {
     }
@@ -23,6 +37,7 @@ class AllureParallelRetryState {
     }
 
     public void parallelRetryStarted() {
+        firstAttemptStartTimes.clear();
         isParallelRetryInProgress = true;
     }
 
@@ -33,6 +48,17 @@ class AllureParallelRetryState {
     public void parallelRetryFinished() {
         isParallelRetryInProgress = false;
         parallelRetryCurrentPackStartTime = 0L;
+        firstAttemptStartTimes.clear();
+    }
+
+    /**
+     * @param testKey   history id of the test
+     * @param startTime start of the attempt, attempts may be started in any order
+     */
+    public void attemptStarted(String testKey, long startTime) {
+        if (isParallelRetryInProgress) {
+            firstAttemptStartTimes.merge(testKey, startTime, Math::min);
+        }
     }
 
     public boolean isParallelRetryInProgress() {
@@ -43,6 +69,19 @@ class AllureParallelRetryState {
         return parallelRetryCurrentPackStartTime;
     }
 
+    /**
+     * Subtracting one ensures that a not passed result will have a start time earlier than any passed attempt of the same test
+     *
+     * @param testKey history id of the test or null, if it's unknown
+     * @return time right before the first attempt of the test or {@link #getParallelRetryCurrentPackStartTime()}, if its attempts are not tracked
+     */
+    public long getTimeRightBeforeTheFirstAttempt(String testKey) {
+        return Optional.ofNullable(testKey)
+                .map(firstAttemptStartTimes::get)
+                .map(firstAttemptStartTime -> firstAttemptStartTime - 1L)
+                .orElse(parallelRetryCurrentPackStartTime);
+    }
+
     /**
      * Subtracting one ensures that a failed test will have a start time earlier than a passed test
      */
@@ -2,21 +2,40 @@ package com.wrike.qaa.allure.runner.provider;
 
 import com.wrike.qaa.runner.provider.EventListener;
 
+import java.util.Optional;
+
 /**
- * Listener for {@link AllureParallelRetryState} modifying
+ * Listener for {@link AllureParallelRetryState} modifying.
+ * If results of failed attempts are buffered by {@link RetryAttemptResultsWriter}, they are flushed when the parallel retry is finished.
+ * Streaming retries are handled as a parallel retry, which lasts until the end of the initial run,
+ * because their attempts may be started and finished at any time too.
  *
  * @author daniil.shylko on 14.12.2022
  */
 public class AllureRunnerListener implements EventListener {
 
     private final AllureParallelRetryState allureParallelRetryState;
+    private final Optional<RetryAttemptResultsWriter> retryAttemptResultsWriter;
 
     public AllureRunnerListener() {
         this(AllureParallelRetryState.getAllureParallelRetryState());
     }
 
-    AllureRunnerListener(AllureParallelRetryState allureParallelRetryState) {
+    private AllureRunnerListener(AllureParallelRetryState allureParallelRetryState) {
+        this(allureParallelRetryState, RetryAttemptResultsWriter.installIfEnabled(allureParallelRetryState));
+    }
+
+    AllureRunnerListener(AllureParallelRetryState allureParallelRetryState, Optional<RetryAttemptResultsWriter> retryAttemptResultsWriter) {
         this.allureParallelRetryState = allureParallelRetryState;
+        this.retryAttemptResultsWriter = retryAttemptResultsWriter;
+    }
+
+    /**
+     * The state is read by tests of the next pack, so it should be changed before they are started
+     */
+    @Override
+    public boolean requiresSynchronousNotifications() {
+        return true;
     }
 
     @Override
@@ -32,6 +51,17 @@ public class AllureRunnerListener implements EventListener {
     @Override
     public void parallelRetryFinished() {
         allureParallelRetryState.parallelRetryFinished();
+        retryAttemptResultsWriter.ifPresent(RetryAttemptResultsWriter::flush);
+    }
+
+    @Override
+    public void streamingRetriesStarted() {
+        parallelRetryStarted();
+    }
+
+    @Override
+    public void streamingRetriesFinished() {
+        parallelRetryFinished();
     }
 
 }
@@ -0,0 +1,49 @@
+package com.wrike.qaa.allure.runner.provider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how results of failed parallel attempts are written, if another attempt of the same test passed,
+ * see {@link RetryAttemptResultsWriter}.
+ *
+ * <ul>
+ *     <li>{@link #FULL} — every result is written with its attachments as soon as it's finished</li>
+ *     <li>{@link #SLIM} — results of failed attempts are written without attachments</li>
+ *     <li>{@link #COLLAPSED} — results of failed attempts are collapsed into one result without attachments</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+enum FailedAttemptResults {
+
+    FULL("full"),
+    SLIM("slim"),
+    COLLAPSED("collapsed");
+
+    FailedAttemptResults(String failedAttemptResultsString) {
+        this.failedAttemptResultsString = failedAttemptResultsString;
+    }
+
+    private final String failedAttemptResultsString;
+
+    public String getFailedAttemptResultsString() {
+        return failedAttemptResultsString;
+    }
+
+    private static final Map<String, FailedAttemptResults> failedAttemptResultsNamesToEnumValues = Arrays.stream(FailedAttemptResults.values())
+            .collect(Collectors.toMap(FailedAttemptResults::getFailedAttemptResultsString, Function.identity()));
+
+    public static Optional<FailedAttemptResults> getFailedAttemptResultsByName(String failedAttemptResultsName) {
+        return Optional.ofNullable(failedAttemptResultsNamesToEnumValues.get(failedAttemptResultsName));
+    }
+
+    public static Set<String> getAvailableFailedAttemptResults() {
+        return failedAttemptResultsNamesToEnumValues.keySet();
+    }
+
+}
@@ -8,8 +8,9 @@ import static io.qameta.allure.model.Status.PASSED;
 
 /**
  * Allure Report sorts retries by start time.
- * Changing the start time for not passed tests to the time when retries were started
- * will guarantee that test will be marked as passed if it passed at least once.
+ * Changing the start time for not passed tests to the time right before the first parallel attempt of the same test
+ * will guarantee that test will be marked as passed if it passed at least once,
+ * even if its attempts are started and finished at different times.
  *
  * @author daniil.shylko on 22.11.2022
  */
@@ -25,11 +26,20 @@ public class ParallelRetryTestLifecycleListener implements TestLifecycleListener
         this.allureParallelRetryState = allureParallelRetryState;
     }
 
+    @Override
+    public void afterTestStart(TestResult result) {
+        if (allureParallelRetryState.isParallelRetryInProgress()
+                && result.getHistoryId() != null
+                && result.getStart() != null) {
+            allureParallelRetryState.attemptStarted(result.getHistoryId(), result.getStart());
+        }
+    }
+
     @Override
     public void beforeTestStop(TestResult result) {
         if (allureParallelRetryState.isParallelRetryInProgress()
                 && result.getStatus() != PASSED) {
-            result.setStart(allureParallelRetryState.getParallelRetryCurrentPackStartTime());
+            result.setStart(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt(result.getHistoryId()));
         }
     }
 
@@ -0,0 +1,287 @@
+package com.wrike.qaa.allure.runner.provider;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriteException;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import io.qameta.allure.model.WithAttachments;
+import io.qameta.allure.model.WithSteps;
+import io.qameta.allure.util.PropertiesUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.wrike.qaa.allure.runner.provider.FailedAttemptResults.FULL;
+import static com.wrike.qaa.allure.runner.provider.FailedAttemptResults.getAvailableFailedAttemptResults;
+import static com.wrike.qaa.allure.runner.provider.FailedAttemptResults.getFailedAttemptResultsByName;
+import static io.qameta.allure.model.Status.PASSED;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Buffers results of failed attempts during the parallel retry, so they aren't written in full, if another attempt of the same test passed.
+ *
+ * <p>
+ * Attachments are written to a spool directory while the parallel retry is in progress, and results of failed attempts are kept in memory.
+ * As soon as an attempt of the test passed, its failed attempts are written as {@link FailedAttemptResults#SLIM slim} results,
+ * and their attachments are deleted. {@link FailedAttemptResults#COLLAPSED Collapsed} results are written when the parallel retry
+ * is finished, so they include failed attempts, which finished after the passed one. Results of tests, which didn't pass,
+ * are written in full when the parallel retry is finished too, see {@link #flush()}.
+ * Tests are keyed by their Allure history id. Start times are already changed by {@link ParallelRetryTestLifecycleListener}
+ * before results are written, so the order of attempts in the report is kept.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+class RetryAttemptResultsWriter implements AllureResultsWriter {
+
+    /**
+     * Defines how results of failed attempts are written, see {@link FailedAttemptResults}
+     */
+    static final String FAILED_ATTEMPT_RESULTS_PROPERTY = "allure.retry.failed.attempts";
+    private static final String RESULTS_DIRECTORY_PROPERTY = "allure.results.directory";
+    private static final String DEFAULT_RESULTS_DIRECTORY = "allure-results";
+
+    private final AllureResultsWriter delegate;
+    private final AllureParallelRetryState allureParallelRetryState;
+    private final FailedAttemptResults failedAttemptResults;
+    private final Map<String, RetriedTest> retriedTests = new ConcurrentHashMap<>();
+    private final Map<String, Path> spooledAttachments = new ConcurrentHashMap<>();
+    private volatile Path spoolDirectory;
+
+    RetryAttemptResultsWriter(AllureResultsWriter delegate, AllureParallelRetryState allureParallelRetryState,
+                              FailedAttemptResults failedAttemptResults) {
+        this.delegate = delegate;
+        this.allureParallelRetryState = allureParallelRetryState;
+        this.failedAttemptResults = failedAttemptResults;
+    }
+
+    /**
+     * Replaces the Allure lifecycle, if {@link #FAILED_ATTEMPT_RESULTS_PROPERTY} is not {@link FailedAttemptResults#FULL}.
+     * It should be called before the Allure listener of JUnit is created, because the listener keeps its lifecycle.
+     *
+     * @return installed writer or empty, if results are written in full
+     */
+    static Optional<RetryAttemptResultsWriter> installIfEnabled(AllureParallelRetryState allureParallelRetryState) {
+        String failedAttemptResultsName = System.getProperty(FAILED_ATTEMPT_RESULTS_PROPERTY);
+        if (failedAttemptResultsName == null) {
+            return Optional.empty();
+        }
+        FailedAttemptResults failedAttemptResults = getFailedAttemptResultsByName(failedAttemptResultsName)
+                .orElseThrow(() -> new IllegalStateException(String.format("Can not parse %s=%s to one of the following values %s",
+                        FAILED_ATTEMPT_RESULTS_PROPERTY, failedAttemptResultsName, getAvailableFailedAttemptResults())));
+        if (failedAttemptResults == FULL) {
+            return Optional.empty();
+        }
+        Path resultsDirectory = Paths.get(PropertiesUtils.loadAllureProperties()
+                .getProperty(RESULTS_DIRECTORY_PROPERTY, DEFAULT_RESULTS_DIRECTORY));
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(new FileSystemResultsWriter(resultsDirectory),
+                allureParallelRetryState, failedAttemptResults);
+        Allure.setLifecycle(new AllureLifecycle(writer));
+        return Optional.of(writer);
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        if (!allureParallelRetryState.isParallelRetryInProgress() || testResult.getHistoryId() == null) {
+            writeInFull(testResult);
+            return;
+        }
+        RetriedTest retriedTest = retriedTests.computeIfAbsent(testResult.getHistoryId(), historyId -> new RetriedTest());
+        synchronized (retriedTest) {
+            if (testResult.getStatus() == PASSED) {
+                retriedTest.passed = true;
+                writeInFull(testResult);
+                if (failedAttemptResults == FailedAttemptResults.SLIM) {
+                    retriedTest.failedAttempts.forEach(this::writeSlim);
+                    retriedTest.failedAttempts.clear();
+                }
+            } else if (retriedTest.passed && failedAttemptResults == FailedAttemptResults.SLIM) {
+                writeSlim(testResult);
+            } else {
+                // other attempts of the test may still be running, so the collapsed result is written by the flush
+                retriedTest.failedAttempts.add(testResult);
+            }
+        }
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        Stream.concat(testResultContainer.getBefores().stream(), testResultContainer.getAfters().stream())
+                .forEach(this::writeSpooledAttachmentsOf);
+        delegate.write(testResultContainer);
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        if (!allureParallelRetryState.isParallelRetryInProgress()) {
+            delegate.write(source, attachment);
+            return;
+        }
+        try {
+            Path spooledAttachment = getSpoolDirectory().resolve(source);
+            Files.copy(attachment, spooledAttachment);
+            spooledAttachments.put(source, spooledAttachment);
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Can't spool attachment " + source, e);
+        }
+    }
+
+    /**
+     * Writes collapsed results of passed tests, results of failed attempts of tests, which didn't pass, and the other spooled attachments.
+     * All attempts are finished at this moment, so the spool directory is deleted.
+     */
+    void flush() {
+        retriedTests.values().forEach(retriedTest -> {
+            synchronized (retriedTest) {
+                if (retriedTest.passed) {
+                    writeCollapsed(retriedTest.failedAttempts);
+                } else {
+                    retriedTest.failedAttempts.forEach(this::writeInFull);
+                }
+                retriedTest.failedAttempts.clear();
+            }
+        });
+        retriedTests.clear();
+        List.copyOf(spooledAttachments.keySet()).forEach(this::writeSpooledAttachment);
+        deleteSpoolDirectory();
+    }
+
+    private void writeCollapsed(List<TestResult> failedAttempts) {
+        if (failedAttempts.isEmpty()) {
+            return;
+        }
+        TestResult summary = failedAttempts.get(0);
+        failedAttempts.subList(1, failedAttempts.size()).forEach(this::deleteAttachmentsOf);
+        if (failedAttempts.size() > 1) {
+            StatusDetails statusDetails = Optional.ofNullable(summary.getStatusDetails()).orElseGet(StatusDetails::new);
+            String collapsedMessage = String.format("%d failed attempts are collapsed into this result", failedAttempts.size());
+            summary.setStatusDetails(statusDetails.setMessage(statusDetails.getMessage() == null
+                    ? collapsedMessage
+                    : collapsedMessage + "\n" + statusDetails.getMessage()));
+        }
+        writeSlim(summary);
+    }
+
+    private void writeInFull(TestResult testResult) {
+        writeSpooledAttachmentsOf(testResult);
+        delegate.write(testResult);
+    }
+
+    private void writeSlim(TestResult testResult) {
+        deleteAttachmentsOf(testResult);
+        removeAttachments(testResult);
+        delegate.write(testResult);
+    }
+
+    private void writeSpooledAttachmentsOf(Object item) {
+        attachmentSources(item).forEach(this::writeSpooledAttachment);
+    }
+
+    private void writeSpooledAttachment(String source) {
+        Path spooledAttachment = spooledAttachments.remove(source);
+        if (spooledAttachment == null) {
+            return;
+        }
+        try (InputStream attachment = Files.newInputStream(spooledAttachment)) {
+            delegate.write(source, attachment);
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Can't write spooled attachment " + source, e);
+        }
+        deleteSpooledAttachment(spooledAttachment);
+    }
+
+    private void deleteAttachmentsOf(TestResult testResult) {
+        attachmentSources(testResult).stream()
+                .map(spooledAttachments::remove)
+                .filter(spooledAttachment -> spooledAttachment != null)
+                .forEach(RetryAttemptResultsWriter::deleteSpooledAttachment);
+    }
+
+    private static void deleteSpooledAttachment(Path spooledAttachment) {
+        try {
+            Files.deleteIfExists(spooledAttachment);
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Can't delete spooled attachment " + spooledAttachment, e);
+        }
+    }
+
+    /**
+     * @return sources of attachments of the item and all its steps
+     */
+    private static List<String> attachmentSources(Object item) {
+        List<String> sources = new ArrayList<>();
+        if (item instanceof WithAttachments) {
+            ((WithAttachments) item).getAttachments().stream()
+                    .map(Attachment::getSource)
+                    .forEach(sources::add);
+        }
+        if (item instanceof WithSteps) {
+            ((WithSteps) item).getSteps().forEach(step -> sources.addAll(attachmentSources(step)));
+        }
+        return sources.stream().filter(source -> source != null).collect(toList());
+    }
+
+    private static void removeAttachments(Object item) {
+        if (item instanceof WithAttachments) {
+            ((WithAttachments) item).getAttachments().clear();
+        }
+        if (item instanceof WithSteps) {
+            ((WithSteps) item).getSteps().forEach(RetryAttemptResultsWriter::removeAttachments);
+        }
+    }
+
+    /**
+     * @return the directory of attachments of the current parallel retry or empty, if nothing is spooled
+     */
+    Optional<Path> getCurrentSpoolDirectory() {
+        return Optional.ofNullable(spoolDirectory);
+    }
+
+    private synchronized void deleteSpoolDirectory() {
+        if (spoolDirectory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolDirectory);
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Can't delete spool directory " + spoolDirectory, e);
+        }
+        spoolDirectory = null;
+    }
+
+    private Path getSpoolDirectory() throws IOException {
+        if (spoolDirectory == null) {
+            synchronized (this) {
+                if (spoolDirectory == null) {
+                    spoolDirectory = Files.createTempDirectory("allure-retry-attempts");
+                }
+            }
+        }
+        return spoolDirectory;
+    }
+
+    /**
+     * Attempts of one test, all of them are guarded by the test
+     */
+    private static final class RetriedTest {
+
+        private final List<TestResult> failedAttempts = new ArrayList<>();
+        private boolean passed;
+
+    }
+
+}
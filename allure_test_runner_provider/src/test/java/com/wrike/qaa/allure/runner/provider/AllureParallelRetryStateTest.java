@@ -64,4 +64,42 @@ class AllureParallelRetryStateTest {
                 .isEqualTo(0L);
     }
 
+    @Test
+    void checkTimeRightBeforeTheFirstAttemptOfTest() {
+        AllureParallelRetryState allureParallelRetryState = new AllureParallelRetryState();
+
+        allureParallelRetryState.parallelRetryStarted();
+        allureParallelRetryState.parallelRetryNextPackStarted();
+        allureParallelRetryState.attemptStarted("test", 1000L);
+        allureParallelRetryState.attemptStarted("test", 500L);
+        allureParallelRetryState.attemptStarted("test", 700L);
+
+        assertThat(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt("test"))
+                .as("Check the time is right before the earliest attempt, whatever the order of starts")
+                .isEqualTo(499L);
+        assertThat(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt("otherTest"))
+                .as("Check the pack start time is used for a test without tracked attempts")
+                .isEqualTo(allureParallelRetryState.getParallelRetryCurrentPackStartTime());
+        assertThat(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt(null))
+                .as("Check the pack start time is used for a test without history id")
+                .isEqualTo(allureParallelRetryState.getParallelRetryCurrentPackStartTime());
+    }
+
+    @Test
+    void checkAttemptsAreTrackedOnlyDuringParallelRetry() {
+        AllureParallelRetryState allureParallelRetryState = new AllureParallelRetryState();
+
+        allureParallelRetryState.attemptStarted("initialRun", 500L);
+        allureParallelRetryState.parallelRetryStarted();
+        allureParallelRetryState.attemptStarted("retry", 500L);
+        allureParallelRetryState.parallelRetryFinished();
+
+        assertThat(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt("initialRun"))
+                .as("Check attempts before the parallel retry are not tracked")
+                .isEqualTo(0L);
+        assertThat(allureParallelRetryState.getTimeRightBeforeTheFirstAttempt("retry"))
+                .as("Check attempts are forgotten after the parallel retry")
+                .isEqualTo(0L);
+    }
+
 }
@@ -6,6 +6,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * @author daniil.shylko on 09.02.2023
  */
@@ -17,7 +21,7 @@ class AllureRunnerListenerTest {
 
     @Test
     void checkRunnerListenerChangesStateOnParallelRetryStart() {
-        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState);
+        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState, Optional.empty());
 
         allureRunnerListener.parallelRetryStarted();
 
@@ -27,7 +31,7 @@ class AllureRunnerListenerTest {
 
     @Test
     void checkRunnerListenerChangesStateOnParallelRetryFinished() {
-        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState);
+        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState, Optional.empty());
 
         allureRunnerListener.parallelRetryStarted();
         Mockito.clearInvocations(allureParallelRetryState);
@@ -37,4 +41,24 @@ class AllureRunnerListenerTest {
         Mockito.verifyNoMoreInteractions(allureParallelRetryState);
     }
 
+    @Test
+    void checkRunnerListenerHandlesStreamingRetriesAsParallelRetry() {
+        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState, Optional.empty());
+
+        allureRunnerListener.streamingRetriesStarted();
+        Mockito.verify(allureParallelRetryState).parallelRetryStarted();
+        allureRunnerListener.streamingRetriesFinished();
+        Mockito.verify(allureParallelRetryState).parallelRetryFinished();
+        Mockito.verifyNoMoreInteractions(allureParallelRetryState);
+    }
+
+    @Test
+    void checkRunnerListenerIsNotifiedSynchronously() {
+        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState, Optional.empty());
+
+        assertThat(allureRunnerListener.requiresSynchronousNotifications())
+                .as("Check the state is changed before tests of the next pack are started")
+                .isTrue();
+    }
+
 }
@@ -71,4 +71,25 @@ class ParallelRetryTestLifecycleListenerTest {
                 .isEqualTo(DEFAULT_START_TIME);
     }
 
+    @Test
+    void checkNotPassedAttemptIsMovedBeforePassedAttemptStartedEarlier() {
+        AllureParallelRetryState state = new AllureParallelRetryState();
+        state.parallelRetryStarted();
+        ParallelRetryTestLifecycleListener listener = new ParallelRetryTestLifecycleListener(state);
+        TestResult passedAttempt = new TestResult().setHistoryId("test").setStart(100L).setStatus(PASSED);
+        TestResult failedAttempt = new TestResult().setHistoryId("test").setStart(200L).setStatus(FAILED);
+
+        listener.afterTestStart(passedAttempt);
+        listener.afterTestStart(failedAttempt);
+        listener.beforeTestStop(failedAttempt);
+        listener.beforeTestStop(passedAttempt);
+
+        assertThat(failedAttempt.getStart())
+                .as("Check the failed attempt starts before the passed attempt of the same test")
+                .isLessThan(passedAttempt.getStart());
+        assertThat(passedAttempt.getStart())
+                .as("Check start time of the passed attempt was not changed")
+                .isEqualTo(100L);
+    }
+
 }
@@ -0,0 +1,204 @@
+package com.wrike.qaa.allure.runner.provider;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.wrike.qaa.allure.runner.provider.FailedAttemptResults.COLLAPSED;
+import static com.wrike.qaa.allure.runner.provider.FailedAttemptResults.SLIM;
+import static io.qameta.allure.model.Status.FAILED;
+import static io.qameta.allure.model.Status.PASSED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class RetryAttemptResultsWriterTest {
+
+    private AllureResultsWriter delegate;
+    private AllureParallelRetryState allureParallelRetryState;
+
+    @BeforeEach
+    void prepare() {
+        delegate = Mockito.mock(AllureResultsWriter.class);
+        allureParallelRetryState = new AllureParallelRetryState();
+    }
+
+    @Test
+    void checkFailedAttemptIsWrittenWithoutAttachmentsAfterSiblingPassed() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, SLIM);
+        allureParallelRetryState.parallelRetryStarted();
+        TestResult failedAttempt = attemptWithScreenshot("failed-attachment", FAILED);
+
+        writer.write("failed-attachment", attachment());
+        writer.write(failedAttempt);
+        Mockito.verifyZeroInteractions(delegate);
+        TestResult passedAttempt = new TestResult().setUuid("passed-result").setHistoryId("test").setStatus(PASSED);
+        writer.write(passedAttempt);
+
+        Mockito.verify(delegate).write(passedAttempt);
+        Mockito.verify(delegate).write(failedAttempt);
+        Mockito.verify(delegate, Mockito.never()).write(eq("failed-attachment"), any(InputStream.class));
+        assertThat(failedAttempt.getAttachments())
+                .as("Check attachments are removed from the failed attempt")
+                .isEmpty();
+        assertThat(failedAttempt.getSteps())
+                .as("Check attachments are removed from steps of the failed attempt")
+                .allSatisfy(step -> assertThat(step.getAttachments()).isEmpty());
+    }
+
+    @Test
+    void checkFailedAttemptsAreCollapsedIntoOneResultAfterSiblingPassed() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, COLLAPSED);
+        allureParallelRetryState.parallelRetryStarted();
+
+        writer.write(attemptWithScreenshot("first-attachment", FAILED));
+        writer.write(attemptWithScreenshot("second-attachment", FAILED));
+        writer.write(new TestResult().setUuid("passed-result").setHistoryId("test").setStatus(PASSED));
+        writer.write(attemptWithScreenshot("third-attachment", FAILED));
+        allureParallelRetryState.parallelRetryFinished();
+        writer.flush();
+
+        ArgumentCaptor<TestResult> writtenResults = ArgumentCaptor.forClass(TestResult.class);
+        Mockito.verify(delegate, Mockito.times(2)).write(writtenResults.capture());
+        assertThat(writtenResults.getAllValues())
+                .as("Check the passed attempt and one summary of failed attempts are written")
+                .extracting(TestResult::getStatus)
+                .containsExactly(PASSED, FAILED);
+        assertThat(writtenResults.getAllValues().get(1).getStatusDetails().getMessage())
+                .as("Check the summary tells how many attempts are collapsed, including the attempt finished after the passed one")
+                .startsWith("3 failed attempts are collapsed into this result");
+    }
+
+    @Test
+    void checkFailedAttemptsFinishedAfterPassedOneAreCollapsed() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, COLLAPSED);
+        allureParallelRetryState.parallelRetryStarted();
+
+        writer.write(new TestResult().setUuid("passed-result").setHistoryId("test").setStatus(PASSED));
+        writer.write(attemptWithScreenshot("first-attachment", FAILED));
+        writer.write(attemptWithScreenshot("second-attachment", FAILED));
+        allureParallelRetryState.parallelRetryFinished();
+        writer.flush();
+
+        ArgumentCaptor<TestResult> writtenResults = ArgumentCaptor.forClass(TestResult.class);
+        Mockito.verify(delegate, Mockito.times(2)).write(writtenResults.capture());
+        assertThat(writtenResults.getAllValues())
+                .as("Check failed attempts finished after the passed one are not dropped")
+                .extracting(TestResult::getStatus)
+                .containsExactly(PASSED, FAILED);
+        assertThat(writtenResults.getAllValues().get(1).getStatusDetails().getMessage())
+                .as("Check the summary tells how many attempts are collapsed")
+                .startsWith("2 failed attempts are collapsed into this result");
+    }
+
+    @Test
+    void checkStreamedAttemptsAreBufferedAndOrderedUntilStreamingRetriesAreFinished() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, COLLAPSED);
+        AllureRunnerListener allureRunnerListener = new AllureRunnerListener(allureParallelRetryState, Optional.of(writer));
+        ParallelRetryTestLifecycleListener lifecycleListener = new ParallelRetryTestLifecycleListener(allureParallelRetryState);
+        TestResult initialFailure = new TestResult().setUuid("initial-result").setHistoryId("test").setStart(100L).setStatus(FAILED);
+        TestResult passedAttempt = new TestResult().setUuid("passed-result").setHistoryId("test").setStart(200L).setStatus(PASSED);
+        TestResult failedAttempt = new TestResult().setUuid("failed-result").setHistoryId("test").setStart(300L).setStatus(FAILED);
+
+        allureRunnerListener.streamingRetriesStarted();
+        Stream.of(initialFailure, passedAttempt, failedAttempt).forEach(lifecycleListener::afterTestStart);
+        Stream.of(initialFailure, passedAttempt, failedAttempt).forEach(result -> {
+            lifecycleListener.beforeTestStop(result);
+            writer.write(result);
+        });
+        Mockito.verify(delegate).write(passedAttempt);
+        Mockito.verifyNoMoreInteractions(delegate);
+        allureRunnerListener.streamingRetriesFinished();
+
+        ArgumentCaptor<TestResult> writtenResults = ArgumentCaptor.forClass(TestResult.class);
+        Mockito.verify(delegate, Mockito.times(2)).write(writtenResults.capture());
+        assertThat(writtenResults.getAllValues())
+                .as("Check failed attempts of the streamed test are collapsed, when streaming retries are finished")
+                .extracting(TestResult::getUuid)
+                .containsExactly("passed-result", "initial-result");
+        assertThat(failedAttempt.getStart())
+                .as("Check the attempt finished after the passed one starts before it")
+                .isLessThan(passedAttempt.getStart());
+        assertThat(allureParallelRetryState.isParallelRetryInProgress())
+                .as("Check results after the initial run are written as usual")
+                .isFalse();
+    }
+
+    @Test
+    void checkSpoolDirectoryIsDeletedWhenParallelRetryIsFinished() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, SLIM);
+        allureParallelRetryState.parallelRetryStarted();
+
+        writer.write("failed-attachment", attachment());
+        Path spoolDirectory = writer.getCurrentSpoolDirectory().orElseThrow();
+        writer.write(attemptWithScreenshot("failed-attachment", FAILED));
+        allureParallelRetryState.parallelRetryFinished();
+        writer.flush();
+
+        assertThat(spoolDirectory)
+                .as("Check the spool directory is deleted after its attachments are written")
+                .doesNotExist();
+        assertThat(writer.getCurrentSpoolDirectory())
+                .as("Check the next parallel retry gets a new spool directory")
+                .isEmpty();
+    }
+
+    @Test
+    void checkFailedAttemptsAreWrittenInFullIfTestDidNotPass() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, SLIM);
+        allureParallelRetryState.parallelRetryStarted();
+        TestResult failedAttempt = attemptWithScreenshot("failed-attachment", FAILED);
+
+        writer.write("failed-attachment", attachment());
+        writer.write(failedAttempt);
+        allureParallelRetryState.parallelRetryFinished();
+        writer.flush();
+
+        Mockito.verify(delegate).write(eq("failed-attachment"), any(InputStream.class));
+        Mockito.verify(delegate).write(failedAttempt);
+        assertThat(failedAttempt.getAttachments())
+                .as("Check attachments of the failed attempt are kept")
+                .hasSize(1);
+    }
+
+    @Test
+    void checkResultsAreWrittenImmediatelyOutsideOfParallelRetry() {
+        RetryAttemptResultsWriter writer = new RetryAttemptResultsWriter(delegate, allureParallelRetryState, SLIM);
+        TestResult failedResult = attemptWithScreenshot("failed-attachment", FAILED);
+
+        writer.write("failed-attachment", attachment());
+        writer.write(failedResult);
+
+        Mockito.verify(delegate).write(eq("failed-attachment"), any(InputStream.class));
+        Mockito.verify(delegate).write(failedResult);
+    }
+
+    private static TestResult attemptWithScreenshot(String attachmentSource, io.qameta.allure.model.Status status) {
+        TestResult testResult = new TestResult().setUuid(attachmentSource + "-result").setHistoryId("test").setStatus(status);
+        testResult.getAttachments().add(new Attachment().setSource(attachmentSource));
+        StepResult step = new StepResult().setName("step");
+        step.getAttachments().add(new Attachment().setSource(attachmentSource + "-step"));
+        testResult.getSteps().add(step);
+        return testResult;
+    }
+
+    private static InputStream attachment() {
+        return new ByteArrayInputStream("screenshot".getBytes(UTF_8));
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.wrike.qaa.allure.runner.provider;
+
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ParallelRetryTestLifecycleListener#beforeTestStop(TestResult)}, it's called by Allure for every test.
+ *
+ * @author agent on 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelRetryTestLifecycleListenerBenchmark {
+
+    @Param({"true", "false"})
+    private boolean parallelRetryInProgress;
+
+    @Param({"FAILED", "PASSED"})
+    private Status status;
+
+    private ParallelRetryTestLifecycleListener listener;
+    private TestResult testResult;
+
+    @Setup
+    public void createListener() {
+        AllureParallelRetryState allureParallelRetryState = new AllureParallelRetryState();
+        if (parallelRetryInProgress) {
+            allureParallelRetryState.parallelRetryStarted();
+            allureParallelRetryState.parallelRetryNextPackStarted();
+        }
+        listener = new ParallelRetryTestLifecycleListener(allureParallelRetryState);
+        testResult = new TestResult()
+                .setUuid("uuid")
+                .setName("test")
+                .setStatus(status)
+                .setStart(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public TestResult beforeTestStop() {
+        listener.beforeTestStop(testResult);
+        return testResult;
+    }
+
+}
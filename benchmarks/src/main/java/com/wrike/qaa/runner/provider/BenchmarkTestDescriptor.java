@@ -0,0 +1,26 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+
+/**
+ * Descriptor of a test or container with the given source, it's not executable
+ *
+ * @author agent on 18.10.2026
+ */
+class BenchmarkTestDescriptor extends AbstractTestDescriptor {
+
+    private final Type type;
+
+    BenchmarkTestDescriptor(UniqueId uniqueId, String displayName, TestSource source, Type type) {
+        super(uniqueId, displayName, source);
+        this.type = type;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+}
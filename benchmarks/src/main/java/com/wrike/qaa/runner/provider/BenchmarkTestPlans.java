@@ -0,0 +1,24 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.TestPlan;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * Util class for benchmark test plans
+ *
+ * @author agent on 18.10.2026
+ */
+final class BenchmarkTestPlans {
+
+    private BenchmarkTestPlans() {
+    }
+
+    static TestPlan testPlan(TestDescriptor engineDescriptor) {
+        return TestPlan.from(List.of(engineDescriptor), Mockito.mock(ConfigurationParameters.class));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.maven.surefire.api.report.ReportEntry;
+import org.apache.maven.surefire.api.report.TestOutputReportEntry;
+import org.apache.maven.surefire.api.report.TestReportListener;
+import org.apache.maven.surefire.api.report.TestSetReportEntry;
+
+/**
+ * Surefire listener, which ignores all reports, so benchmarks measure only the provider
+ *
+ * @author agent on 18.10.2026
+ */
+class NoopTestReportListener implements TestReportListener<TestOutputReportEntry> {
+
+    @Override
+    public void testSetStarting(TestSetReportEntry report) {
+    }
+
+    @Override
+    public void testSetCompleted(TestSetReportEntry report) {
+    }
+
+    @Override
+    public void testStarting(ReportEntry report) {
+    }
+
+    @Override
+    public void testSucceeded(ReportEntry report) {
+    }
+
+    @Override
+    public void testAssumptionFailure(ReportEntry report) {
+    }
+
+    @Override
+    public void testError(ReportEntry report) {
+    }
+
+    @Override
+    public void testFailed(ReportEntry report) {
+    }
+
+    @Override
+    public void testSkipped(ReportEntry report) {
+    }
+
+    @Override
+    public void testExecutionSkippedByUser() {
+    }
+
+    @Override
+    public void writeTestOutput(TestOutputReportEntry reportEntry) {
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+
+    @Override
+    public void debug(String message) {
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return false;
+    }
+
+    @Override
+    public void info(String message) {
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return false;
+    }
+
+    @Override
+    public void warning(String message) {
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return false;
+    }
+
+    @Override
+    public void error(String message) {
+    }
+
+    @Override
+    public void error(String message, Throwable t) {
+    }
+
+    @Override
+    public void error(Throwable t) {
+    }
+
+}
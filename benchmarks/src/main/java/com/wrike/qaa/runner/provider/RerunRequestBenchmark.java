@@ -0,0 +1,109 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.maven.surefire.api.provider.ProviderParameters;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+import org.apache.maven.surefire.api.testset.TestRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.wrike.qaa.runner.provider.BenchmarkTestPlans.testPlan;
+
+/**
+ * Time of {@link JUnitPlatformProvider#buildLauncherDiscoveryRequestForRerunFailuresInParallel(RunListenerAdapter, int)}
+ * for many failed tests: descendants are removed, failures are sorted by durations, packed and converted to requests.
+ *
+ * @author agent on 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RerunRequestBenchmark {
+
+    private static final int METHODS_PER_CLASS = 20;
+    private static final int RETRIES_COUNT = 2;
+
+    @Param({"10000"})
+    private int failuresCount;
+
+    @Param({"100"})
+    private int threadCount;
+
+    private JUnitPlatformProvider provider;
+    private RunListenerAdapter adapter;
+
+    @Setup
+    public void createFailures() {
+        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(threadCount);
+        provider = new JUnitPlatformProvider(providerParametersMock(), Mockito.mock(Launcher.class), environmentProvider, List.of());
+
+        EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("junit-jupiter"), "JUnit Jupiter");
+        for (int classNumber = 0; classNumber * METHODS_PER_CLASS < failuresCount; classNumber++) {
+            String className = "com.wrike.qaa.benchmark.Dummy" + classNumber + "Test";
+            TestDescriptor classDescriptor = new BenchmarkTestDescriptor(engineDescriptor.getUniqueId().append("class", className),
+                    className, ClassSource.from(className), TestDescriptor.Type.CONTAINER);
+            engineDescriptor.addChild(classDescriptor);
+            for (int methodNumber = 0; methodNumber < METHODS_PER_CLASS; methodNumber++) {
+                String methodName = "test" + methodNumber;
+                classDescriptor.addChild(new BenchmarkTestDescriptor(classDescriptor.getUniqueId().append("method", methodName + "()"),
+                        methodName + "()", MethodSource.from(className, methodName, ""), TestDescriptor.Type.TEST));
+            }
+        }
+        TestPlan testPlan = testPlan(engineDescriptor);
+
+        adapter = new RunListenerAdapter(new NoopTestReportListener());
+        Map<TestIdentifier, TestExecutionResult> failures = adapter.getFailures();
+        Map<TestIdentifier, Integer> elapsedTimes = adapter.getElapsedTimes();
+        TestExecutionResult failed = TestExecutionResult.failed(new AssertionError("It's expected failure"));
+        testPlan.getRoots().stream()
+                .flatMap(root -> testPlan.getDescendants(root).stream())
+                .filter(TestIdentifier::isTest)
+                .limit(failuresCount)
+                .forEach(identifier -> {
+                    failures.put(identifier, failed);
+                    elapsedTimes.put(identifier, Math.abs(identifier.getUniqueId().hashCode() % 10_000));
+                });
+    }
+
+    @Benchmark
+    public List<LauncherDiscoveryRequest> buildRequests() {
+        return provider.buildLauncherDiscoveryRequestForRerunFailuresInParallel(adapter, RETRIES_COUNT);
+    }
+
+    private static ProviderParameters providerParametersMock() {
+        TestRequest testRequest = Mockito.mock(TestRequest.class);
+        Mockito.when(testRequest.getTestListResolver()).thenReturn(new TestListResolver(""));
+        ProviderParameters providerParameters = Mockito.mock(ProviderParameters.class);
+        Mockito.when(providerParameters.getTestRequest()).thenReturn(testRequest);
+        Mockito.when(providerParameters.getProviderProperties()).thenReturn(Map.of());
+        return providerParameters;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.wrike.qaa.runner.provider.BenchmarkTestPlans.testPlan;
+
+/**
+ * Throughput of {@link RunListenerAdapter} events for parameterized tests of deeply nested classes.
+ * One invocation replays the whole plan through a new adapter, like a retry attempt does.
+ * Adapters share one {@link TestNameCache}, like adapters of one provider, have their own ones,
+ * or resolve names on every event without a cache, like adapters did before the cache was added.
+ *
+ * @author agent on 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunListenerAdapterBenchmark {
+
+    private static final int INVOCATIONS_COUNT = 1_000;
+
+    @Param({"1", "5"})
+    private int nestingDepth;
+
+    /**
+     * {@code none} is the baseline without caching, {@code shared} and {@code perAdapter} are caches of a provider and of an adapter
+     */
+    @Param({"none", "shared", "perAdapter"})
+    private String cache;
+
+    private TestPlan testPlan;
+    private List<TestIdentifier> containers;
+    private List<TestIdentifier> invocations;
+    private TestNameCache testNameCache;
+
+    @Setup(Level.Trial)
+    public void createTestPlan() {
+        EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("junit-jupiter"), "JUnit Jupiter");
+        String className = "com.wrike.qaa.benchmark.OuterTest";
+        TestDescriptor parent = new BenchmarkTestDescriptor(engineDescriptor.getUniqueId().append("class", className),
+                "OuterTest", ClassSource.from(className), TestDescriptor.Type.CONTAINER);
+        engineDescriptor.addChild(parent);
+        for (int depth = 0; depth < nestingDepth; depth++) {
+            className = className + "$Nested" + depth;
+            TestDescriptor nested = new BenchmarkTestDescriptor(parent.getUniqueId().append("nested-class", "Nested" + depth),
+                    "Nested" + depth, ClassSource.from(className), TestDescriptor.Type.CONTAINER);
+            parent.addChild(nested);
+            parent = nested;
+        }
+        String parameterTypes = "int, java.lang.String";
+        TestDescriptor method = new BenchmarkTestDescriptor(parent.getUniqueId().append("test-template", "test(int, java.lang.String)"),
+                "test(int, String)", MethodSource.from(className, "test", parameterTypes), TestDescriptor.Type.CONTAINER);
+        parent.addChild(method);
+        for (int i = 1; i <= INVOCATIONS_COUNT; i++) {
+            method.addChild(new BenchmarkTestDescriptor(method.getUniqueId().append("test-template-invocation", "#" + i),
+                    "[" + i + "] " + i + ", value" + i, MethodSource.from(className, "test", parameterTypes), TestDescriptor.Type.TEST));
+        }
+        testPlan = testPlan(engineDescriptor);
+        containers = new ArrayList<>();
+        invocations = new ArrayList<>();
+        collect(testPlan.getRoots().iterator().next());
+        testNameCache = new TestNameCache();
+    }
+
+    /**
+     * Every invocation gives a start and a finish event, containers are not counted
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * INVOCATIONS_COUNT)
+    public RunListenerAdapter replayEvents() {
+        RunListenerAdapter adapter = new RunListenerAdapter(new NoopTestReportListener(), createTestNameCache());
+        adapter.testPlanExecutionStarted(testPlan);
+        containers.forEach(adapter::executionStarted);
+        for (TestIdentifier invocation : invocations) {
+            adapter.executionStarted(invocation);
+            adapter.executionFinished(invocation, TestExecutionResult.successful());
+        }
+        for (int i = containers.size() - 1; i >= 0; i--) {
+            adapter.executionFinished(containers.get(i), TestExecutionResult.successful());
+        }
+        adapter.testPlanExecutionFinished(testPlan);
+        return adapter;
+    }
+
+    private TestNameCache createTestNameCache() {
+        switch (cache) {
+            case "none":
+                return TestNameCache.disabled();
+            case "shared":
+                return testNameCache;
+            case "perAdapter":
+                return new TestNameCache();
+            default:
+                throw new IllegalArgumentException("Unknown cache: " + cache);
+        }
+    }
+
+    private void collect(TestIdentifier identifier) {
+        if (identifier.isTest()) {
+            invocations.add(identifier);
+        } else {
+            containers.add(identifier);
+        }
+        testPlan.getChildren(identifier).forEach(this::collect);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.maven.surefire.api.testset.TestListResolver;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link TestMethodFilter#apply(TestDescriptor)}, it's called for every discovered descriptor
+ * of the initial run and every retry, if tests are selected with {@code -Dtest}.
+ *
+ * @author agent on 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestMethodFilterBenchmark {
+
+    @Param({"com/wrike/**/*Test#test*", "FirstTest#testA+testB, SecondTest, **/ThirdTest#test*[1-5]"})
+    private String testPattern;
+
+    private TestMethodFilter filter;
+    private TestDescriptor methodDescriptor;
+
+    @Setup
+    public void createFilter() {
+        filter = new TestMethodFilter(new TestListResolver(testPattern));
+        String className = "com.wrike.qaa.benchmark.ThirdTest";
+        methodDescriptor = new BenchmarkTestDescriptor(UniqueId.forEngine("junit-jupiter").append("class", className).append("method", "test3()"),
+                "test3()", MethodSource.from(className, "test3", ""), TestDescriptor.Type.TEST);
+    }
+
+    @Benchmark
+    public FilterResult apply() {
+        return filter.apply(methodDescriptor);
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.maven.surefire.api.report.ReportEntry;
+import org.apache.maven.surefire.api.report.ReporterFactory;
+import org.apache.maven.surefire.api.report.TestOutputReportEntry;
+import org.apache.maven.surefire.api.report.TestReportListener;
+import org.apache.maven.surefire.api.report.TestSetReportEntry;
+import org.apache.maven.surefire.api.suite.RunResult;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Forwards report events of all listeners to surefire from one writer thread.
+ *
+ * <p>
+ * Parallel attempts report from many threads at once, and every call goes to the fork channel of surefire.
+ * Listeners created by {@link #createTestReportListener()} only put events to a lock-free multi-producer queue, and the writer thread
+ * forwards them in the order they were put, so events of every test keep their order.
+ * Report entries are immutable, so they can be forwarded later.
+ * </p>
+ *
+ * <p>
+ * The queue is bounded by a counter of published events. Report events can't be dropped or reordered,
+ * so on overflow a test thread backs off until the writer forwards queued events. It doesn't take a lock, and the backoff
+ * ignores interruptions, so events of an interrupted thread are not lost, the interruption is restored after the event is put.
+ * The closed flag is a part of the counter, so no event is put after the writer finished.
+ * </p>
+ *
+ * <p>
+ * If surefire fails to forward an event, the other events are still forwarded, and the first failure is rethrown by {@link #close()}.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class AsyncReporterFactory implements ReporterFactory {
+
+    private static final Logger LOG = LogManager.getLogger(AsyncReporterFactory.class);
+
+    private static final long CLOSED = 1L << 62;
+    private static final int SPINS_BEFORE_BACKOFF = 100;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ReporterFactory delegate;
+    private final int capacity;
+    private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+    /**
+     * Count of published, but not yet taken events and the {@link #CLOSED} flag
+     */
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicBoolean writerWaiting = new AtomicBoolean();
+    private final Thread writer;
+    /**
+     * It's written by the writer thread and read after it finished
+     */
+    private RuntimeException forwardingFailure;
+
+    /**
+     * @param delegate factory of surefire listeners
+     * @param capacity max count of events waiting for the writer
+     */
+    AsyncReporterFactory(ReporterFactory delegate, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Queue capacity (%d) should be positive!", capacity));
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        writer = new Thread(this::forwardEvents, "async-report-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public TestReportListener<TestOutputReportEntry> createTestReportListener() {
+        return new AsyncTestReportListener(delegate.createTestReportListener(), this);
+    }
+
+    /**
+     * Events published after the pipeline is closed are forwarded by the calling thread, when the writer forwarded all queued events
+     */
+    void publish(Runnable event) {
+        if (reserve()) {
+            events.add(event);
+            wakeUpWriter();
+            return;
+        }
+        joinWriter();
+        event.run();
+    }
+
+    /**
+     * Waits until all published events are forwarded and closes the delegate
+     *
+     * @throws RuntimeException the first failure of forwarding, after the delegate is closed
+     */
+    @Override
+    public RunResult close() {
+        long current;
+        do {
+            current = state.get();
+        } while ((current & CLOSED) == 0 && !state.compareAndSet(current, current | CLOSED));
+        if ((current & CLOSED) == 0) {
+            wakeUpWriter();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.error("Waiting for report events was interrupted, {} events are not forwarded", events.size());
+            }
+        }
+        RunResult runResult = delegate.close();
+        if (!writer.isAlive() && forwardingFailure != null) {
+            RuntimeException failure = forwardingFailure;
+            forwardingFailure = null;
+            throw failure;
+        }
+        return runResult;
+    }
+
+    /**
+     * Takes a place in the queue, spinning and then backing off while it's full
+     *
+     * @return false if the pipeline is closed
+     */
+    private boolean reserve() {
+        boolean interrupted = false;
+        int spins = 0;
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        try {
+            while (true) {
+                long current = state.get();
+                if ((current & CLOSED) != 0) {
+                    return false;
+                }
+                if (current < capacity) {
+                    if (state.compareAndSet(current, current + 1)) {
+                        return true;
+                    }
+                    continue;
+                }
+                if (spins++ < SPINS_BEFORE_BACKOFF) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                LockSupport.parkNanos(this, backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+                interrupted |= Thread.interrupted();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void wakeUpWriter() {
+        if (writerWaiting.get() && writerWaiting.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void joinWriter() {
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The writer finishes, when the pipeline is closed and all reserved events are forwarded
+     */
+    private void forwardEvents() {
+        while (true) {
+            Runnable event = events.poll();
+            if (event == null) {
+                if (state.get() == CLOSED) {
+                    return;
+                }
+                writerWaiting.set(true);
+                if (events.isEmpty() && state.get() != CLOSED) {
+                    LockSupport.park(this);
+                }
+                writerWaiting.set(false);
+                continue;
+            }
+            state.decrementAndGet();
+            try {
+                event.run();
+            } catch (RuntimeException e) {
+                LOG.error("Can't forward report event", e);
+                if (forwardingFailure == null) {
+                    forwardingFailure = e;
+                } else {
+                    forwardingFailure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    private static class AsyncTestReportListener implements TestReportListener<TestOutputReportEntry> {
+
+        private final TestReportListener<TestOutputReportEntry> delegate;
+        private final AsyncReporterFactory factory;
+
+        AsyncTestReportListener(TestReportListener<TestOutputReportEntry> delegate, AsyncReporterFactory factory) {
+            this.delegate = delegate;
+            this.factory = factory;
+        }
+
+        @Override
+        public void testSetStarting(TestSetReportEntry report) {
+            factory.publish(() -> delegate.testSetStarting(report));
+        }
+
+        @Override
+        public void testSetCompleted(TestSetReportEntry report) {
+            factory.publish(() -> delegate.testSetCompleted(report));
+        }
+
+        @Override
+        public void testStarting(ReportEntry report) {
+            factory.publish(() -> delegate.testStarting(report));
+        }
+
+        @Override
+        public void testSucceeded(ReportEntry report) {
+            factory.publish(() -> delegate.testSucceeded(report));
+        }
+
+        @Override
+        public void testAssumptionFailure(ReportEntry report) {
+            factory.publish(() -> delegate.testAssumptionFailure(report));
+        }
+
+        @Override
+        public void testError(ReportEntry report) {
+            factory.publish(() -> delegate.testError(report));
+        }
+
+        @Override
+        public void testFailed(ReportEntry report) {
+            factory.publish(() -> delegate.testFailed(report));
+        }
+
+        @Override
+        public void testSkipped(ReportEntry report) {
+            factory.publish(() -> delegate.testSkipped(report));
+        }
+
+        @Override
+        public void testExecutionSkippedByUser() {
+            factory.publish(delegate::testExecutionSkippedByUser);
+        }
+
+        @Override
+        public void writeTestOutput(TestOutputReportEntry reportEntry) {
+            factory.publish(() -> delegate.writeTestOutput(reportEntry));
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return delegate.isDebugEnabled();
+        }
+
+        @Override
+        public void debug(String message) {
+            factory.publish(() -> delegate.debug(message));
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return delegate.isInfoEnabled();
+        }
+
+        @Override
+        public void info(String message) {
+            factory.publish(() -> delegate.info(message));
+        }
+
+        @Override
+        public boolean isWarnEnabled() {
+            return delegate.isWarnEnabled();
+        }
+
+        @Override
+        public void warning(String message) {
+            factory.publish(() -> delegate.warning(message));
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return delegate.isErrorEnabled();
+        }
+
+        @Override
+        public void error(String message) {
+            factory.publish(() -> delegate.error(message));
+        }
+
+        @Override
+        public void error(String message, Throwable t) {
+            factory.publish(() -> delegate.error(message, t));
+        }
+
+        @Override
+        public void error(Throwable t) {
+            factory.publish(() -> delegate.error(t));
+        }
+
+    }
+
+}
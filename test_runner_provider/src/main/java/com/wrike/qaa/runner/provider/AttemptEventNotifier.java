@@ -0,0 +1,100 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BooleanSupplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.platform.engine.TestExecutionResult.Status.ABORTED;
+import static org.junit.platform.engine.TestExecutionResult.Status.FAILED;
+
+/**
+ * Notifies {@link EventListener}s about attempts of tests, which are executed by one retry attempt, see {@link TestAttemptEvent}.
+ * Tests are scheduled, when the attempt is submitted, so the queueing delay includes the wait for a free thread.
+ * Attempts, which are skipped or cancelled before their tests are started, are only scheduled.
+ *
+ * @author agent on 18.10.2026
+ */
+final class AttemptEventNotifier implements TestExecutionListener {
+
+    private final int round;
+    private final int attemptNumber;
+    private final EventListenerDispatcher dispatcher;
+    private final boolean enabled;
+    private final ConcurrentMap<String, Long> testStartNanos = new ConcurrentHashMap<>();
+    private volatile long scheduledNanos;
+    private volatile BooleanSupplier cancelled = () -> false;
+
+    /**
+     * Events are not created, if there are no listeners
+     */
+    AttemptEventNotifier(int round, int attemptNumber, EventListenerDispatcher dispatcher) {
+        this.round = round;
+        this.attemptNumber = attemptNumber;
+        this.dispatcher = dispatcher;
+        this.enabled = dispatcher.hasListeners();
+    }
+
+    /**
+     * Failures of a cancelled attempt are notified as {@link TestExecutionResult.Status#ABORTED}
+     *
+     * @param cancelled whether the attempt is cancelled, see {@link RetryAttempt#cancel()}
+     */
+    void setCancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    void scheduled(Collection<TestIdentifier> testIdentifiers) {
+        scheduledNanos = System.nanoTime();
+        if (!enabled) {
+            return;
+        }
+        String threadName = Thread.currentThread().getName();
+        testIdentifiers.forEach(testIdentifier -> {
+            TestAttemptEvent event = new TestAttemptEvent(testIdentifier.getUniqueId(), attemptNumber, round, threadName, 0, 0, null);
+            dispatcher.notify(coalescingKey(testIdentifier), eventListener -> eventListener.attemptScheduled(event));
+        });
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!enabled || !testIdentifier.isTest()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        testStartNanos.put(testIdentifier.getUniqueId(), startNanos);
+        TestAttemptEvent event = new TestAttemptEvent(testIdentifier.getUniqueId(), attemptNumber, round, Thread.currentThread().getName(),
+                NANOSECONDS.toMillis(startNanos - scheduledNanos), 0, null);
+        dispatcher.notify(coalescingKey(testIdentifier), eventListener -> eventListener.attemptStarted(event));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (!enabled || !testIdentifier.isTest()) {
+            return;
+        }
+        long finishNanos = System.nanoTime();
+        long startNanos = testStartNanos.getOrDefault(testIdentifier.getUniqueId(), finishNanos);
+        testStartNanos.remove(testIdentifier.getUniqueId());
+        TestExecutionResult.Status outcome = testExecutionResult.getStatus() == FAILED && cancelled.getAsBoolean()
+                ? ABORTED
+                : testExecutionResult.getStatus();
+        TestAttemptEvent event = new TestAttemptEvent(testIdentifier.getUniqueId(), attemptNumber, round, Thread.currentThread().getName(),
+                NANOSECONDS.toMillis(startNanos - scheduledNanos), NANOSECONDS.toMillis(finishNanos - startNanos), outcome);
+        dispatcher.notify(coalescingKey(testIdentifier), eventListener -> eventListener.attemptFinished(event));
+    }
+
+    /**
+     * A queued event of an attempt can be replaced by its later event, see {@link ListenerOverflowPolicy#COALESCE}
+     */
+    private List<Object> coalescingKey(TestIdentifier testIdentifier) {
+        return List.of(testIdentifier.getUniqueId(), round, attemptNumber);
+    }
+
+}
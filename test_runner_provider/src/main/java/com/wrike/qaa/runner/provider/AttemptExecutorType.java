@@ -0,0 +1,96 @@
+package com.wrike.qaa.runner.provider;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Defines threads, which execute parallel retry attempts.
+ * The count of simultaneously running attempts is limited by the caller, not by the executor.
+ *
+ * <ul>
+ *     <li>{@link #PLATFORM} — a bounded pool of reusable platform threads</li>
+ *     <li>{@link #VIRTUAL} — a new virtual thread per attempt. It's available since JDK 21, on older JDKs {@link #PLATFORM} is used</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+enum AttemptExecutorType {
+
+    PLATFORM("platform") {
+        @Override
+        ExecutorService create(int threadCount) {
+            return Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                    .setNameFormat("parallel-retry-%d")
+                    .build());
+        }
+    },
+    VIRTUAL("virtual") {
+        @Override
+        ExecutorService create(int threadCount) {
+            if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.isEmpty()) {
+                LOG.warn("Virtual threads are not supported by JDK {}, platform threads will be used", Runtime.version().feature());
+                return PLATFORM.create(threadCount);
+            }
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.get().invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Can't create virtual thread executor", e);
+            }
+        }
+    };
+
+    private static final Logger LOG = LogManager.getLogger(AttemptExecutorType.class);
+
+    /**
+     * The provider is compiled for JDK 11, so the JDK 21 method is looked up in runtime
+     */
+    private static final Optional<Method> NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    AttemptExecutorType(String attemptExecutorTypeString) {
+        this.attemptExecutorTypeString = attemptExecutorTypeString;
+    }
+
+    private final String attemptExecutorTypeString;
+
+    public String getAttemptExecutorTypeString() {
+        return attemptExecutorTypeString;
+    }
+
+    /**
+     * @param threadCount maximal count of simultaneously running attempts
+     * @return executor, which should be shut down by the caller
+     */
+    abstract ExecutorService create(int threadCount);
+
+    private static final Map<String, AttemptExecutorType> attemptExecutorTypeNamesToEnumValues = Arrays.stream(AttemptExecutorType.values())
+            .collect(Collectors.toMap(AttemptExecutorType::getAttemptExecutorTypeString, Function.identity()));
+
+    public static Optional<AttemptExecutorType> getAttemptExecutorTypeByName(String attemptExecutorTypeName) {
+        return Optional.ofNullable(attemptExecutorTypeNamesToEnumValues.get(attemptExecutorTypeName));
+    }
+
+    public static Set<String> getAvailableAttemptExecutorTypes() {
+        return attemptExecutorTypeNamesToEnumValues.keySet();
+    }
+
+    private static Optional<Method> findNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+
+}
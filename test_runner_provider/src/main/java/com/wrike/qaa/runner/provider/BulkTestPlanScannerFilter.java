@@ -0,0 +1,179 @@
+package com.wrike.qaa.runner.provider;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.maven.surefire.api.util.ScanResult;
+import org.apache.maven.surefire.api.util.ScannerFilter;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Accepts the same classes as {@link TestPlanScannerFilter}, but discovers all candidate classes
+ * with a few bulk requests instead of one request per class.
+ *
+ * <p>
+ * Candidates are split into batches, which are discovered in parallel.
+ * A class contains tests if it's a source of a discovered test or of one of its ancestors.
+ * A leaf of a discovered plan is always a test or a container, which may register tests dynamically,
+ * because JUnit prunes containers without tests. If some tests can't be attributed to a class,
+ * the not accepted candidates are checked one by one like {@link TestPlanScannerFilter} does.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class BulkTestPlanScannerFilter implements ScannerFilter {
+
+    private static final Logger LOG = LogManager.getLogger(BulkTestPlanScannerFilter.class);
+
+    private final Launcher launcher;
+    private final Filter<?>[] includeAndExcludeFilters;
+    private final ScanResult scanResult;
+    private final ClassLoader testClassLoader;
+    private final int batchSize;
+    private final Supplier<Set<String>> classesWithTestsSupplier = Suppliers.memoize(this::discoverClassesWithTests);
+
+    BulkTestPlanScannerFilter(Launcher launcher, Filter<?>[] includeAndExcludeFilters, ScanResult scanResult,
+                              ClassLoader testClassLoader, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(String.format("Batch size (%d) should be positive!", batchSize));
+        }
+        this.launcher = launcher;
+        this.includeAndExcludeFilters = includeAndExcludeFilters;
+        this.scanResult = scanResult;
+        this.testClassLoader = testClassLoader;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean accept(Class testClass) {
+        return classesWithTestsSupplier.get().contains(testClass.getName());
+    }
+
+    private Set<String> discoverClassesWithTests() {
+        List<Class<?>> candidates = IntStream.range(0, scanResult.size())
+                .mapToObj(scanResult::getClassName)
+                .map(this::loadClass)
+                .collect(toList());
+        List<List<Class<?>>> batches = Lists.partition(candidates, batchSize);
+        Set<String> classesWithTests = new HashSet<>();
+        boolean allTestsAttributed = true;
+        for (TestPlan testPlan : discover(batches)) {
+            allTestsAttributed &= collectClassesWithTests(testPlan, classesWithTests);
+        }
+        if (!allTestsAttributed) {
+            LOG.warn("Some discovered tests have no class source, candidate classes will be checked one by one");
+            TestPlanScannerFilter perClassFilter = new TestPlanScannerFilter(launcher, includeAndExcludeFilters);
+            candidates.stream()
+                    .filter(candidate -> !classesWithTests.contains(candidate.getName()))
+                    .filter(perClassFilter::accept)
+                    .forEach(candidate -> classesWithTests.add(candidate.getName()));
+        }
+        return classesWithTests;
+    }
+
+    private List<TestPlan> discover(List<List<Class<?>>> batches) {
+        if (batches.size() < 2) {
+            return batches.stream().map(this::discoverBatch).collect(toList());
+        }
+        int threadCount = Math.min(batches.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                .setNameFormat("bulk-scan-%d")
+                .build());
+        try {
+            List<Future<TestPlan>> testPlans = batches.stream()
+                    .map(batch -> executor.submit(() -> discoverBatch(batch)))
+                    .collect(toList());
+            List<TestPlan> result = new ArrayList<>();
+            for (Future<TestPlan> testPlan : testPlans) {
+                result.add(testPlan.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Classpath scanning was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Can't discover test classes!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TestPlan discoverBatch(List<Class<?>> batch) {
+        return launcher.discover(request()
+                .selectors(batch.stream().map(candidate -> selectClass(candidate)).collect(toList()))
+                .filters(includeAndExcludeFilters)
+                .build());
+    }
+
+    /**
+     * @return false if some tests can't be attributed to a class
+     */
+    private static boolean collectClassesWithTests(TestPlan testPlan, Set<String> classesWithTests) {
+        boolean allTestsAttributed = true;
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier descendant : testPlan.getDescendants(root)) {
+                if (testPlan.getChildren(descendant).isEmpty()) {
+                    allTestsAttributed &= collectClassesOfHierarchy(testPlan, descendant, classesWithTests);
+                }
+            }
+        }
+        return allTestsAttributed;
+    }
+
+    private static boolean collectClassesOfHierarchy(TestPlan testPlan, TestIdentifier leaf, Set<String> classesWithTests) {
+        boolean attributed = false;
+        Optional<TestIdentifier> current = Optional.of(leaf);
+        while (current.isPresent()) {
+            Optional<String> className = current.get().getSource().flatMap(BulkTestPlanScannerFilter::getClassName);
+            if (className.isPresent()) {
+                classesWithTests.add(className.get());
+                attributed = true;
+            }
+            current = testPlan.getParent(current.get());
+        }
+        return attributed;
+    }
+
+    private static Optional<String> getClassName(TestSource testSource) {
+        if (testSource instanceof ClassSource) {
+            return Optional.of(((ClassSource) testSource).getClassName());
+        } else if (testSource instanceof MethodSource) {
+            return Optional.of(((MethodSource) testSource).getClassName());
+        }
+        return Optional.empty();
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return testClassLoader.loadClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Can't load test class " + className, e);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.wrike.qaa.runner.provider;
+
+import com.google.common.collect.Lists;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Groups failed tests of the same top-level class into one retry attempt.
+ *
+ * <p>
+ * If every failed method is retried in its own execution, class-level fixtures ({@code @BeforeAll}, {@code @AfterAll},
+ * static initializers) are executed once per method and attempt. Methods of one class, including methods of its
+ * {@code @Nested} classes, are executed together instead, so the class is set up once per attempt.
+ * A group takes a slot per test, so groups are limited by the count of slots, which can be given to one attempt.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class ClassAffinityGrouping {
+
+    private static final String NESTED_CLASS_SEGMENT_TYPE = "nested-class";
+
+    private ClassAffinityGrouping() {
+    }
+
+    /**
+     * @param testIdentifiers failed tests in the order of their retries
+     * @param maxGroupSize    max count of tests in one group, larger classes are split into several groups
+     * @return groups in the order of the first test of their classes, tests keep their order inside a group
+     */
+    static List<List<TestIdentifier>> group(Collection<TestIdentifier> testIdentifiers, int maxGroupSize) {
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException(String.format("Group size (%d) should be positive!", maxGroupSize));
+        }
+        Map<UniqueId, List<TestIdentifier>> testsByClass = new LinkedHashMap<>();
+        testIdentifiers.forEach(testIdentifier -> testsByClass
+                .computeIfAbsent(getTopLevelContainer(testIdentifier), topLevelContainer -> new ArrayList<>())
+                .add(testIdentifier));
+        return testsByClass.values().stream()
+                .flatMap(tests -> Lists.partition(tests, maxGroupSize).stream())
+                .collect(toList());
+    }
+
+    /**
+     * Groups of classes are put into packs by the first fit, so a class isn't split between packs, if it fits into one pack.
+     * Groups are placed in their order, so packs of longest-first tests start with the longest classes.
+     *
+     * @param testIdentifiers failed tests in the order of their retries
+     * @param packSize        max count of tests in one pack
+     * @return packs, tests of one class are kept together inside a pack
+     */
+    static List<List<TestIdentifier>> pack(Collection<TestIdentifier> testIdentifiers, int packSize) {
+        List<List<TestIdentifier>> packs = new ArrayList<>();
+        group(testIdentifiers, packSize).forEach(group -> {
+            List<TestIdentifier> pack = packs.stream()
+                    .filter(packCandidate -> packCandidate.size() + group.size() <= packSize)
+                    .findFirst()
+                    .orElseGet(() -> {
+                        List<TestIdentifier> newPack = new ArrayList<>();
+                        packs.add(newPack);
+                        return newPack;
+                    });
+            pack.addAll(group);
+        });
+        return packs;
+    }
+
+    /**
+     * Every group is executed in one attempt, so its class containers are executed once per attempt.
+     * Without grouping, every test would execute all its class containers separately, including its {@code @Nested} classes.
+     *
+     * @param groups groups of tests
+     * @param attemptsCount count of attempts of every group
+     * @return count of class setups, which are saved by the grouping
+     */
+    static int countSavedClassSetups(List<List<TestIdentifier>> groups, int attemptsCount) {
+        return groups.stream()
+                .mapToInt(group -> {
+                    List<List<UniqueId>> containersOfTests = group.stream()
+                            .map(ClassAffinityGrouping::getClassContainers)
+                            .collect(toList());
+                    int setupsWithoutGrouping = containersOfTests.stream().mapToInt(List::size).sum();
+                    int setupsOfGroup = (int) containersOfTests.stream().flatMap(List::stream).distinct().count();
+                    return setupsWithoutGrouping - setupsOfGroup;
+                })
+                .sum() * attemptsCount;
+    }
+
+    /**
+     * @return the top-level container and all nested classes of the test, from the outermost one
+     */
+    private static List<UniqueId> getClassContainers(TestIdentifier testIdentifier) {
+        UniqueId uniqueId = UniqueId.parse(testIdentifier.getUniqueId());
+        List<UniqueId> classContainers = new ArrayList<>();
+        for (UniqueId container = uniqueId.removeLastSegment(); container.getSegments().size() > 1; container = container.removeLastSegment()) {
+            if (container.getSegments().size() == 2 || NESTED_CLASS_SEGMENT_TYPE.equals(container.getLastSegment().getType())) {
+                classContainers.add(0, container);
+            }
+        }
+        return classContainers;
+    }
+
+    /**
+     * The engine segment and the next one, it's the top-level class for the Jupiter and Vintage engines
+     */
+    private static UniqueId getTopLevelContainer(TestIdentifier testIdentifier) {
+        UniqueId uniqueId = UniqueId.parse(testIdentifier.getUniqueId());
+        while (uniqueId.getSegments().size() > 2) {
+            uniqueId = uniqueId.removeLastSegment();
+        }
+        return uniqueId;
+    }
+
+}
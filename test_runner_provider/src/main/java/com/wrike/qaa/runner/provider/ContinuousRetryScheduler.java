@@ -0,0 +1,182 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Runs retry attempts on a fixed count of slots without barriers between them.
+ * The next attempt from the queue starts as soon as any running attempt is finished,
+ * so one slow test does not keep other slots idle.
+ * An attempt takes a slot per test, but no more than all slots.
+ * Slots can be shared by schedulers, which run concurrently, so all of them together don't exceed the budget.
+ *
+ * <p>
+ * If the scheduler is hedged, attempts of the same tests are siblings.
+ * As soon as one of them passed, the queued siblings are skipped and the running ones are marked as cancelled and interrupted.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+class ContinuousRetryScheduler {
+
+    private static final Logger LOG = LogManager.getLogger(ContinuousRetryScheduler.class);
+
+    private final Executor executor;
+    private final Semaphore slots;
+    private final int slotCount;
+    private final boolean hedged;
+
+    ContinuousRetryScheduler(Executor executor, int slotCount) {
+        this(executor, slotCount, false);
+    }
+
+    /**
+     * @param executor  executes attempts, it's not limited by the scheduler and should have at least {@code slotCount} threads
+     * @param slotCount maximal count of simultaneously running tests
+     * @param hedged    whether siblings of a passed attempt should be cancelled
+     */
+    ContinuousRetryScheduler(Executor executor, int slotCount, boolean hedged) {
+        this(executor, new Semaphore(slotCount), slotCount, hedged);
+    }
+
+    /**
+     * @param executor  executes attempts, it's not limited by the scheduler and should have at least {@code slotCount} threads
+     * @param slots     free slots, they may be shared with other schedulers
+     * @param slotCount count of all slots
+     * @param hedged    whether siblings of a passed attempt should be cancelled
+     */
+    ContinuousRetryScheduler(Executor executor, Semaphore slots, int slotCount, boolean hedged) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException(String.format("Slot count (%d) should be positive!", slotCount));
+        }
+        this.executor = executor;
+        this.slots = slots;
+        this.slotCount = slotCount;
+        this.hedged = hedged;
+    }
+
+    /**
+     * Runs attempts in the given order and waits until all of them are finished.
+     * If any attempt throws an exception, the other attempts are cancelled and the exception is rethrown.
+     *
+     * @param attempts      attempts to run
+     * @param attemptRunner executes one attempt and returns true if all its tests passed
+     */
+    void run(List<RetryAttempt> attempts, Predicate<RetryAttempt> attemptRunner) {
+        Map<List<TestIdentifier>, List<RetryAttempt>> siblingAttempts = new HashMap<>();
+        Map<List<TestIdentifier>, List<FutureTask<Void>>> siblingTasks = new HashMap<>();
+        AtomicInteger cancelledAttempts = new AtomicInteger();
+        List<FutureTask<Void>> tasks = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        attempts.forEach(attempt -> {
+            List<RetryAttempt> siblings = siblingAttempts.computeIfAbsent(attempt.getTestIdentifiers(), tests -> new ArrayList<>());
+            List<FutureTask<Void>> tasksOfSiblings = siblingTasks.computeIfAbsent(attempt.getTestIdentifiers(), tests -> new ArrayList<>());
+            int siblingIndex = siblings.size();
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                // a cancelled attempt has no failures to report, but it didn't pass
+                if (attemptRunner.test(attempt) && hedged && !attempt.isCancelled()) {
+                    cancelledAttempts.addAndGet(cancelSiblings(siblings, tasksOfSiblings, siblingIndex));
+                }
+                return null;
+            });
+            siblings.add(attempt);
+            tasksOfSiblings.add(task);
+            tasks.add(task);
+            weights.add(Math.max(1, Math.min(attempt.getTestIdentifiers().size(), slotCount)));
+        });
+
+        List<CountDownLatch> startedTasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                FutureTask<Void> task = tasks.get(i);
+                // a cancelled attempt doesn't take a slot
+                if (!task.isCancelled()) {
+                    slots.acquire(weights.get(i));
+                    startedTasks.add(start(task, weights.get(i)));
+                }
+            }
+            for (FutureTask<Void> task : tasks) {
+                try {
+                    task.get();
+                } catch (CancellationException e) {
+                    // a sibling attempt passed, the result of this one doesn't matter
+                }
+            }
+            // cancelled attempts can still report their results, so they should be finished before the next step
+            for (CountDownLatch startedTask : startedTasks) {
+                startedTask.await();
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test execution was interrupted!", e);
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            throw new IllegalStateException("Retry attempt failed!", e.getCause());
+        }
+        if (hedged) {
+            LOG.info("{} of {} retry attempts were cancelled because a sibling attempt passed", cancelledAttempts.get(), attempts.size());
+        }
+    }
+
+    /**
+     * @return latch, which is opened when the task released its slots
+     */
+    private CountDownLatch start(FutureTask<Void> task, int weight) {
+        CountDownLatch finished = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release(weight);
+                    finished.countDown();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release(weight);
+            throw e;
+        }
+        return finished;
+    }
+
+    /**
+     * Skips queued siblings and interrupts running ones. Siblings are marked as cancelled before the interruption,
+     * see {@link RetryAttempt#cancel()}. The interruption is best effort: a test, which doesn't check the interrupted flag,
+     * keeps its slot until it's finished.
+     *
+     * @param siblings        all attempts of the same tests
+     * @param tasksOfSiblings tasks of the siblings in the same order
+     * @param passedIndex     index of the passed attempt in siblings, it's still running and should not be cancelled
+     * @return count of cancelled attempts
+     */
+    private static int cancelSiblings(List<RetryAttempt> siblings, List<FutureTask<Void>> tasksOfSiblings, int passedIndex) {
+        int cancelled = 0;
+        for (int i = 0; i < siblings.size(); i++) {
+            FutureTask<Void> task = tasksOfSiblings.get(i);
+            if (i == passedIndex || task.isDone()) {
+                continue;
+            }
+            siblings.get(i).cancel();
+            if (task.cancel(true)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+}
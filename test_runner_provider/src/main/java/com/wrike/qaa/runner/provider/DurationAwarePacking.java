@@ -0,0 +1,75 @@
+package com.wrike.qaa.runner.provider;
+
+import com.google.common.collect.Lists;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Packs failed tests into parallel retry groups by their durations in the previous run.
+ *
+ * <p>
+ * All attempts of a pack are executed at the same time and each test takes a thread, so a pack takes as long as its longest test,
+ * and packs are executed one by one. Tests are sorted longest first, like in the longest-processing-time-first heuristic,
+ * and split into consecutive groups. For groups of a fixed size it gives the minimal sum of pack maxima,
+ * because long tests share packs with each other instead of extending packs of short tests.
+ * The same order is used for other retries, so the longest tests start first.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class DurationAwarePacking {
+
+    private DurationAwarePacking() {
+    }
+
+    /**
+     * @param testIdentifiers failed tests
+     * @param durations durations of tests in milliseconds, unknown durations are treated as 0
+     * @return tests sorted by duration descending, tests with equal durations keep their order
+     */
+    static List<TestIdentifier> sortLongestFirst(Collection<TestIdentifier> testIdentifiers, Map<TestIdentifier, Integer> durations) {
+        return testIdentifiers.stream()
+                .sorted(Comparator.comparingLong((TestIdentifier testIdentifier) -> getDuration(testIdentifier, durations)).reversed())
+                .collect(toList());
+    }
+
+    /**
+     * @param testIdentifiers failed tests
+     * @param durations durations of tests in milliseconds
+     * @param groupSize max count of tests in one pack
+     * @return packs, the first pack contains the longest tests
+     */
+    static List<List<TestIdentifier>> pack(Collection<TestIdentifier> testIdentifiers, Map<TestIdentifier, Integer> durations, int groupSize) {
+        return Lists.partition(sortLongestFirst(testIdentifiers, durations), groupSize);
+    }
+
+    /**
+     * @return sum of the longest test durations of packs
+     */
+    static long estimateMakespan(List<List<TestIdentifier>> packs, Map<TestIdentifier, Integer> durations) {
+        return packs.stream()
+                .mapToLong(pack -> pack.stream().mapToLong(testIdentifier -> getDuration(testIdentifier, durations)).max().orElse(0))
+                .sum();
+    }
+
+    /**
+     * The lower bound of the makespan: all attempts are spread evenly over threads, but no faster than the longest test
+     */
+    static long estimateIdealMakespan(Collection<TestIdentifier> testIdentifiers, Map<TestIdentifier, Integer> durations,
+                                      int attemptsCount, int threadCount) {
+        long sum = testIdentifiers.stream().mapToLong(testIdentifier -> getDuration(testIdentifier, durations)).sum();
+        long max = testIdentifiers.stream().mapToLong(testIdentifier -> getDuration(testIdentifier, durations)).max().orElse(0);
+        return Math.max((sum * attemptsCount + threadCount - 1) / threadCount, max);
+    }
+
+    private static long getDuration(TestIdentifier testIdentifier, Map<TestIdentifier, Integer> durations) {
+        return durations.getOrDefault(testIdentifier, 0);
+    }
+
+}
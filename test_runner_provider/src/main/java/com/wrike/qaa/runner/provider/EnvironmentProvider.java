@@ -2,10 +2,21 @@ package com.wrike.qaa.runner.provider;
 
 import com.google.common.base.Suppliers;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import static com.wrike.qaa.runner.provider.AttemptExecutorType.PLATFORM;
+import static com.wrike.qaa.runner.provider.AttemptExecutorType.getAttemptExecutorTypeByName;
+import static com.wrike.qaa.runner.provider.AttemptExecutorType.getAvailableAttemptExecutorTypes;
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.BLOCK;
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.getAvailableListenerOverflowPolicies;
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.getListenerOverflowPolicyByName;
 import static com.wrike.qaa.runner.provider.RetryMode.*;
+import static com.wrike.qaa.runner.provider.RetryScheduling.PACKS;
+import static com.wrike.qaa.runner.provider.RetryScheduling.getAvailableRetrySchedulings;
+import static com.wrike.qaa.runner.provider.RetryScheduling.getRetrySchedulingByName;
 
 /**
  * Provides external properties. It's used to mock the environment in tests.
@@ -23,10 +34,88 @@ class EnvironmentProvider {
      * If there are more failed tests than a threshold, tests will be retried sequentially
      */
     private static final String FAILED_TESTS_THRESHOLD_PROPERTY = "retry.parallel.failed.tests.threshold";
+    /**
+     * Defines how parallel retry attempts are distributed between threads, see {@link RetryScheduling}
+     */
+    private static final String RETRY_SCHEDULING_PROPERTY = "retry.parallel.scheduling";
+    /**
+     * Defines threads, which execute parallel retry attempts, see {@link AttemptExecutorType}
+     */
+    private static final String ATTEMPT_EXECUTOR_PROPERTY = "retry.parallel.executor";
+    /**
+     * If it's specified, candidate classes are discovered in batches of this size, see {@link BulkTestPlanScannerFilter}.
+     * Otherwise, they are discovered one by one
+     */
+    private static final String SCAN_BATCH_SIZE_PROPERTY = "scan.bulk.batch.size";
+    /**
+     * If it's true, one launcher session is used for the initial run and all retries
+     */
+    private static final String LAUNCHER_SESSION_SHARED_PROPERTY = "launcher.session.shared";
+    /**
+     * If it's specified, flakiness history of tests is stored in this directory, see {@link FlakinessHistoryStore}.
+     * The history is recorded in all modes, but only {@link RetryScheduling#MIXED} scheduling uses it to size attempts
+     */
+    private static final String RETRY_HISTORY_DIRECTORY_PROPERTY = "retry.history.dir";
+    /**
+     * If it's specified, failed tests are retried in this count of threads while the initial run is still executed,
+     * see {@link StreamingRetryQueue}
+     */
+    private static final String STREAMING_RETRY_SLOTS_PROPERTY = "retry.streaming.slots";
+    /**
+     * If it's true, parallel retries execute failed methods of the same class together, see {@link ClassAffinityGrouping}.
+     * Continuous retries group them into one attempt, and packs keep them in one pack.
+     * It isn't applied to {@link RetryMode#HEDGED} mode and {@link RetryScheduling#MIXED} scheduling,
+     * mixed rounds execute all tests of an attempt together anyway
+     */
+    private static final String CLASS_AFFINITY_PROPERTY = "retry.parallel.class.affinity";
+    /**
+     * If it's specified, new retry attempts are not scheduled after this count of seconds since the first retry, see {@link RetryDeadline}
+     */
+    private static final String RETRY_MAX_DURATION_PROPERTY = "retry.max.duration";
+    /**
+     * If it's specified, new retry attempts of a round are not scheduled after this count of seconds since the round start
+     */
+    private static final String RETRY_ROUND_MAX_DURATION_PROPERTY = "retry.round.max.duration";
+    /**
+     * If it's specified, report events are forwarded to surefire from one thread through a queue of this size, see {@link AsyncReporterFactory}
+     */
+    private static final String ASYNC_REPORT_QUEUE_SIZE_PROPERTY = "report.async.queue.size";
+    /**
+     * If it's specified, timings of provider phases are written to this directory, see {@link ProviderMetrics}
+     */
+    private static final String METRICS_DIRECTORY_PROPERTY = "provider.metrics.dir";
+    /**
+     * If it's specified, event listeners are notified from one thread through a queue of this size, see {@link EventListenerDispatcher}
+     */
+    private static final String ASYNC_LISTENER_QUEUE_SIZE_PROPERTY = "listener.async.queue.size";
+    /**
+     * Defines what happens with a notification, when the listener queue is full, see {@link ListenerOverflowPolicy}
+     */
+    private static final String LISTENER_OVERFLOW_POLICY_PROPERTY = "listener.async.overflow";
+    /**
+     * If it's specified, retry attempts of all forks on the machine are executed in this count of threads, see {@link MachineSlotBudget}
+     */
+    private static final String MACHINE_SLOTS_PROPERTY = "retry.machine.slots";
+    /**
+     * Directory of slot files, which is shared by forks. It should be the same for all forks
+     */
+    private static final String MACHINE_SLOTS_DIRECTORY_PROPERTY = "retry.machine.slots.dir";
 
     private static final int DEFAULT_FAILED_TESTS_THRESHOLD = Integer.MAX_VALUE;
     private static final RetryMode DEFAULT_RETRY_MODE = SEQUENTIAL;
     private static final int DEFAULT_THREAD_COUNT = 1;
+    private static final RetryScheduling DEFAULT_RETRY_SCHEDULING = PACKS;
+    private static final AttemptExecutorType DEFAULT_ATTEMPT_EXECUTOR_TYPE = PLATFORM;
+    private static final int DEFAULT_SCAN_BATCH_SIZE = 0;
+    private static final boolean DEFAULT_LAUNCHER_SESSION_SHARED = false;
+    private static final int DEFAULT_STREAMING_RETRY_SLOTS = 0;
+    private static final boolean DEFAULT_CLASS_AFFINITY = false;
+    private static final int DEFAULT_RETRY_MAX_DURATION = 0;
+    private static final int DEFAULT_ASYNC_REPORT_QUEUE_SIZE = 0;
+    private static final int DEFAULT_ASYNC_LISTENER_QUEUE_SIZE = 0;
+    private static final ListenerOverflowPolicy DEFAULT_LISTENER_OVERFLOW_POLICY = BLOCK;
+    private static final int DEFAULT_MACHINE_SLOTS = 0;
+    private static final String DEFAULT_MACHINE_SLOTS_DIRECTORY_NAME = "parallel-retries-slots";
 
     private final int rerunFailingTestsCount;
 
@@ -50,6 +139,87 @@ class EnvironmentProvider {
         return failedTestsThresholdForParallelRetrySupplier.get();
     }
 
+    public RetryScheduling getRetryScheduling() {
+        return retrySchedulingSupplier.get();
+    }
+
+    public AttemptExecutorType getAttemptExecutorType() {
+        return attemptExecutorTypeSupplier.get();
+    }
+
+    /**
+     * @return the size of bulk discovery batches or 0, if classes should be discovered one by one
+     */
+    public int getScanBatchSize() {
+        return scanBatchSizeSupplier.get();
+    }
+
+    public boolean isLauncherSessionShared() {
+        return launcherSessionSharedSupplier.get();
+    }
+
+    public Optional<Path> getRetryHistoryDirectory() {
+        return retryHistoryDirectorySupplier.get();
+    }
+
+    /**
+     * @return count of threads for streaming retries or 0, if tests are retried after the initial run
+     */
+    public int getStreamingRetrySlots() {
+        return streamingRetrySlotsSupplier.get();
+    }
+
+    public boolean isClassAffinityEnabled() {
+        return classAffinitySupplier.get();
+    }
+
+    /**
+     * @return budget of all retries in seconds or 0, if retries are not limited by time
+     */
+    public int getRetryMaxDurationSeconds() {
+        return retryMaxDurationSupplier.get();
+    }
+
+    /**
+     * @return budget of one retry round in seconds or 0, if rounds are limited only by {@link #getRetryMaxDurationSeconds()}
+     */
+    public int getRetryRoundMaxDurationSeconds() {
+        return retryRoundMaxDurationSupplier.get();
+    }
+
+    /**
+     * @return capacity of the report queue or 0, if events are reported by test threads
+     */
+    public int getAsyncReportQueueSize() {
+        return asyncReportQueueSizeSupplier.get();
+    }
+
+    public Optional<Path> getMetricsDirectory() {
+        return metricsDirectorySupplier.get();
+    }
+
+    /**
+     * @return capacity of the listener queue or 0, if listeners are notified by the notifying thread
+     */
+    public int getAsyncListenerQueueSize() {
+        return asyncListenerQueueSizeSupplier.get();
+    }
+
+    public ListenerOverflowPolicy getListenerOverflowPolicy() {
+        return listenerOverflowPolicySupplier.get();
+    }
+
+    /**
+     * @return count of retry threads of all forks on the machine or 0, if every fork uses its own threads only
+     */
+    public int getMachineSlots() {
+        return machineSlotsSupplier.get();
+    }
+
+    public Path getMachineSlotsDirectory() {
+        return machineSlotsDirectorySupplier.get();
+    }
+
     private static final Supplier<Integer> failedTestsThresholdForParallelRetrySupplier = Suppliers.memoize(() ->
             getIntegerPropertyOrDefault(FAILED_TESTS_THRESHOLD_PROPERTY, DEFAULT_FAILED_TESTS_THRESHOLD));
 
@@ -66,6 +236,79 @@ class EnvironmentProvider {
                         RETRY_MODE_PROPERTY, retryMode, getAvailableRetryModes())));
     });
 
+    private static final Supplier<RetryScheduling> retrySchedulingSupplier = Suppliers.memoize(() -> {
+        String retryScheduling = System.getProperty(RETRY_SCHEDULING_PROPERTY);
+        if (retryScheduling == null) {
+            return DEFAULT_RETRY_SCHEDULING;
+        }
+        return getRetrySchedulingByName(retryScheduling)
+                .orElseThrow(() -> new IllegalStateException(String.format("Can not parse %s=%s to one of the following values %s",
+                        RETRY_SCHEDULING_PROPERTY, retryScheduling, getAvailableRetrySchedulings())));
+    });
+
+    private static final Supplier<AttemptExecutorType> attemptExecutorTypeSupplier = Suppliers.memoize(() -> {
+        String attemptExecutorType = System.getProperty(ATTEMPT_EXECUTOR_PROPERTY);
+        if (attemptExecutorType == null) {
+            return DEFAULT_ATTEMPT_EXECUTOR_TYPE;
+        }
+        return getAttemptExecutorTypeByName(attemptExecutorType)
+                .orElseThrow(() -> new IllegalStateException(String.format("Can not parse %s=%s to one of the following values %s",
+                        ATTEMPT_EXECUTOR_PROPERTY, attemptExecutorType, getAvailableAttemptExecutorTypes())));
+    });
+
+    private static final Supplier<Integer> scanBatchSizeSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(SCAN_BATCH_SIZE_PROPERTY, DEFAULT_SCAN_BATCH_SIZE));
+
+    private static final Supplier<Boolean> launcherSessionSharedSupplier = Suppliers.memoize(() ->
+            getBooleanPropertyOrDefault(LAUNCHER_SESSION_SHARED_PROPERTY, DEFAULT_LAUNCHER_SESSION_SHARED));
+
+    private static final Supplier<Optional<Path>> retryHistoryDirectorySupplier = Suppliers.memoize(() ->
+            Optional.ofNullable(System.getProperty(RETRY_HISTORY_DIRECTORY_PROPERTY))
+                    .filter(directory -> !directory.isBlank())
+                    .map(Paths::get));
+
+    private static final Supplier<Integer> streamingRetrySlotsSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(STREAMING_RETRY_SLOTS_PROPERTY, DEFAULT_STREAMING_RETRY_SLOTS));
+
+    private static final Supplier<Boolean> classAffinitySupplier = Suppliers.memoize(() ->
+            getBooleanPropertyOrDefault(CLASS_AFFINITY_PROPERTY, DEFAULT_CLASS_AFFINITY));
+
+    private static final Supplier<Integer> retryMaxDurationSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(RETRY_MAX_DURATION_PROPERTY, DEFAULT_RETRY_MAX_DURATION));
+
+    private static final Supplier<Integer> retryRoundMaxDurationSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(RETRY_ROUND_MAX_DURATION_PROPERTY, DEFAULT_RETRY_MAX_DURATION));
+
+    private static final Supplier<Integer> asyncReportQueueSizeSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(ASYNC_REPORT_QUEUE_SIZE_PROPERTY, DEFAULT_ASYNC_REPORT_QUEUE_SIZE));
+
+    private static final Supplier<Optional<Path>> metricsDirectorySupplier = Suppliers.memoize(() ->
+            Optional.ofNullable(System.getProperty(METRICS_DIRECTORY_PROPERTY))
+                    .filter(directory -> !directory.isBlank())
+                    .map(Paths::get));
+
+    private static final Supplier<Integer> asyncListenerQueueSizeSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(ASYNC_LISTENER_QUEUE_SIZE_PROPERTY, DEFAULT_ASYNC_LISTENER_QUEUE_SIZE));
+
+    private static final Supplier<ListenerOverflowPolicy> listenerOverflowPolicySupplier = Suppliers.memoize(() -> {
+        String listenerOverflowPolicy = System.getProperty(LISTENER_OVERFLOW_POLICY_PROPERTY);
+        if (listenerOverflowPolicy == null) {
+            return DEFAULT_LISTENER_OVERFLOW_POLICY;
+        }
+        return getListenerOverflowPolicyByName(listenerOverflowPolicy)
+                .orElseThrow(() -> new IllegalStateException(String.format("Can not parse %s=%s to one of the following values %s",
+                        LISTENER_OVERFLOW_POLICY_PROPERTY, listenerOverflowPolicy, getAvailableListenerOverflowPolicies())));
+    });
+
+    private static final Supplier<Integer> machineSlotsSupplier = Suppliers.memoize(() ->
+            getIntegerPropertyOrDefault(MACHINE_SLOTS_PROPERTY, DEFAULT_MACHINE_SLOTS));
+
+    private static final Supplier<Path> machineSlotsDirectorySupplier = Suppliers.memoize(() ->
+            Optional.ofNullable(System.getProperty(MACHINE_SLOTS_DIRECTORY_PROPERTY))
+                    .filter(directory -> !directory.isBlank())
+                    .map(Paths::get)
+                    .orElseGet(() -> Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_MACHINE_SLOTS_DIRECTORY_NAME)));
+
     private static int getIntegerPropertyOrDefault(String propertyName, int defaultValue) {
         String propertyValue = System.getProperty(propertyName);
         return Optional.ofNullable(propertyValue)
@@ -73,4 +316,11 @@ class EnvironmentProvider {
                 .orElse(defaultValue);
     }
 
+    private static boolean getBooleanPropertyOrDefault(String propertyName, boolean defaultValue) {
+        String propertyValue = System.getProperty(propertyName);
+        return Optional.ofNullable(propertyValue)
+                .map(Boolean::parseBoolean)
+                .orElse(defaultValue);
+    }
+
 }
@@ -7,6 +7,16 @@ package com.wrike.qaa.runner.provider;
  */
 public interface EventListener {
 
+    /**
+     * Listeners are notified by a dispatcher thread, if {@code listener.async.queue.size} is specified, see {@link EventListenerDispatcher}.
+     * A listener, which state is read by tests, should be notified before the next tests are started.
+     *
+     * @return true, if the listener should be notified by the notifying thread anyway
+     */
+    default boolean requiresSynchronousNotifications() {
+        return false;
+    }
+
     default void parallelRetryStarted() {
     }
 
@@ -16,6 +26,44 @@ public interface EventListener {
     default void parallelRetryFinished() {
     }
 
+    /**
+     * It's notified before {@link #parallelRetryFinished()} with occupancy of threads during the parallel retry.
+     * With streaming retries it's also notified after the initial run with occupancy of streaming slots
+     */
+    default void parallelRetrySlotUtilizationCollected(SlotUtilization slotUtilization) {
+    }
+
+    /**
+     * It's notified before the initial run, if failures are retried while it's executed.
+     * Attempts of streaming retries may run at the same time as each other and as the initial run until {@link #streamingRetriesFinished()}
+     */
+    default void streamingRetriesStarted() {
+    }
+
+    /**
+     * It's notified after the initial run, when all streaming retries are finished
+     */
+    default void streamingRetriesFinished() {
+    }
+
+    /**
+     * It's notified for every test of a retry attempt, when the attempt is submitted
+     */
+    default void attemptScheduled(TestAttemptEvent event) {
+    }
+
+    /**
+     * It's notified by the thread, which executes the test
+     */
+    default void attemptStarted(TestAttemptEvent event) {
+    }
+
+    /**
+     * It's notified by the thread, which executed the test
+     */
+    default void attemptFinished(TestAttemptEvent event) {
+    }
+
     default void sequentialRetryStartedDueToModeSpecified() {
     }
 
@@ -28,4 +76,16 @@ public interface EventListener {
     default void sequentialRetryStartedDueToTooManyFailedTests(int failedTestsCount, int failedTestsThreshold) {
     }
 
+    default void sequentialRetryStartedDueToCostEstimate(long sequentialRetryEstimateMillis, long parallelRetryEstimateMillis) {
+    }
+
+    default void retryStoppedDueToMaxDuration(int failedTestsCount, int retriesLeft) {
+    }
+
+    /**
+     * It's notified after all tests of the invocation are executed and retried
+     */
+    default void providerMetricsCollected(ProviderMetrics metrics) {
+    }
+
 }
@@ -0,0 +1,223 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Notifies {@link EventListener}s, so slow listeners don't delay retries.
+ *
+ * <p>
+ * If the capacity is positive, notifications are put to a bounded queue, and one dispatcher thread notifies listeners
+ * in the order notifications were put. If the queue is full, the {@link ListenerOverflowPolicy} is applied.
+ * Listeners, which {@link EventListener#requiresSynchronousNotifications() require synchronous notifications}, are notified
+ * by the notifying thread anyway. If the capacity is 0, all listeners are notified by the notifying thread.
+ * A failure of one listener is logged, the other listeners are notified anyway.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class EventListenerDispatcher {
+
+    private static final Logger LOG = LogManager.getLogger(EventListenerDispatcher.class);
+
+    private final List<EventListener> synchronousListeners;
+    private final List<EventListener> asynchronousListeners;
+    private final int capacity;
+    private final ListenerOverflowPolicy overflowPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Deque<Notification> notifications = new ArrayDeque<>();
+    /**
+     * The latest queued notification of every coalescing key
+     */
+    private final Map<Object, Notification> coalescingNotifications = new HashMap<>();
+    private boolean dispatching;
+    /**
+     * If the dispatcher thread is interrupted, listeners are notified by notifying threads
+     */
+    private boolean stopped;
+    private long droppedCount;
+    private long coalescedCount;
+
+    /**
+     * @param capacity       max count of notifications waiting for the dispatcher thread or 0, if all listeners are notified synchronously
+     * @param overflowPolicy it's ignored, if the capacity is 0
+     */
+    EventListenerDispatcher(List<EventListener> listeners, int capacity, ListenerOverflowPolicy overflowPolicy) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.format("Queue capacity (%d) should not be negative!", capacity));
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        if (capacity == 0) {
+            synchronousListeners = List.copyOf(listeners);
+            asynchronousListeners = List.of();
+        } else {
+            synchronousListeners = listeners.stream().filter(EventListener::requiresSynchronousNotifications).collect(toList());
+            asynchronousListeners = listeners.stream().filter(listener -> !listener.requiresSynchronousNotifications()).collect(toList());
+        }
+        if (!asynchronousListeners.isEmpty()) {
+            Thread dispatcher = new Thread(this::dispatchNotifications, "event-listener-dispatcher");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    boolean hasListeners() {
+        return !synchronousListeners.isEmpty() || !asynchronousListeners.isEmpty();
+    }
+
+    void notify(Consumer<EventListener> notification) {
+        notify(null, notification);
+    }
+
+    /**
+     * @param coalescingKey notifications with equal keys can replace each other, if {@link ListenerOverflowPolicy#COALESCE} is applied,
+     *                      or null, if the notification can't be coalesced
+     */
+    void notify(Object coalescingKey, Consumer<EventListener> notification) {
+        synchronousListeners.forEach(eventListener -> notifySafely(eventListener, notification));
+        if (!asynchronousListeners.isEmpty()) {
+            enqueue(coalescingKey, notification);
+        }
+    }
+
+    /**
+     * Waits until all queued notifications are dispatched. Notifications put concurrently with the flush may be dispatched later
+     */
+    void flush() {
+        if (asynchronousListeners.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (!stopped && (!notifications.isEmpty() || dispatching)) {
+                flushed.await();
+            }
+            if (droppedCount > 0 || coalescedCount > 0) {
+                LOG.warn("Event listener queue of {} notifications was full, {} notifications were dropped and {} were coalesced",
+                        capacity, droppedCount, coalescedCount);
+                droppedCount = 0;
+                coalescedCount = 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Waiting for event listeners was interrupted, {} notifications are not dispatched yet", notifications.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Object coalescingKey, Consumer<EventListener> notification) {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (notifications.size() >= capacity && !stopped) {
+                if (overflowPolicy == ListenerOverflowPolicy.DROP) {
+                    droppedCount++;
+                    return;
+                }
+                if (overflowPolicy == ListenerOverflowPolicy.COALESCE && coalescingKey != null) {
+                    Notification queuedNotification = coalescingNotifications.get(coalescingKey);
+                    if (queuedNotification != null) {
+                        queuedNotification.notification = notification;
+                        coalescedCount++;
+                        return;
+                    }
+                }
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    // the notification is not lost, the interruption is restored after it's queued
+                    interrupted = true;
+                }
+            }
+            if (stopped) {
+                asynchronousListeners.forEach(eventListener -> notifySafely(eventListener, notification));
+                return;
+            }
+            Notification queuedNotification = new Notification(coalescingKey, notification);
+            notifications.add(queuedNotification);
+            if (coalescingKey != null) {
+                coalescingNotifications.put(coalescingKey, queuedNotification);
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void dispatchNotifications() {
+        while (true) {
+            Consumer<EventListener> notification;
+            lock.lock();
+            try {
+                while (notifications.isEmpty()) {
+                    notEmpty.await();
+                }
+                Notification queuedNotification = notifications.poll();
+                if (queuedNotification.coalescingKey != null) {
+                    coalescingNotifications.remove(queuedNotification.coalescingKey, queuedNotification);
+                }
+                notification = queuedNotification.notification;
+                dispatching = true;
+                notFull.signal();
+            } catch (InterruptedException e) {
+                LOG.error("Event listener dispatcher was interrupted, {} notifications are not dispatched", notifications.size());
+                stopped = true;
+                notFull.signalAll();
+                flushed.signalAll();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            asynchronousListeners.forEach(eventListener -> notifySafely(eventListener, notification));
+            lock.lock();
+            try {
+                dispatching = false;
+                if (notifications.isEmpty()) {
+                    flushed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void notifySafely(EventListener eventListener, Consumer<EventListener> notification) {
+        try {
+            notification.accept(eventListener);
+        } catch (Exception e) {
+            LOG.error("Can't invoke listener", e);
+        }
+    }
+
+    private static final class Notification {
+
+        private final Object coalescingKey;
+        private Consumer<EventListener> notification;
+
+        private Notification(Object coalescingKey, Consumer<EventListener> notification) {
+            this.coalescingKey = coalescingKey;
+            this.notification = notification;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+import static com.wrike.qaa.runner.provider.TestHistory.NEVER_PASSED;
+
+/**
+ * Records attempts of tests and classes during the initial run and all retries.
+ * Every execution of tests gets its own listener, see {@link #forAttempt(ToIntFunction)}, so parallel attempts of the same test
+ * don't share start times. Attempt numbers are given by the provider, because parallel attempts finish in any order.
+ *
+ * @author agent on 18.10.2026
+ */
+final class FlakinessHistoryRecorder {
+
+    private final Map<String, TestHistory> histories = new HashMap<>();
+
+    /**
+     * @param attemptNumber number of the attempt, which is executed by the listener, 0 is the initial run
+     * @return listener of one execution of tests
+     */
+    TestExecutionListener forAttempt(int attemptNumber) {
+        return forAttempt(testIdentifier -> attemptNumber);
+    }
+
+    /**
+     * @param attemptNumbers numbers of attempts of tests and classes, which are executed by the listener together
+     * @return listener of one execution of tests
+     */
+    TestExecutionListener forAttempt(ToIntFunction<TestIdentifier> attemptNumbers) {
+        return new TestExecutionListener() {
+
+            private final ConcurrentMap<String, Long> startTimes = new ConcurrentHashMap<>();
+
+            @Override
+            public void executionStarted(TestIdentifier testIdentifier) {
+                if (isRecorded(testIdentifier)) {
+                    startTimes.put(testIdentifier.getUniqueId(), System.currentTimeMillis());
+                }
+            }
+
+            @Override
+            public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+                Long startTime = startTimes.remove(testIdentifier.getUniqueId());
+                if (!isRecorded(testIdentifier) || testExecutionResult.getStatus() == TestExecutionResult.Status.ABORTED) {
+                    return;
+                }
+                long duration = startTime == null ? 0 : System.currentTimeMillis() - startTime;
+                boolean failed = testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED;
+                record(testIdentifier.getUniqueId(), attemptNumbers.applyAsInt(testIdentifier), failed, duration);
+            }
+        };
+    }
+
+    /**
+     * The first passed attempt is the one with the least number, even if it finished after the others
+     */
+    private void record(String uniqueId, int attemptNumber, boolean failed, long duration) {
+        TestHistory execution = new TestHistory(1, 1, failed ? 1 : 0, failed ? NEVER_PASSED : attemptNumber, duration);
+        synchronized (histories) {
+            histories.merge(uniqueId, execution, (history, newer) -> new TestHistory(
+                    1,
+                    history.getExecutions() + 1,
+                    history.getFailures() + newer.getFailures(),
+                    getFirstPassedAttempt(history.getMaxAttemptsToPass(), newer.getMaxAttemptsToPass()),
+                    duration
+            ));
+        }
+    }
+
+    /**
+     * @return histories of tests executed in this run by their unique ids
+     */
+    Map<String, TestHistory> getHistories() {
+        synchronized (histories) {
+            return new HashMap<>(histories);
+        }
+    }
+
+    private static int getFirstPassedAttempt(int attemptNumber, int otherAttemptNumber) {
+        if (attemptNumber == NEVER_PASSED || otherAttemptNumber == NEVER_PASSED) {
+            return Math.max(attemptNumber, otherAttemptNumber);
+        }
+        return Math.min(attemptNumber, otherAttemptNumber);
+    }
+
+    private static boolean isRecorded(TestIdentifier testIdentifier) {
+        return testIdentifier.isTest() || testIdentifier.getSource().filter(ClassSource.class::isInstance).isPresent();
+    }
+
+}
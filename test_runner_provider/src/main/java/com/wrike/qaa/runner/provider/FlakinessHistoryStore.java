@@ -0,0 +1,155 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only file with flakiness history of tests, see {@link TestHistory}.
+ *
+ * <p>
+ * Each run appends one line per executed test, and the lines of one test are merged on loading.
+ * The file is read once per fork with a sequential scan into a {@link HashMap}, so loading is linear in the file size,
+ * and lookups don't touch the disk. When the file contains much more lines than tests, it's compacted to one line per test.
+ * Forks can share the file: appending and compaction are done under a lock of a separate lock file,
+ * and the compacted file replaces the old one atomically.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class FlakinessHistoryStore {
+
+    private static final Logger LOG = LogManager.getLogger(FlakinessHistoryStore.class);
+
+    static final String HISTORY_FILE_NAME = "retry-history.tsv";
+    private static final String LOCK_FILE_NAME = "retry-history.lock";
+    /**
+     * The file is compacted, if it contains more lines than tests multiplied by this factor
+     */
+    private static final int COMPACTION_FACTOR = 4;
+
+    private final Path historyFile;
+    private final Path lockFile;
+
+    FlakinessHistoryStore(Path directory) {
+        this.historyFile = directory.resolve(HISTORY_FILE_NAME);
+        this.lockFile = directory.resolve(LOCK_FILE_NAME);
+    }
+
+    /**
+     * @return history of tests by their unique ids
+     */
+    Map<String, TestHistory> load() {
+        if (!Files.exists(historyFile)) {
+            return new HashMap<>();
+        }
+        long startTime = System.currentTimeMillis();
+        Map<String, TestHistory> histories = new HashMap<>();
+        int linesCount = read(histories);
+        LOG.info("Flakiness history of {} tests is loaded from {} lines of {} in {} ms",
+                histories.size(), linesCount, historyFile, System.currentTimeMillis() - startTime);
+        if (linesCount > COMPACTION_FACTOR * histories.size()) {
+            compact();
+        }
+        return histories;
+    }
+
+    /**
+     * Appends histories of the current run to the file
+     */
+    void append(Map<String, TestHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        histories.forEach((uniqueId, history) -> lines.append(history.toLine(uniqueId)).append('\n'));
+        ByteBuffer buffer = UTF_8.encode(lines.toString());
+        withLock(() -> {
+            try (FileChannel channel = FileChannel.open(historyFile, CREATE, WRITE, APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rewrites the file with one line per test
+     */
+    void compact() {
+        withLock(() -> {
+            Map<String, TestHistory> histories = new HashMap<>();
+            int linesCount = read(histories);
+            Path compactedFile = Files.createTempFile(historyFile.getParent(), HISTORY_FILE_NAME, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(compactedFile, UTF_8)) {
+                for (Map.Entry<String, TestHistory> history : histories.entrySet()) {
+                    writer.write(history.getValue().toLine(history.getKey()));
+                    writer.newLine();
+                }
+            }
+            Files.move(compactedFile, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.info("Flakiness history is compacted from {} to {} lines", linesCount, histories.size());
+        });
+    }
+
+    private int read(Map<String, TestHistory> histories) {
+        if (!Files.exists(historyFile)) {
+            return 0;
+        }
+        int linesCount = 0;
+        int malformedLinesCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(historyFile, UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                linesCount++;
+                TestHistory.Entry entry = TestHistory.parseLine(line).orElse(null);
+                if (entry == null) {
+                    malformedLinesCount++;
+                } else {
+                    histories.merge(entry.getUniqueId(), entry.getHistory(), TestHistory::merge);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read flakiness history from " + historyFile, e);
+        }
+        if (malformedLinesCount > 0) {
+            LOG.warn("{} malformed lines of {} are skipped", malformedLinesCount, historyFile);
+        }
+        return linesCount;
+    }
+
+    private void withLock(IOAction action) {
+        try {
+            Files.createDirectories(historyFile.getParent());
+            try (FileChannel lockChannel = FileChannel.open(lockFile, CREATE, WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                action.run();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write flakiness history to " + historyFile, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+}
@@ -19,7 +19,8 @@ package com.wrike.qaa.runner.provider;
  * under the License.
  */
 
-import com.google.common.collect.Lists;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Iterables;
 import org.apache.logging.log4j.LogManager;
 import org.apache.maven.surefire.api.provider.AbstractProvider;
 import org.apache.maven.surefire.api.provider.ProviderParameters;
@@ -28,6 +29,7 @@ import org.apache.maven.surefire.api.report.ReporterFactory;
 import org.apache.maven.surefire.api.suite.RunResult;
 import org.apache.maven.surefire.api.testset.TestSetFailedException;
 import org.apache.maven.surefire.api.util.ScanResult;
+import org.apache.maven.surefire.api.util.ScannerFilter;
 import org.apache.maven.surefire.api.util.SurefireReflectionException;
 import org.apache.maven.surefire.api.util.TestsToRun;
 import org.apache.maven.surefire.shared.lang3.StringUtils;
@@ -37,32 +39,59 @@ import org.junit.platform.launcher.EngineFilter;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
 
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.wrike.qaa.runner.provider.RetryCostModel.DEFAULT_REFAILURE_RATIO;
+import static com.wrike.qaa.runner.provider.RetryCostModel.DEFAULT_ROUND_OVERHEAD_MILLIS;
+import static com.wrike.qaa.runner.provider.RetryFlightEvents.PARALLEL_MODE;
+import static com.wrike.qaa.runner.provider.RetryFlightEvents.SEQUENTIAL_MODE;
+import static com.wrike.qaa.runner.provider.RetryFlightEvents.STOPPED_MODE;
+import static com.wrike.qaa.runner.provider.RetryMode.ADAPTIVE;
+import static com.wrike.qaa.runner.provider.RetryMode.HEDGED;
 import static com.wrike.qaa.runner.provider.RetryMode.SEQUENTIAL;
+import static com.wrike.qaa.runner.provider.RetryScheduling.CONTINUOUS;
+import static com.wrike.qaa.runner.provider.RetryScheduling.MIXED;
 import static com.wrike.qaa.runner.provider.util.ServiceLoaderUtil.load;
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.isFailed;
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.isRetriedWith;
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.removeDescendants;
 import static java.util.Arrays.stream;
 import static java.util.Collections.emptyMap;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Level.WARNING;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static org.apache.maven.surefire.api.booter.ProviderParameterNames.*;
 import static org.apache.maven.surefire.api.report.ConsoleOutputCapture.startCapture;
 import static org.apache.maven.surefire.api.report.RunMode.NORMAL_RUN;
@@ -95,14 +124,44 @@ public class JUnitPlatformProvider extends AbstractProvider {
 
     private final EnvironmentProvider environmentProvider;
 
-    private final List<EventListener> eventListeners;
+    private final EventListenerDispatcher eventListenerDispatcher;
+
+    /**
+     * Histories of the current invocation. They are appended to the store at the end of every invocation,
+     * so a reused fork doesn't append histories of the previous test sets again
+     */
+    private FlakinessHistoryRecorder historyRecorder = new FlakinessHistoryRecorder();
+
+    private final Optional<FlakinessHistoryStore> historyStore;
+
+    private final Supplier<Map<String, TestHistory>> testHistories;
+
+    private final Optional<MachineSlotBudget> machineSlotBudget;
+
+    /**
+     * Deadline of the current retry round, it's read by attempt threads
+     */
+    private volatile RetryDeadline roundDeadline = RetryDeadline.unlimited();
+
+    /**
+     * Names of tests of the current invocation. A reused fork invokes the provider for every test set,
+     * so names of the previous test sets are not kept
+     */
+    private TestNameCache testNameCache = new TestNameCache();
+
+    private final ProviderMetrics metrics;
 
     public JUnitPlatformProvider(ProviderParameters parameters) {
+        this(parameters, new ProviderMetrics());
+    }
+
+    private JUnitPlatformProvider(ProviderParameters parameters, ProviderMetrics metrics) {
         this(
                 parameters,
-                new LazyLauncher(),
+                new LazyLauncher(metrics),
                 new EnvironmentProvider(parameters.getTestRequest().getRerunFailingTestsCount()),
-                load(EventListener.class)
+                load(EventListener.class),
+                metrics
         );
     }
 
@@ -111,13 +170,33 @@ public class JUnitPlatformProvider extends AbstractProvider {
             Launcher launcher,
             EnvironmentProvider environmentProvider,
             List<EventListener> eventListeners
+    ) {
+        this(parameters, launcher, environmentProvider, eventListeners, new ProviderMetrics());
+    }
+
+    /**
+     * @param metrics the same metrics should be given to {@link LazyLauncher}, so its creation is timed too
+     */
+    JUnitPlatformProvider(
+            ProviderParameters parameters,
+            Launcher launcher,
+            EnvironmentProvider environmentProvider,
+            List<EventListener> eventListeners,
+            ProviderMetrics metrics
     ) {
         this.parameters = parameters;
+        this.metrics = metrics;
         this.launcher = launcher;
         filters = newFilters();
         configurationParameters = newConfigurationParameters();
         this.environmentProvider = environmentProvider;
-        this.eventListeners = eventListeners;
+        eventListenerDispatcher = new EventListenerDispatcher(eventListeners,
+                environmentProvider.getAsyncListenerQueueSize(), environmentProvider.getListenerOverflowPolicy());
+        historyStore = environmentProvider.getRetryHistoryDirectory().map(FlakinessHistoryStore::new);
+        testHistories = Suppliers.memoize(() -> historyStore.map(FlakinessHistoryStore::load).orElseGet(HashMap::new));
+        machineSlotBudget = environmentProvider.getMachineSlots() > 0
+                ? of(new MachineSlotBudget(environmentProvider.getMachineSlotsDirectory(), environmentProvider.getMachineSlots()))
+                : empty();
     }
 
     @Override
@@ -129,13 +208,23 @@ public class JUnitPlatformProvider extends AbstractProvider {
         }
     }
 
+    /**
+     * If {@link EnvironmentProvider#getAsyncReportQueueSize()} is specified, all reports are forwarded by {@link AsyncReporterFactory}.
+     * Its events are flushed when the factory is closed, and closing rethrows the first failure of surefire to take an event.
+     * Notifications of event listeners are flushed before it, see {@link EventListenerDispatcher}.
+     */
     @Override
     public RunResult invoke(Object forkTestSet)
             throws TestSetFailedException, ReporterException {
-        ReporterFactory reporterFactory = parameters.getReporterFactory();
+        int asyncReportQueueSize = environmentProvider.getAsyncReportQueueSize();
+        ReporterFactory reporterFactory = asyncReportQueueSize > 0
+                ? new AsyncReporterFactory(parameters.getReporterFactory(), asyncReportQueueSize)
+                : parameters.getReporterFactory();
         final RunResult runResult;
+        testNameCache = new TestNameCache();
+        historyRecorder = new FlakinessHistoryRecorder();
         try {
-            RunListenerAdapter adapter = new RunListenerAdapter(reporterFactory.createTestReportListener());
+            RunListenerAdapter adapter = new RunListenerAdapter(reporterFactory.createTestReportListener(), testNameCache);
             adapter.setRunMode(NORMAL_RUN);
             startCapture(adapter);
             setupJunitLogger();
@@ -150,6 +239,7 @@ public class JUnitPlatformProvider extends AbstractProvider {
                         "Unexpected value of forkTestSet: " + forkTestSet);
             }
         } finally {
+            eventListenerDispatcher.flush();
             runResult = reporterFactory.close();
         }
         return runResult;
@@ -163,20 +253,187 @@ public class JUnitPlatformProvider extends AbstractProvider {
     }
 
     private TestsToRun scanClasspath() {
-        TestPlanScannerFilter filter = new TestPlanScannerFilter(launcher, filters);
+        long startNanos = System.nanoTime();
         ScanResult scanResult = parameters.getScanResult();
+        int scanBatchSize = environmentProvider.getScanBatchSize();
+        ScannerFilter filter = scanBatchSize > 0
+                ? new BulkTestPlanScannerFilter(launcher, filters, scanResult, parameters.getTestClassLoader(), scanBatchSize)
+                : new TestPlanScannerFilter(launcher, filters);
         TestsToRun scannedClasses = scanResult.applyFilter(filter, parameters.getTestClassLoader());
-        return parameters.getRunOrderCalculator().orderTestClasses(scannedClasses);
+        TestsToRun orderedClasses = parameters.getRunOrderCalculator().orderTestClasses(scannedClasses);
+        metrics.record(ProviderPhase.CLASSPATH_SCAN, startNanos, Iterables.size(orderedClasses));
+        return orderedClasses;
     }
 
+    /**
+     * The launcher session is closed after the initial run, so retries are executed in a new session,
+     * unless {@link EnvironmentProvider#isLauncherSessionShared()}. Then the session is closed once after the last retry.
+     * If {@link EnvironmentProvider#getStreamingRetrySlots()} is specified, failures are retried during the initial run,
+     * and only the failures, which weren't streamed, are retried after it.
+     * The budget of {@link EnvironmentProvider#getRetryMaxDurationSeconds()} is started by the first retry, streamed or not.
+     * Timings of all phases are published at the end, see {@link ProviderMetrics}.
+     */
     private void invokeAllTests(TestsToRun testsToRun, RunListenerAdapter adapter, ReporterFactory reporterFactory) {
+        boolean launcherSessionShared = environmentProvider.isLauncherSessionShared();
+        testHistories.get();
+        Supplier<RetryDeadline> retryDeadline = Suppliers.memoize(() ->
+                RetryDeadline.start(SECONDS.toMillis(environmentProvider.getRetryMaxDurationSeconds())));
+        Optional<StreamingRetryQueue> streamingRetryQueue = createStreamingRetryQueue(adapter, reporterFactory, retryDeadline);
+        streamingRetryQueue.ifPresent(queue -> notifySafely(EventListener::streamingRetriesStarted));
         try {
-            execute(testsToRun, adapter);
+            try {
+                List<TestExecutionListener> initialRunListeners = new ArrayList<>();
+                streamingRetryQueue.ifPresent(initialRunListeners::add);
+                long startNanos = System.nanoTime();
+                execute(testsToRun, adapter, initialRunListeners);
+                metrics.record(ProviderPhase.INITIAL_EXECUTION, startNanos, countExecutedTests(adapter));
+                streamingRetryQueue.ifPresent(queue -> {
+                    Set<TestIdentifier> streamedFailures = queue.awaitRetries();
+                    // failed ancestors of streamed tests weren't retried, so they are retried after the initial run
+                    adapter.getFailures().keySet().removeIf(failure -> isRetriedWith(failure, streamedFailures));
+                });
+            } finally {
+                streamingRetryQueue.ifPresent(this::finishStreamingRetries);
+                if (!launcherSessionShared) {
+                    closeLauncher();
+                }
+            }
+
+            retryTests(adapter, reporterFactory, retryDeadline.get());
         } finally {
-            closeLauncher();
+            if (launcherSessionShared) {
+                closeLauncher();
+            }
+            historyStore.ifPresent(store -> store.append(historyRecorder.getHistories()));
+            publishMetrics();
         }
+    }
 
-        retryTests(adapter, reporterFactory);
+    private void publishMetrics() {
+        try {
+            environmentProvider.getMetricsDirectory().ifPresent(metrics::writeJson);
+        } catch (UncheckedIOException e) {
+            LOG.error("Can't write provider metrics", e);
+        }
+        notifySafely(eventListener -> eventListener.providerMetricsCollected(metrics));
+    }
+
+    /**
+     * Classes are reported with their tests, so only tests are counted
+     */
+    private static int countExecutedTests(RunListenerAdapter adapter) {
+        return (int) adapter.getElapsedTimes().keySet().stream()
+                .filter(TestIdentifier::isTest)
+                .count();
+    }
+
+    /**
+     * Streaming slots are occupied by attempts of {@link RetryMode#SEQUENTIAL} retries one by one,
+     * other modes start all attempts of a failure at once, see {@link #retryStreamedFailureInParallel}.
+     * Attempts of all streamed failures share the same slots, so no more than {@link EnvironmentProvider#getStreamingRetrySlots()}
+     * tests are retried at once, whatever the type of the attempt executor is.
+     */
+    private Optional<StreamingRetryQueue> createStreamingRetryQueue(RunListenerAdapter adapter, ReporterFactory reporterFactory,
+                                                                   Supplier<RetryDeadline> retryDeadline) {
+        int streamingRetrySlots = environmentProvider.getStreamingRetrySlots();
+        int retriesCount = environmentProvider.getRerunFailingTestsCount();
+        if (streamingRetrySlots < 1 || retriesCount < 1) {
+            return empty();
+        }
+        SlotUtilization slotUtilization = new SlotUtilization(streamingRetrySlots);
+        Semaphore streamingSlots = new Semaphore(streamingRetrySlots);
+        if (SEQUENTIAL.equals(environmentProvider.getRetryMode())) {
+            return of(new StreamingRetryQueue(createAttemptExecutor(streamingRetrySlots), slotUtilization, List.of(),
+                    failure -> retryStreamedFailure(failure, retriesCount, adapter, reporterFactory, retryDeadline.get(),
+                            streamingSlots, slotUtilization)));
+        }
+        ExecutorService attemptExecutor = createAttemptExecutor(streamingRetrySlots);
+        ContinuousRetryScheduler scheduler = new ContinuousRetryScheduler(attemptExecutor, streamingSlots, streamingRetrySlots,
+                HEDGED.equals(environmentProvider.getRetryMode()));
+        return of(new StreamingRetryQueue(createAttemptExecutor(streamingRetrySlots), slotUtilization, List.of(attemptExecutor),
+                failure -> retryStreamedFailureInParallel(failure, retriesCount, adapter, reporterFactory, retryDeadline.get(),
+                        scheduler, slotUtilization)));
+    }
+
+    private void finishStreamingRetries(StreamingRetryQueue streamingRetryQueue) {
+        streamingRetryQueue.shutdownNow();
+        SlotUtilization slotUtilization = streamingRetryQueue.getSlotUtilization();
+        slotUtilization.finish();
+        LOG.info("Streaming retries: {}", slotUtilization.toSummary());
+        notifySafely(eventListener -> eventListener.parallelRetrySlotUtilizationCollected(slotUtilization));
+        notifySafely(EventListener::streamingRetriesFinished);
+    }
+
+    /**
+     * Retries one test sequentially until it passed, its retries are over or the next attempt doesn't fit into the retry time
+     *
+     * @return false if the test wasn't retried at all
+     */
+    private boolean retryStreamedFailure(TestIdentifier failure, int retriesCount, RunListenerAdapter adapter, ReporterFactory reporterFactory,
+                                         RetryDeadline retryDeadline, Semaphore streamingSlots, SlotUtilization slotUtilization) {
+        LauncherDiscoveryRequest discoveryRequest = buildLauncherDiscoveryRequestForRerun(List.of(failure));
+        for (int attempt = 0; attempt < retriesCount; attempt++) {
+            if (retryDeadline.selectFittingSequentially(List.of(failure), adapter.getElapsedTimes()).isEmpty()) {
+                LOG.warn("Streaming retries of {} are stopped, because they don't fit into the retry time", failure.getDisplayName());
+                return attempt > 0;
+            }
+            RunListenerAdapter attemptAdapter = createRetryRunListenerAdapter(reporterFactory, attempt + 1);
+            AttemptEventNotifier attemptEvents = createAttemptEventNotifier(attempt + 1, attempt + 1);
+            attemptEvents.scheduled(List.of(failure));
+            executeOnStreamingSlot(streamingSlots, () -> executeWithinMachineBudget(1,
+                    () -> execute(discoveryRequest, attemptAdapter, slotUtilization.getTestListener(), attemptEvents)));
+            if (!attemptAdapter.hasFailingTests()) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private static void executeOnStreamingSlot(Semaphore streamingSlots, Runnable attempt) {
+        try {
+            streamingSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test execution was interrupted!", e);
+        }
+        try {
+            attempt.run();
+        } finally {
+            streamingSlots.release();
+        }
+    }
+
+    /**
+     * Starts all attempts of one test at once on the streaming slots, like {@link #retryTestsWithAllAttemptsContinuously}.
+     * In {@link RetryMode#HEDGED} mode the other attempts are cancelled as soon as one of them passed.
+     *
+     * @return false if the test wasn't retried at all
+     */
+    private boolean retryStreamedFailureInParallel(TestIdentifier failure, int retriesCount, RunListenerAdapter adapter,
+                                                   ReporterFactory reporterFactory, RetryDeadline retryDeadline,
+                                                   ContinuousRetryScheduler scheduler, SlotUtilization slotUtilization) {
+        if (retryDeadline.selectFittingInParallel(List.of(failure), adapter.getElapsedTimes()).isEmpty()) {
+            LOG.warn("Streaming retries of {} are skipped, because they don't fit into the retry time", failure.getDisplayName());
+            return false;
+        }
+        List<RetryAttempt> attempts = IntStream.range(0, retriesCount)
+                .mapToObj(attemptNumber -> new RetryAttempt(List.of(failure), attemptNumber))
+                .collect(toList());
+        Map<RetryAttempt, AttemptEventNotifier> attemptEvents = new IdentityHashMap<>();
+        attempts.forEach(attempt -> {
+            AttemptEventNotifier notifier = createAttemptEventNotifier(1, attempt.getAttemptNumber() + 1);
+            notifier.scheduled(attempt.getTestIdentifiers());
+            attemptEvents.put(attempt, notifier);
+        });
+        scheduler.run(attempts, attempt -> {
+            RunListenerAdapter attemptAdapter = createRetryRunListenerAdapter(reporterFactory, attempt.getAttemptNumber() + 1);
+            attemptAdapter.setCancelled(attempt::isCancelled);
+            attemptEvents.get(attempt).setCancelled(attempt::isCancelled);
+            executeWithinMachineBudget(1, () -> execute(buildLauncherDiscoveryRequestForRerun(attempt.getTestIdentifiers()),
+                    attemptAdapter, slotUtilization.getTestListener(), attemptEvents.get(attempt)));
+            return !attemptAdapter.hasFailingTests();
+        });
+        return true;
     }
 
     /**
@@ -185,127 +442,571 @@ public class JUnitPlatformProvider extends AbstractProvider {
      * <p>
      * Tests will be retried in parallel if all the following criteria are fulfilled:
      *  <ol>
-     *      <li>{@link EnvironmentProvider#getRetryMode()} == {@link RetryMode#PARALLEL}</li>
+     *      <li>{@link EnvironmentProvider#getRetryMode()} == {@link RetryMode#PARALLEL}, {@link RetryMode#HEDGED} or {@link RetryMode#ADAPTIVE}</li>
      *      <li>More than 1 retry left</li>
-     *      <li>The count of failed tests in this run is less or equal to {@link EnvironmentProvider#getFailedTestsThresholdForParallelRetry()}</li>
-     *      <li>All retry attempts of one test can be started sentimentally (retriesLeft * failedTestsCount <= {@link EnvironmentProvider#getThreadCount()})</li>
+     *      <li>The count of failed tests in this run is less or equal to {@link EnvironmentProvider#getFailedTestsThresholdForParallelRetry()}.
+     *      It's ignored in {@link RetryMode#ADAPTIVE} mode</li>
+     *      <li>All retry attempts of one test can be started sentimentally (retriesLeft * failedTestsCount <= {@link EnvironmentProvider#getThreadCount()}).
+     *      In {@link RetryMode#ADAPTIVE} mode packs are split by threads instead, so it's enough if all attempts of one test fit.
+     *      For {@link RetryScheduling#CONTINUOUS} scheduling and {@link RetryMode#HEDGED} mode it's enough if all attempts of one test fit (retriesLeft <= {@link EnvironmentProvider#getThreadCount()}).
+     *      For {@link RetryScheduling#MIXED} scheduling it's enough if each failed test gets a thread (failedTestsCount <= {@link EnvironmentProvider#getThreadCount()})</li>
+     *      <li>For {@link RetryMode#ADAPTIVE} mode, {@link RetryCostModel} estimates parallel retries to be faster than sequential ones.
+     *      Retries in packs are estimated pack by pack. The refailure ratio is observed from the previous sequential round</li>
      *  </ol>
      * Otherwise, we can try to retry each test once sequentially and then try to retry the remaining attempts in parallel.
      *</p>
+     * <p>
+     * If {@link EnvironmentProvider#getRetryMaxDurationSeconds()} is specified, retries are stopped when its {@link RetryDeadline} is expired
+     * or none of failed tests fits into the remaining time. Rounds are also limited by {@link EnvironmentProvider#getRetryRoundMaxDurationSeconds()}.
+     * </p>
+     * <p>
+     * Every decision is also recorded as a JFR event with the name of the {@link EventListener} callback as its reason, see {@link RetryFlightEvents}.
+     * </p>
      */
-    private void retryTests(RunListenerAdapter adapter, ReporterFactory reporterFactory) {
+    private void retryTests(RunListenerAdapter adapter, ReporterFactory reporterFactory, RetryDeadline retryDeadline) {
         int retriesLeft = environmentProvider.getRerunFailingTestsCount();
+        double refailureRatio = DEFAULT_REFAILURE_RATIO;
         try {
             while (retriesLeft > 0 && adapter.hasFailingTests()) {
+                if (retryDeadline.isExpired()
+                        || retryDeadline.selectFittingSequentially(getFailuresToRetry(adapter), adapter.getElapsedTimes()).isEmpty()) {
+                    stopRetriesDueToMaxDuration(retriesLeft, adapter);
+                    break;
+                }
+                roundDeadline = retryDeadline.startRound(SECONDS.toMillis(environmentProvider.getRetryRoundMaxDurationSeconds()));
+                int failuresCountBeforeRound = adapter.getFailures().size();
+                int attemptNumber = environmentProvider.getRerunFailingTestsCount() - retriesLeft + 1;
+                long roundStartNanos = System.nanoTime();
+                RetryFlightEvents.RetryRound roundEvent = new RetryFlightEvents.RetryRound();
+                roundEvent.begin();
                 if (SEQUENTIAL.equals(environmentProvider.getRetryMode())) {
                     notifySafely(EventListener::sequentialRetryStartedDueToModeSpecified);
-                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory);
+                    RetryFlightEvents.commitModeDecision(SEQUENTIAL_MODE, "sequentialRetryStartedDueToModeSpecified", failuresCountBeforeRound, retriesLeft);
+                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory, attemptNumber);
                 } else if (retriesLeft < 2) {
                     notifySafely(EventListener::sequentialRetryStartedDueToOneRetryLeft);
-                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory);
-                } else if (adapter.getFailures().size() > environmentProvider.getFailedTestsThresholdForParallelRetry()) {
+                    RetryFlightEvents.commitModeDecision(SEQUENTIAL_MODE, "sequentialRetryStartedDueToOneRetryLeft", failuresCountBeforeRound, retriesLeft);
+                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory, attemptNumber);
+                } else if (!ADAPTIVE.equals(environmentProvider.getRetryMode())
+                        && adapter.getFailures().size() > environmentProvider.getFailedTestsThresholdForParallelRetry()) {
                     int failedTestsCount = adapter.getFailures().size();
                     notifySafely(eventListener -> eventListener.sequentialRetryStartedDueToTooManyFailedTests(failedTestsCount, environmentProvider.getFailedTestsThresholdForParallelRetry()));
-                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory);
+                    RetryFlightEvents.commitModeDecision(SEQUENTIAL_MODE, "sequentialRetryStartedDueToTooManyFailedTests", failuresCountBeforeRound, retriesLeft);
+                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory, attemptNumber);
                 } else if (allParallelRetriesCantStartInTheSameTime(retriesLeft, adapter)) {
                     int failedTestsCount = adapter.getFailures().size();
                     int finalRetriesLeft = retriesLeft;
                     notifySafely(eventListener -> eventListener.sequentialRetryStartedBecauseAllRetriesCantStartAtTheSameTime(finalRetriesLeft, failedTestsCount, environmentProvider.getThreadCount()));
-                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory);
+                    RetryFlightEvents.commitModeDecision(SEQUENTIAL_MODE, "sequentialRetryStartedBecauseAllRetriesCantStartAtTheSameTime", failuresCountBeforeRound, retriesLeft);
+                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory, attemptNumber);
+                } else if (ADAPTIVE.equals(environmentProvider.getRetryMode())
+                        && !isParallelRetryEstimatedToBeFaster(retriesLeft, adapter, refailureRatio,
+                        retriesLeft < environmentProvider.getRerunFailingTestsCount())) {
+                    RetryFlightEvents.commitModeDecision(SEQUENTIAL_MODE, "sequentialRetryStartedDueToCostEstimate", failuresCountBeforeRound, retriesLeft);
+                    adapter = retryTestsWithRerunAfterFailureAndGetResults(adapter, reporterFactory, attemptNumber);
                 } else {
-                    //tests will always run in one group due to the previous `if condition`
-                    retryTestsWithAllAttemptsInParallel(retriesLeft, adapter, reporterFactory);
+                    RetryFlightEvents.commitModeDecision(PARALLEL_MODE, "parallelRetryStarted", failuresCountBeforeRound, retriesLeft);
+                    // all attempts of a test run in the same pack due to the previous `if condition`
+                    retryTestsWithAllAttemptsInParallel(retriesLeft, attemptNumber, adapter, reporterFactory);
+                    finishRound(roundStartNanos, roundEvent, failuresCountBeforeRound, retriesLeft);
                     break;
                 }
+                finishRound(roundStartNanos, roundEvent, failuresCountBeforeRound, retriesLeft);
+                refailureRatio = (double) adapter.getFailures().size() / failuresCountBeforeRound;
                 retriesLeft--;
             }
         } finally {
-            closeLauncher();
+            roundDeadline = RetryDeadline.unlimited();
+            if (!environmentProvider.isLauncherSessionShared()) {
+                closeLauncher();
+            }
         }
     }
 
+    private void finishRound(long roundStartNanos, RetryFlightEvents.RetryRound roundEvent, int failedTestsCount, int retriesLeft) {
+        metrics.record(ProviderPhase.RETRY_ROUND, roundStartNanos, failedTestsCount);
+        RetryFlightEvents.commitRound(roundEvent, failedTestsCount, retriesLeft);
+    }
+
+    private void stopRetriesDueToMaxDuration(int retriesLeft, RunListenerAdapter adapter) {
+        int failedTestsCount = adapter.getFailures().size();
+        LOG.warn("Retries of {} failed tests are stopped with {} retries left, because they don't fit into {} seconds of retry.max.duration",
+                failedTestsCount, retriesLeft, environmentProvider.getRetryMaxDurationSeconds());
+        notifySafely(eventListener -> eventListener.retryStoppedDueToMaxDuration(failedTestsCount, retriesLeft));
+        RetryFlightEvents.commitModeDecision(STOPPED_MODE, "retryStoppedDueToMaxDuration", failedTestsCount, retriesLeft);
+    }
+
+    /**
+     * Compares {@link RetryCostModel} estimates of the remaining retries.
+     * If sequential retries are estimated to be faster, listeners are notified about the sequential retry.
+     *
+     * @param retried true, if the adapter has results of a sequential retry round, so the round overhead can be measured by it
+     */
+    private boolean isParallelRetryEstimatedToBeFaster(int retriesLeft, RunListenerAdapter adapter, double refailureRatio, boolean retried) {
+        RetryCostModel costModel = retried
+                ? RetryCostModel.fromRetryRound(adapter, environmentProvider.getThreadCount())
+                : new RetryCostModel(Math.max(1, environmentProvider.getThreadCount()), DEFAULT_ROUND_OVERHEAD_MILLIS);
+        List<Long> durations = getFailuresToRetry(adapter).stream()
+                .map(failure -> adapter.getElapsedTimes().getOrDefault(failure, 0).longValue())
+                .collect(toList());
+        long sequentialEstimate = costModel.estimateSequentialMillis(durations, retriesLeft, refailureRatio);
+        long parallelEstimate = isMixedScheduling() || isContinuousScheduling()
+                ? costModel.estimateParallelMillis(durations, retriesLeft)
+                : costModel.estimatePackedParallelMillis(durations, retriesLeft);
+        LOG.info("Estimated retry time of {} tests with {} retries left: sequential {} ms, parallel {} ms, round overhead {} ms, refailure ratio {}",
+                durations.size(), retriesLeft, sequentialEstimate, parallelEstimate, costModel.getRoundOverheadMillis(), refailureRatio);
+        if (parallelEstimate < sequentialEstimate) {
+            return true;
+        }
+        notifySafely(eventListener -> eventListener.sequentialRetryStartedDueToCostEstimate(sequentialEstimate, parallelEstimate));
+        return false;
+    }
+
     private void notifySafely(Consumer<EventListener> eventToNotify) {
-        eventListeners.forEach(eventListener -> {
-            try {
-                eventToNotify.accept(eventListener);
-            } catch (Exception e) {
-                LOG.error("Can't invoke listener", e);
-            }
-        });
+        eventListenerDispatcher.notify(eventToNotify);
     }
 
     private boolean allParallelRetriesCantStartInTheSameTime(int retriesLeft, RunListenerAdapter adapter) {
+        if (isMixedScheduling()) {
+            // tests, which don't fit all their attempts, are retried with fewer attempts, but each test needs a thread
+            return getFailuresToRetry(adapter).size() > environmentProvider.getThreadCount();
+        }
+        if (isContinuousScheduling()) {
+            // attempts of different tests don't need to start together, they take slots one by one
+            return retriesLeft > environmentProvider.getThreadCount();
+        }
+        if (ADAPTIVE.equals(environmentProvider.getRetryMode())) {
+            // failed tests are split into several packs, and the cost model estimates, whether they are faster than sequential retries
+            return retriesLeft > environmentProvider.getThreadCount();
+        }
         return retriesLeft * adapter.getFailures().size() > environmentProvider.getThreadCount();
     }
 
+    private boolean isMixedScheduling() {
+        return MIXED.equals(environmentProvider.getRetryScheduling()) && !HEDGED.equals(environmentProvider.getRetryMode());
+    }
+
+    /**
+     * Hedged retries can cancel attempts only if every attempt is executed separately
+     */
+    private boolean isContinuousScheduling() {
+        return CONTINUOUS.equals(environmentProvider.getRetryScheduling()) || HEDGED.equals(environmentProvider.getRetryMode());
+    }
+
     /**
      * Executes each test {@code retriesCount} times.
      * All attempts of one test will be triggered in parallel.
+     *
+     * Occupancy of threads is measured by {@link SlotUtilization} and reported before the end of the parallel retry.
+     *
+     * @param firstAttemptNumber number of the first parallel attempt, the attempt {@code i} of a pack gets {@code firstAttemptNumber + i}
      */
-    private void retryTestsWithAllAttemptsInParallel(int retriesCount, RunListenerAdapter adapter, ReporterFactory reporterFactory) {
+    private void retryTestsWithAllAttemptsInParallel(int retriesCount, int firstAttemptNumber, RunListenerAdapter adapter, ReporterFactory reporterFactory) {
         notifySafely(EventListener::parallelRetryStarted);
-        List<LauncherDiscoveryRequest> discoveryRequests = buildLauncherDiscoveryRequestForRerunFailuresInParallel(adapter, retriesCount);
-        discoveryRequests.forEach(retryDiscoveryRequest -> {
+        ExecutorService executor = createAttemptExecutor();
+        SlotUtilization slotUtilization = new SlotUtilization(environmentProvider.getThreadCount());
+        try {
+            if (isMixedScheduling()) {
+                retryTestsWithMixedAttempts(retriesCount, firstAttemptNumber, adapter, reporterFactory, executor, slotUtilization);
+            } else if (isContinuousScheduling()) {
+                retryTestsWithAllAttemptsContinuously(retriesCount, firstAttemptNumber, adapter, reporterFactory, executor, slotUtilization);
+            } else {
+                retryTestsWithAllAttemptsInPacks(retriesCount, firstAttemptNumber, adapter, reporterFactory, executor, slotUtilization);
+            }
+        } finally {
+            executor.shutdownNow();
+            slotUtilization.finish();
+        }
+        LOG.info(slotUtilization.toSummary());
+        notifySafely(eventListener -> eventListener.parallelRetrySlotUtilizationCollected(slotUtilization));
+        notifySafely(EventListener::parallelRetryFinished);
+    }
+
+    /**
+     * The executor is reused by all packs and attempts of the parallel retry
+     */
+    private ExecutorService createAttemptExecutor() {
+        return createAttemptExecutor(environmentProvider.getThreadCount());
+    }
+
+    private ExecutorService createAttemptExecutor(int threadCount) {
+        return environmentProvider.getAttemptExecutorType().create(threadCount);
+    }
+
+    /**
+     * Splits tests into packs and waits for all attempts of a pack before the next pack is started.
+     */
+    private void retryTestsWithAllAttemptsInPacks(int retriesCount, int firstAttemptNumber, RunListenerAdapter adapter,
+                                                  ReporterFactory reporterFactory, ExecutorService executor, SlotUtilization slotUtilization) {
+        packFailuresToRetryInParallel(adapter, retriesCount).forEach(testsOfPack -> {
+            if (roundDeadline.isExpired()) {
+                LOG.warn("The pack is not retried, because the retry time is over");
+                return;
+            }
+            retryPack(retriesCount, firstAttemptNumber, testsOfPack, reporterFactory, executor, slotUtilization);
+        });
+    }
+
+    /**
+     * Every attempt discovers the pack in its own thread, because a {@link TestPlan} can be executed only once
+     * and descriptors of a plan are changed by its execution, so simultaneous attempts can't share them.
+     */
+    private void retryPack(int retriesCount, int firstAttemptNumber, List<TestIdentifier> testsOfPack, ReporterFactory reporterFactory,
+                           ExecutorService executor, SlotUtilization slotUtilization) {
+        notifySafely(EventListener::parallelRetryNextPackStarted);
+        long packStartNanos = System.nanoTime();
+        RetryFlightEvents.ParallelPack packEvent = new RetryFlightEvents.ParallelPack();
+        packEvent.begin();
+        SlotUtilization.Pack slotsOfPack = slotUtilization.startPack();
+        LauncherDiscoveryRequest retryDiscoveryRequest = buildLauncherDiscoveryRequestForRerun(testsOfPack);
+        int testsCount = testsOfPack.size();
+        List<Future<?>> attempts = IntStream.range(0, retriesCount)
+                .mapToObj(attemptNumber -> {
+                    RunListenerAdapter listener = createRetryRunListenerAdapter(reporterFactory, firstAttemptNumber + attemptNumber);
+                    AttemptEventNotifier attemptEvents = createAttemptEventNotifier(firstAttemptNumber, firstAttemptNumber + attemptNumber);
+                    attemptEvents.scheduled(testsOfPack);
+                    return executor.submit(() -> {
+                        executeWithinMachineBudget(testsCount,
+                                () -> execute(retryDiscoveryRequest, listener, slotUtilization.getTestListener(), attemptEvents));
+                        slotsOfPack.attemptFinished(testsCount);
+                    });
+                })
+                .collect(toList());
+        waitForAttempts(attempts);
+        slotsOfPack.join();
+        finishPack(packStartNanos, packEvent, testsCount, retriesCount);
+    }
+
+    /**
+     * If any attempt failed with an exception, the other attempts are cancelled and the exception is rethrown
+     */
+    private static void waitForAttempts(List<Future<?>> attempts) {
+        try {
+            for (Future<?> attempt : attempts) {
+                attempt.get();
+            }
+        } catch (InterruptedException e) {
+            attempts.forEach(attempt -> attempt.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test execution was interrupted!", e);
+        } catch (ExecutionException e) {
+            attempts.forEach(attempt -> attempt.cancel(true));
+            throw new IllegalStateException("Retry attempt failed!", e.getCause());
+        }
+    }
+
+    /**
+     * Executes every attempt of every test separately on {@link EnvironmentProvider#getThreadCount()} slots.
+     * The next attempt starts as soon as any slot is free, so there are no barriers between tests.
+     * All attempts are treated as one pack, that's why {@link EventListener#parallelRetryNextPackStarted()} is notified once.
+     * In {@link RetryMode#HEDGED} mode the other attempts of a test are cancelled as soon as one of them passed.
+     * Failures of cancelled attempts are reported as skipped, see {@link RunListenerAdapter#setCancelled(BooleanSupplier)}.
+     * If {@link EnvironmentProvider#isClassAffinityEnabled()}, tests of the same class are executed in one attempt,
+     * see {@link ClassAffinityGrouping}. Hedged attempts are not grouped, because one failing test would keep its group running.
+     */
+    private void retryTestsWithAllAttemptsContinuously(int retriesCount, int firstAttemptNumber, RunListenerAdapter adapter,
+                                                       ReporterFactory reporterFactory, ExecutorService executor,
+                                                       SlotUtilization slotUtilization) {
+        notifySafely(EventListener::parallelRetryNextPackStarted);
+        long packStartNanos = System.nanoTime();
+        RetryFlightEvents.ParallelPack packEvent = new RetryFlightEvents.ParallelPack();
+        packEvent.begin();
+        List<List<TestIdentifier>> groups = groupFailuresToRetryContinuously(retriesCount, adapter);
+        List<RetryAttempt> attempts = groups.stream()
+                .flatMap(group -> IntStream.range(0, retriesCount)
+                        .mapToObj(attemptNumber -> new RetryAttempt(group, attemptNumber)))
+                .collect(toList());
+        // all attempts are scheduled at once, so the queueing delay includes the wait for a free slot
+        Map<RetryAttempt, AttemptEventNotifier> attemptEvents = new IdentityHashMap<>();
+        attempts.forEach(attempt -> {
+            AttemptEventNotifier notifier = createAttemptEventNotifier(firstAttemptNumber, firstAttemptNumber + attempt.getAttemptNumber());
+            notifier.scheduled(attempt.getTestIdentifiers());
+            attemptEvents.put(attempt, notifier);
+        });
+        new ContinuousRetryScheduler(executor, environmentProvider.getThreadCount(), HEDGED.equals(environmentProvider.getRetryMode()))
+                .run(attempts, attempt -> {
+                    // the deadline is checked when the attempt gets a slot, a skipped attempt is treated as failed
+                    List<TestIdentifier> fittingTests = roundDeadline.selectFittingInParallel(attempt.getTestIdentifiers(), adapter.getElapsedTimes());
+                    if (fittingTests.size() < attempt.getTestIdentifiers().size()) {
+                        return false;
+                    }
+                    RunListenerAdapter attemptAdapter = createRetryRunListenerAdapter(reporterFactory, firstAttemptNumber + attempt.getAttemptNumber());
+                    attemptAdapter.setCancelled(attempt::isCancelled);
+                    attemptEvents.get(attempt).setCancelled(attempt::isCancelled);
+                    executeWithinMachineBudget(attempt.getTestIdentifiers().size(),
+                            () -> execute(buildLauncherDiscoveryRequestForRerun(attempt.getTestIdentifiers()), attemptAdapter,
+                                    slotUtilization.getTestListener(), attemptEvents.get(attempt)));
+                    return !attemptAdapter.hasFailingTests();
+                });
+        finishPack(packStartNanos, packEvent, groups.stream().mapToInt(List::size).sum(), attempts.size());
+    }
+
+    /**
+     * Groups are limited by {@code threadCount / retriesCount} tests, so all attempts of a group can run at the same time
+     */
+    private List<List<TestIdentifier>> groupFailuresToRetryContinuously(int retriesCount, RunListenerAdapter adapter) {
+        List<TestIdentifier> failures = getFailuresToRetry(adapter);
+        if (!environmentProvider.isClassAffinityEnabled() || HEDGED.equals(environmentProvider.getRetryMode())) {
+            return failures.stream().map(List::of).collect(toList());
+        }
+        int maxGroupSize = Math.max(1, environmentProvider.getThreadCount() / retriesCount);
+        List<List<TestIdentifier>> groups = ClassAffinityGrouping.group(failures, maxGroupSize);
+        LOG.info("{} failed tests are grouped by classes into {} attempts of up to {} tests, {} class setups are saved",
+                failures.size(), groups.size(), maxGroupSize, ClassAffinityGrouping.countSavedClassSetups(groups, retriesCount));
+        return groups;
+    }
+
+    /**
+     * Retries tests in rounds planned by {@link MixedRetryPlanner} until they passed or their retries are over.
+     * Attempts of tests are sized by their flakiness history, if {@link EnvironmentProvider#getRetryHistoryDirectory()} is specified.
+     * All attempts of a round are started at the same time, the attempt {@code i} executes tests with more than {@code i} attempts.
+     * Attempt numbers are counted from {@code firstAttemptNumber} in every round, rounds are counted from {@code firstAttemptNumber} too.
+     * The flakiness history gets the real attempt numbers of tests, which include attempts of the previous rounds.
+     */
+    private void retryTestsWithMixedAttempts(int retriesCount, int firstAttemptNumber, RunListenerAdapter adapter,
+                                             ReporterFactory reporterFactory, ExecutorService executor, SlotUtilization slotUtilization) {
+        Map<TestIdentifier, Integer> retriesLeft = new LinkedHashMap<>();
+        Map<TestIdentifier, Integer> recommendedAttempts = new HashMap<>();
+        getFailuresToRetry(adapter).forEach(testIdentifier -> {
+            retriesLeft.put(testIdentifier, retriesCount);
+            Optional.ofNullable(testHistories.get().get(testIdentifier.getUniqueId()))
+                    .flatMap(TestHistory::getRecommendedAttempts)
+                    .ifPresent(attempts -> recommendedAttempts.put(testIdentifier, attempts));
+        });
+        for (int round = firstAttemptNumber; !retriesLeft.isEmpty(); round++) {
+            retriesLeft.keySet().retainAll(roundDeadline.selectFittingInParallel(retriesLeft.keySet(), adapter.getElapsedTimes()));
+            if (retriesLeft.isEmpty()) {
+                LOG.warn("Mixed retries are stopped, because the remaining tests don't fit into the retry time");
+                break;
+            }
+            Map<TestIdentifier, Integer> attempts = MixedRetryPlanner.planRound(retriesLeft, recommendedAttempts, environmentProvider.getThreadCount());
             notifySafely(EventListener::parallelRetryNextPackStarted);
-            List<Thread> threads = new ArrayList<>();
-            List<RunListenerAdapter> listeners = IntStream.range(0, retriesCount)
-                    .mapToObj(i -> createRetryRunListenerAdapter(reporterFactory))
-                    .collect(toList());
-            listeners.forEach(listener -> threads.add(new Thread(() -> execute(retryDiscoveryRequest, listener))));
-            threads.forEach(Thread::start);
-            threads.forEach(thread -> {
-                try {
-                    thread.join();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IllegalStateException("Test execution was interrupted!", e);
+            long packStartNanos = System.nanoTime();
+            RetryFlightEvents.ParallelPack packEvent = new RetryFlightEvents.ParallelPack();
+            packEvent.begin();
+            SlotUtilization.Pack slotsOfPack = slotUtilization.startPack();
+            int attemptsCount = Collections.max(attempts.values());
+            List<List<TestIdentifier>> testsOfAttempts = new ArrayList<>();
+            List<RunListenerAdapter> listeners = new ArrayList<>();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int attemptNumber = 0; attemptNumber < attemptsCount; attemptNumber++) {
+                int finalAttemptNumber = attemptNumber;
+                List<TestIdentifier> tests = attempts.entrySet().stream()
+                        .filter(attempt -> attempt.getValue() > finalAttemptNumber)
+                        .map(Map.Entry::getKey)
+                        .collect(toList());
+                RunListenerAdapter listener = createRetryRunListenerAdapter(reporterFactory, firstAttemptNumber + attemptNumber);
+                AttemptEventNotifier attemptEvents = createAttemptEventNotifier(round, firstAttemptNumber + attemptNumber);
+                attemptEvents.scheduled(tests);
+                testsOfAttempts.add(tests);
+                listeners.add(listener);
+                // tests of one attempt have different attempt numbers, if they used different counts of attempts in previous rounds
+                Map<String, Integer> attemptNumbers = tests.stream().collect(toMap(TestIdentifier::getUniqueId,
+                        testIdentifier -> firstAttemptNumber + retriesCount - retriesLeft.get(testIdentifier) + finalAttemptNumber));
+                ToIntFunction<TestIdentifier> attemptNumberOfTest = testIdentifier ->
+                        attemptNumbers.getOrDefault(testIdentifier.getUniqueId(), firstAttemptNumber + finalAttemptNumber);
+                futures.add(executor.submit(() -> {
+                    executeWithinMachineBudget(tests.size(),
+                            () -> execute(buildLauncherDiscoveryRequestForRerun(tests), listener, attemptNumberOfTest,
+                                    slotUtilization.getTestListener(), attemptEvents));
+                    slotsOfPack.attemptFinished(tests.size());
+                }));
+            }
+            waitForAttempts(futures);
+            slotsOfPack.join();
+            finishPack(packStartNanos, packEvent, attempts.size(), attemptsCount);
+            attempts.forEach((testIdentifier, attemptCount) -> {
+                boolean passed = IntStream.range(0, attemptCount)
+                        .anyMatch(attemptNumber -> !isFailed(testIdentifier, listeners.get(attemptNumber).getFailures().keySet()));
+                if (passed || retriesLeft.get(testIdentifier) <= attemptCount) {
+                    retriesLeft.remove(testIdentifier);
+                } else {
+                    retriesLeft.put(testIdentifier, retriesLeft.get(testIdentifier) - attemptCount);
                 }
             });
-        });
-        notifySafely(EventListener::parallelRetryFinished);
+        }
     }
 
-    private RunListenerAdapter retryTestsWithRerunAfterFailureAndGetResults(RunListenerAdapter adapter, ReporterFactory reporterFactory) {
-        LauncherDiscoveryRequest discoveryRequest = buildLauncherDiscoveryRequestForRerunFailures(adapter);
-        RunListenerAdapter runListenerAdapter = createRetryRunListenerAdapter(reporterFactory);
-        execute(discoveryRequest, runListenerAdapter);
+    private RunListenerAdapter retryTestsWithRerunAfterFailureAndGetResults(RunListenerAdapter adapter, ReporterFactory reporterFactory,
+                                                                            int attemptNumber) {
+        List<TestIdentifier> failures = getFailuresToRetry(adapter);
+        List<TestIdentifier> fittingFailures = roundDeadline.selectFittingSequentially(failures, adapter.getElapsedTimes());
+        if (fittingFailures.size() < failures.size()) {
+            LOG.warn("{} of {} failed tests are not retried, because they don't fit into the retry time", failures.size() - fittingFailures.size(), failures.size());
+        }
+        RunListenerAdapter runListenerAdapter = createRetryRunListenerAdapter(reporterFactory, attemptNumber);
+        if (fittingFailures.isEmpty()) {
+            return runListenerAdapter;
+        }
+        LauncherDiscoveryRequest discoveryRequest = buildLauncherDiscoveryRequestForRerun(fittingFailures);
+        discoverRetryTestPlan(discoveryRequest).ifPresent(testPlan -> {
+            AttemptEventNotifier attemptEvents = createAttemptEventNotifier(attemptNumber, attemptNumber);
+            attemptEvents.scheduled(fittingFailures);
+            execute(testPlan, runListenerAdapter, attemptEvents);
+        });
         return runListenerAdapter;
     }
 
-    private RunListenerAdapter createRetryRunListenerAdapter(ReporterFactory reporterFactory) {
-        RunListenerAdapter runListenerAdapter = new RunListenerAdapter(reporterFactory.createTestReportListener());
+    /**
+     * If {@link EnvironmentProvider#getMachineSlots()} is specified, the attempt waits until it takes slots of the {@link MachineSlotBudget},
+     * so parallel retries of all forks don't use more threads than the machine has. An attempt takes a slot per test,
+     * but not more than {@link EnvironmentProvider#getThreadCount()}. The wait is recorded as {@link ProviderPhase#MACHINE_SLOT_WAIT}.
+     * Sequential retries don't take slots, because every fork executes tests in one thread anyway.
+     */
+    private void executeWithinMachineBudget(int testsCount, Runnable attempt) {
+        if (machineSlotBudget.isEmpty()) {
+            attempt.run();
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try (MachineSlotBudget.Lease lease = machineSlotBudget.get().acquire(Math.min(testsCount, environmentProvider.getThreadCount()))) {
+            metrics.record(ProviderPhase.MACHINE_SLOT_WAIT, startNanos, lease.getSlotCount());
+            attempt.run();
+        }
+    }
+
+    /**
+     * @param round number of the sequential retry, or the number of the first attempt of the parallel retry
+     */
+    private AttemptEventNotifier createAttemptEventNotifier(int round, int attemptNumber) {
+        return new AttemptEventNotifier(round, attemptNumber, eventListenerDispatcher);
+    }
+
+    private RunListenerAdapter createRetryRunListenerAdapter(ReporterFactory reporterFactory, int attemptNumber) {
+        RunListenerAdapter runListenerAdapter = new RunListenerAdapter(reporterFactory.createTestReportListener(), testNameCache);
         runListenerAdapter.setRunMode(RERUN_TEST_AFTER_FAILURE);
+        runListenerAdapter.setAttemptNumber(attemptNumber);
         return runListenerAdapter;
     }
 
+    private void finishPack(long packStartNanos, RetryFlightEvents.ParallelPack packEvent, int testsCount, int attemptsCount) {
+        metrics.record(ProviderPhase.PARALLEL_PACK, packStartNanos, testsCount);
+        RetryFlightEvents.commitPack(packEvent, testsCount, attemptsCount);
+    }
+
+    /**
+     * Builds a discovery request for every pack of {@link #packFailuresToRetryInParallel(RunListenerAdapter, int)}.
+     * It's package-private for benchmarks.
+     */
+    List<LauncherDiscoveryRequest> buildLauncherDiscoveryRequestForRerunFailuresInParallel(RunListenerAdapter adapter, int retriesCount) {
+        return packFailuresToRetryInParallel(adapter, retriesCount)
+                .stream()
+                .map(this::buildLauncherDiscoveryRequestForRerun)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Splits tests into groups in such a way that all invocations of one group {@code retriesCount} times
      * in parallel will fit into {@link EnvironmentProvider#getThreadCount()} threads.
+     * Tests with similar durations are packed together, see {@link DurationAwarePacking}.
+     * If {@link EnvironmentProvider#isClassAffinityEnabled()}, failed tests of the same class are kept in one pack instead,
+     * see {@link ClassAffinityGrouping#pack(Collection, int)}.
      */
-    private List<LauncherDiscoveryRequest> buildLauncherDiscoveryRequestForRerunFailuresInParallel(RunListenerAdapter adapter, int retriesCount) {
+    private List<List<TestIdentifier>> packFailuresToRetryInParallel(RunListenerAdapter adapter, int retriesCount) {
         int groupSize = environmentProvider.getThreadCount() / retriesCount;
         if (groupSize < 1) {
             throw new IllegalStateException(String.format("Thread count (%d) should be more or equals than retry count (%d) for parallel retries mode!", environmentProvider.getThreadCount(), retriesCount));
         }
-        List<List<TestIdentifier>> groupedValues = Lists.partition(List.copyOf(adapter.getFailures().keySet()), groupSize);
-        return groupedValues
-                .stream()
-                .map(selectors -> {
-                    LauncherDiscoveryRequestBuilder builder = request()
-                            .filters(filters)
-                            .configurationParameters(configurationParameters);
-                    builder.selectors(selectors.stream().map(identifier -> selectUniqueId(identifier.getUniqueId()))
-                            .collect(Collectors.toList()));
-                    return builder.build();
-                })
-                .collect(Collectors.toList());
+        List<TestIdentifier> failures = getFailuresToRetry(adapter);
+        List<List<TestIdentifier>> groupedValues = packFailuresToRetryInParallel(failures, adapter.getElapsedTimes(), groupSize, retriesCount);
+        LOG.info("{} failed tests are packed into {} packs of {} tests, estimated makespan is {} ms, ideal makespan is {} ms",
+                failures.size(), groupedValues.size(), groupSize,
+                DurationAwarePacking.estimateMakespan(groupedValues, adapter.getElapsedTimes()),
+                DurationAwarePacking.estimateIdealMakespan(failures, adapter.getElapsedTimes(), retriesCount, environmentProvider.getThreadCount()));
+        return groupedValues;
     }
 
-    private void execute(LauncherDiscoveryRequest discoveryRequest, RunListenerAdapter runListenerAdapter) {
-        launcher.execute(discoveryRequest, runListenerAdapter);
+    private List<List<TestIdentifier>> packFailuresToRetryInParallel(List<TestIdentifier> failures, Map<TestIdentifier, Integer> durations,
+                                                                     int packSize, int retriesCount) {
+        List<List<TestIdentifier>> packs = DurationAwarePacking.pack(failures, durations, packSize);
+        if (!environmentProvider.isClassAffinityEnabled()) {
+            return packs;
+        }
+        List<List<TestIdentifier>> packsOfClasses = ClassAffinityGrouping.pack(failures, packSize);
+        LOG.info("{} failed tests are packed by classes into {} packs of up to {} tests, {} class setups are saved",
+                failures.size(), packsOfClasses.size(), packSize,
+                ClassAffinityGrouping.countSavedClassSetups(packsOfClasses, retriesCount)
+                        - ClassAffinityGrouping.countSavedClassSetups(packs, retriesCount));
+        return packsOfClasses;
     }
 
-    private void execute(TestsToRun testsToRun, RunListenerAdapter adapter) {
+    private LauncherDiscoveryRequest buildLauncherDiscoveryRequestForRerun(Collection<TestIdentifier> identifiers) {
+        return request()
+                .filters(filters)
+                .configurationParameters(configurationParameters)
+                .selectors(identifiers.stream()
+                        .map(identifier -> selectUniqueId(identifier.getUniqueId()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Failed tests are selected by unique ids. Descendants of failed containers are executed with the containers anyway,
+     * so they are not selected again. The longest tests go first, see {@link DurationAwarePacking}.
+     */
+    private List<TestIdentifier> getFailuresToRetry(RunListenerAdapter adapter) {
+        return DurationAwarePacking.sortLongestFirst(removeDescendants(adapter.getFailures().keySet()), adapter.getElapsedTimes());
+    }
+
+    /**
+     * Discovers tests for a retry once, so the plan can be checked and executed without one more discovery.
+     * JUnit can execute a {@link TestPlan} only once, that's why simultaneous attempts of the same tests can't share it.
+     *
+     * @return discovered plan or empty if there is nothing to retry
+     */
+    private Optional<TestPlan> discoverRetryTestPlan(LauncherDiscoveryRequest discoveryRequest) {
+        TestPlan testPlan = discover(discoveryRequest);
+        if (!testPlan.containsTests()) {
+            LOG.warn("Failed tests were not discovered again, they will not be retried");
+            return empty();
+        }
+        return of(testPlan);
+    }
+
+    /**
+     * All discoveries of retried tests are timed. The initial run is discovered by the launcher as a part of its execution
+     */
+    private TestPlan discover(LauncherDiscoveryRequest discoveryRequest) {
+        long startNanos = System.nanoTime();
+        TestPlan testPlan = launcher.discover(discoveryRequest);
+        metrics.record(ProviderPhase.RETRY_DISCOVERY, startNanos, (int) testPlan.countTestIdentifiers(TestIdentifier::isTest));
+        return testPlan;
+    }
+
+    /**
+     * Retried tests are discovered by the attempt, which executes them, because a {@link TestPlan} can be executed only once
+     */
+    private void execute(LauncherDiscoveryRequest discoveryRequest, RunListenerAdapter runListenerAdapter, TestExecutionListener... additionalListeners) {
+        execute(discover(discoveryRequest), runListenerAdapter, additionalListeners);
+    }
+
+    /**
+     * @param attemptNumbers numbers of attempts of executed tests for the flakiness history, if tests of one execution have different attempts
+     */
+    private void execute(LauncherDiscoveryRequest discoveryRequest, RunListenerAdapter runListenerAdapter,
+                         ToIntFunction<TestIdentifier> attemptNumbers, TestExecutionListener... additionalListeners) {
+        launcher.execute(discover(discoveryRequest), executionListeners(runListenerAdapter, attemptNumbers, List.of(additionalListeners)));
+    }
+
+    private void execute(TestPlan testPlan, RunListenerAdapter runListenerAdapter, TestExecutionListener... additionalListeners) {
+        launcher.execute(testPlan, executionListeners(runListenerAdapter, List.of(additionalListeners)));
+    }
+
+    private TestExecutionListener[] executionListeners(RunListenerAdapter runListenerAdapter, List<TestExecutionListener> additionalListeners) {
+        int attemptNumber = runListenerAdapter.getAttemptNumber();
+        return executionListeners(runListenerAdapter, testIdentifier -> attemptNumber, additionalListeners);
+    }
+
+    private TestExecutionListener[] executionListeners(RunListenerAdapter runListenerAdapter, ToIntFunction<TestIdentifier> attemptNumbers,
+                                                       List<TestExecutionListener> additionalListeners) {
+        List<TestExecutionListener> listeners = new ArrayList<>();
+        listeners.add(runListenerAdapter);
+        historyStore.ifPresent(store -> listeners.add(historyRecorder.forAttempt(attemptNumbers)));
+        listeners.addAll(additionalListeners);
+        return listeners.toArray(new TestExecutionListener[0]);
+    }
+
+    private void execute(TestsToRun testsToRun, RunListenerAdapter adapter, List<TestExecutionListener> additionalListeners) {
         if (testsToRun.allowEagerReading()) {
             List<DiscoverySelector> selectors = new ArrayList<>();
             testsToRun.iterator()
@@ -316,7 +1017,7 @@ public class JUnitPlatformProvider extends AbstractProvider {
                     .configurationParameters(configurationParameters)
                     .selectors(selectors);
 
-            launcher.execute(builder.build(), adapter);
+            launcher.execute(builder.build(), executionListeners(adapter, additionalListeners));
         } else {
             testsToRun.iterator()
                     .forEachRemaining(c ->
@@ -325,7 +1026,7 @@ public class JUnitPlatformProvider extends AbstractProvider {
                                 .filters(filters)
                                 .configurationParameters(configurationParameters)
                                 .selectors(selectClass(c.getName()));
-                        launcher.execute(builder.build(), adapter);
+                        launcher.execute(builder.build(), executionListeners(adapter, additionalListeners));
                     });
         }
     }
@@ -340,16 +1041,6 @@ public class JUnitPlatformProvider extends AbstractProvider {
         }
     }
 
-    private LauncherDiscoveryRequest buildLauncherDiscoveryRequestForRerunFailures(RunListenerAdapter adapter) {
-        LauncherDiscoveryRequestBuilder builder = request().filters(filters).configurationParameters(
-                configurationParameters);
-        // Iterate over recorded failures
-        for (TestIdentifier identifier : new LinkedHashSet<>(adapter.getFailures().keySet())) {
-            builder.selectors(selectUniqueId(identifier.getUniqueId()));
-        }
-        return builder.build();
-    }
-
     private Filter<?>[] newFilters() {
         List<Filter<?>> filters = new ArrayList<>();
 
@@ -34,9 +34,21 @@ import org.junit.platform.launcher.core.LauncherFactory;
  */
 class LazyLauncher implements Launcher, AutoCloseable {
 
+    private final ProviderMetrics metrics;
     private AutoCloseable launcherSession;
     private Launcher launcher;
 
+    LazyLauncher() {
+        this(new ProviderMetrics());
+    }
+
+    /**
+     * @param metrics records {@link ProviderPhase#LAUNCHER_CREATION} every time the launcher is created after closing
+     */
+    LazyLauncher(ProviderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public void registerLauncherDiscoveryListeners(LauncherDiscoveryListener... launcherDiscoveryListeners) {
         launcher().registerLauncherDiscoveryListeners(launcherDiscoveryListeners);
@@ -63,8 +75,9 @@ class LazyLauncher implements Launcher, AutoCloseable {
         launcher().execute(testPlan, testExecutionListeners);
     }
 
-    private Launcher launcher() {
+    private synchronized Launcher launcher() {
         if (launcher == null) {
+            long startNanos = System.nanoTime();
             try {
                 Class<?> sessionClass = Class.forName("org.junit.platform.launcher.LauncherSession");
                 launcherSession = ReflectionUtils.invokeGetter(LauncherFactory.class, null, "openSession");
@@ -72,12 +85,13 @@ class LazyLauncher implements Launcher, AutoCloseable {
             } catch (ClassNotFoundException e) {
                 launcher = LauncherFactory.create();
             }
+            metrics.record(ProviderPhase.LAUNCHER_CREATION, startNanos, 0);
         }
         return launcher;
     }
 
     @Override
-    public void close() throws Exception {
+    public synchronized void close() throws Exception {
         if (launcherSession != null) {
             launcherSession.close();
             launcherSession = null;
@@ -0,0 +1,49 @@
+package com.wrike.qaa.runner.provider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Defines what {@link EventListenerDispatcher} does with a notification, when its queue is full.
+ *
+ * <ul>
+ *     <li>{@link #BLOCK} — the notifying thread waits for a free place, nothing is lost</li>
+ *     <li>{@link #DROP} — the notification is dropped, the count of dropped notifications is logged on flush</li>
+ *     <li>{@link #COALESCE} — the notification replaces a queued one of the same test attempt, so listeners get the latest state of the attempt.
+ *     Notifications, which can't be coalesced, wait for a free place</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+enum ListenerOverflowPolicy {
+
+    BLOCK("block"),
+    DROP("drop"),
+    COALESCE("coalesce");
+
+    ListenerOverflowPolicy(String listenerOverflowPolicyString) {
+        this.listenerOverflowPolicyString = listenerOverflowPolicyString;
+    }
+
+    private final String listenerOverflowPolicyString;
+
+    public String getListenerOverflowPolicyString() {
+        return listenerOverflowPolicyString;
+    }
+
+    private static final Map<String, ListenerOverflowPolicy> listenerOverflowPolicyNamesToEnumValues = Arrays.stream(ListenerOverflowPolicy.values())
+            .collect(Collectors.toMap(ListenerOverflowPolicy::getListenerOverflowPolicyString, Function.identity()));
+
+    public static Optional<ListenerOverflowPolicy> getListenerOverflowPolicyByName(String listenerOverflowPolicyName) {
+        return Optional.ofNullable(listenerOverflowPolicyNamesToEnumValues.get(listenerOverflowPolicyName));
+    }
+
+    public static Set<String> getAvailableListenerOverflowPolicies() {
+        return listenerOverflowPolicyNamesToEnumValues.keySet();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Budget of retry slots, which is shared by all forks on the machine.
+ *
+ * <p>
+ * Every slot is a lock file in the shared directory, a slot is taken while its file is locked.
+ * Locks are released by the OS, if a fork dies, so slots are never leaked.
+ * An attempt takes all its slots at once or none of them, so forks don't wait for each other holding some slots.
+ * If there are not enough free slots, the attempt waits with an exponential backoff.
+ * </p>
+ * <p>
+ * Taking all slots at once lets a stream of small attempts starve a large one, because some slots are always taken.
+ * That's why an attempt, which waits longer than the starvation timeout, warns about it and takes the turnstile file.
+ * While the turnstile is taken, attempts of all forks don't take new slots, so the taken slots are released,
+ * and the starving attempt takes them. Starving attempts take the turnstile one by one.
+ * </p>
+ * <p>
+ * Closing any channel of a file may release all locks of the JVM on this file, so slot files, which are locked by this JVM,
+ * are not opened again until they are released.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class MachineSlotBudget {
+
+    static final String SLOT_FILE_PREFIX = "slot-";
+    static final String TURNSTILE_FILE = "turnstile.lock";
+    private static final long MIN_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+    private static final long DEFAULT_STARVATION_TIMEOUT_MILLIS = 10_000;
+
+    private static final Logger LOG = LogManager.getLogger(MachineSlotBudget.class);
+
+    /**
+     * Slot files locked by this JVM, budgets of the same directory share them
+     */
+    private static final Set<Path> LOCKED_SLOT_FILES = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final Path turnstileFile;
+    private final int slotCount;
+    private final long starvationTimeoutMillis;
+
+    /**
+     * @param directory directory of slot files, it should be the same for all forks
+     * @param slotCount count of slots on the machine, all forks should use the same count
+     */
+    MachineSlotBudget(Path directory, int slotCount) {
+        this(directory, slotCount, DEFAULT_STARVATION_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param starvationTimeoutMillis time of waiting, after which an attempt takes the turnstile
+     */
+    MachineSlotBudget(Path directory, int slotCount, long starvationTimeoutMillis) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException(String.format("Slot count (%d) should be positive!", slotCount));
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create directory of machine slots " + directory, e);
+        }
+        this.directory = directory.toAbsolutePath().normalize();
+        this.turnstileFile = this.directory.resolve(TURNSTILE_FILE);
+        this.slotCount = slotCount;
+        this.starvationTimeoutMillis = starvationTimeoutMillis;
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Waits until the slots are taken. After the starvation timeout the attempt takes the turnstile and waits holding it.
+     *
+     * @param slots count of slots, it's limited by {@link #getSlotCount()}
+     */
+    Lease acquire(int slots) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(starvationTimeoutMillis);
+        long backoffMillis = MIN_BACKOFF_MILLIS;
+        Optional<LockedSlot> turnstile = Optional.empty();
+        try {
+            while (true) {
+                if (turnstile.isPresent() || isTurnstileFree()) {
+                    Optional<Lease> lease = tryAcquire(slots);
+                    if (lease.isPresent()) {
+                        return lease.get();
+                    }
+                }
+                if (turnstile.isEmpty() && System.nanoTime() - deadlineNanos >= 0) {
+                    turnstile = tryLock(turnstileFile);
+                    if (turnstile.isPresent()) {
+                        LOG.warn("Waiting for {} machine slots takes more than {} ms, new attempts of all forks wait until they are taken",
+                                Math.min(slots, slotCount), starvationTimeoutMillis);
+                    }
+                }
+                sleep(backoffMillis);
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+            }
+        } finally {
+            turnstile.ifPresent(lockedSlot -> unlock(lockedSlot.slotFile, lockedSlot.channel));
+        }
+    }
+
+    private boolean isTurnstileFree() {
+        Optional<LockedSlot> turnstile = tryLock(turnstileFile);
+        turnstile.ifPresent(lockedSlot -> unlock(lockedSlot.slotFile, lockedSlot.channel));
+        return turnstile.isPresent();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting for machine slots was interrupted!", e);
+        }
+    }
+
+    /**
+     * Slots are checked from a random one, so forks don't compete for the first slots
+     *
+     * @return taken slots or empty, if there are not enough free slots
+     */
+    Optional<Lease> tryAcquire(int slots) {
+        int wantedSlots = Math.max(1, Math.min(slots, slotCount));
+        int firstSlot = ThreadLocalRandom.current().nextInt(slotCount);
+        List<LockedSlot> lockedSlots = new ArrayList<>();
+        for (int i = 0; i < slotCount && lockedSlots.size() < wantedSlots; i++) {
+            tryLock(directory.resolve(SLOT_FILE_PREFIX + (firstSlot + i) % slotCount + ".lock")).ifPresent(lockedSlots::add);
+        }
+        Lease lease = new Lease(lockedSlots);
+        if (lockedSlots.size() < wantedSlots) {
+            lease.close();
+            return Optional.empty();
+        }
+        return Optional.of(lease);
+    }
+
+    private static Optional<LockedSlot> tryLock(Path slotFile) {
+        if (!LOCKED_SLOT_FILES.add(slotFile)) {
+            return Optional.empty();
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(slotFile, CREATE, WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return Optional.of(new LockedSlot(slotFile, channel));
+            }
+        } catch (OverlappingFileLockException e) {
+            // the file is locked by another budget of this JVM, which doesn't share the set of locked files
+        } catch (IOException e) {
+            unlock(slotFile, channel);
+            throw new UncheckedIOException("Can't lock machine slot " + slotFile, e);
+        }
+        unlock(slotFile, channel);
+        return Optional.empty();
+    }
+
+    /**
+     * The lock is released with its channel
+     */
+    private static void unlock(Path slotFile, FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't release machine slot " + slotFile, e);
+        } finally {
+            LOCKED_SLOT_FILES.remove(slotFile);
+        }
+    }
+
+    /**
+     * Slots taken by one attempt, they are released on close
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final List<LockedSlot> lockedSlots;
+        private boolean closed;
+
+        private Lease(List<LockedSlot> lockedSlots) {
+            this.lockedSlots = lockedSlots;
+        }
+
+        int getSlotCount() {
+            return lockedSlots.size();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                lockedSlots.forEach(lockedSlot -> unlock(lockedSlot.slotFile, lockedSlot.channel));
+            }
+        }
+
+    }
+
+    private static final class LockedSlot {
+
+        private final Path slotFile;
+        private final FileChannel channel;
+
+        private LockedSlot(Path slotFile, FileChannel channel) {
+            this.slotFile = slotFile;
+            this.channel = channel;
+        }
+
+    }
+
+}
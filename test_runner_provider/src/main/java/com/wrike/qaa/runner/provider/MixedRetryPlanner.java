@@ -0,0 +1,71 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Plans one round of {@link RetryScheduling#MIXED} retries.
+ *
+ * <p>
+ * Every test gets one attempt, if slots are enough. Then the remaining slots are given to tests in order,
+ * so the first tests get all their remaining retries, and the next one gets as many attempts as slots are left.
+ * If {@link FlakinessHistoryStore} recommends fewer attempts for some tests, they get only the recommended attempts first,
+ * so the other tests can get more slots. The slots, which are still free, are given without recommendations.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class MixedRetryPlanner {
+
+    private MixedRetryPlanner() {
+    }
+
+    /**
+     * @param retriesLeft remaining retries of each failed test, the order defines which tests are topped up first
+     * @param slotCount count of attempts, which can be executed at the same time
+     * @return count of attempts of each test in this round, tests without retries are skipped
+     */
+    static Map<TestIdentifier, Integer> planRound(Map<TestIdentifier, Integer> retriesLeft, int slotCount) {
+        return planRound(retriesLeft, Map.of(), slotCount);
+    }
+
+    /**
+     * @param retriesLeft remaining retries of each failed test, the order defines which tests are topped up first
+     * @param recommendedAttempts count of attempts, which are usually enough for a test to pass
+     * @param slotCount count of attempts, which can be executed at the same time
+     * @return count of attempts of each test in this round, tests without retries are skipped
+     */
+    static Map<TestIdentifier, Integer> planRound(Map<TestIdentifier, Integer> retriesLeft,
+                                                  Map<TestIdentifier, Integer> recommendedAttempts, int slotCount) {
+        Map<TestIdentifier, Integer> attempts = new LinkedHashMap<>();
+        retriesLeft.forEach((testIdentifier, retries) -> {
+            if (retries > 0) {
+                attempts.put(testIdentifier, 1);
+            }
+        });
+        int freeSlots = slotCount - attempts.size();
+        freeSlots = topUp(attempts, testIdentifier -> Math.min(retriesLeft.get(testIdentifier),
+                recommendedAttempts.getOrDefault(testIdentifier, Integer.MAX_VALUE)), freeSlots);
+        topUp(attempts, retriesLeft::get, freeSlots);
+        return attempts;
+    }
+
+    /**
+     * @return count of slots left
+     */
+    private static int topUp(Map<TestIdentifier, Integer> attempts, ToIntFunction<TestIdentifier> maxAttempts, int freeSlots) {
+        for (Map.Entry<TestIdentifier, Integer> attempt : attempts.entrySet()) {
+            if (freeSlots <= 0) {
+                break;
+            }
+            int extraAttempts = Math.max(0, Math.min(maxAttempts.applyAsInt(attempt.getKey()) - attempt.getValue(), freeSlots));
+            attempt.setValue(attempt.getValue() + extraAttempts);
+            freeSlots -= extraAttempts;
+        }
+        return freeSlots;
+    }
+
+}
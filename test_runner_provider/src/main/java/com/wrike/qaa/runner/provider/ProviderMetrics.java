@@ -0,0 +1,141 @@
+package com.wrike.qaa.runner.provider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Timings of {@link ProviderPhase phases} of one fork. Phases are recorded by attempt threads too, so it's thread-safe.
+ *
+ * <p>
+ * Timings are reported to {@link EventListener#providerMetricsCollected(ProviderMetrics)} after each invocation of the provider,
+ * and written to {@code provider-metrics-<pid>.json}, if {@link EnvironmentProvider#getMetricsDirectory()} is specified.
+ * Starts of phases are relative to the creation of the metrics, so the JSON shows gaps between packs and rounds too.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+public final class ProviderMetrics {
+
+    static final String METRICS_FILE_PREFIX = "provider-metrics-";
+
+    private final long createdNanos = System.nanoTime();
+    private final Queue<PhaseTiming> phaseTimings = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param startNanos {@link System#nanoTime()} at the start of the phase, the phase ends now
+     */
+    void record(ProviderPhase phase, long startNanos, int testsCount) {
+        phaseTimings.add(new PhaseTiming(phase, startNanos - createdNanos, System.nanoTime() - startNanos, testsCount));
+    }
+
+    public List<PhaseTiming> getPhaseTimings() {
+        return new ArrayList<>(phaseTimings);
+    }
+
+    public List<PhaseTiming> getPhaseTimings(ProviderPhase phase) {
+        return phaseTimings.stream()
+                .filter(phaseTiming -> phaseTiming.getPhase() == phase)
+                .collect(toList());
+    }
+
+    public long getTotalNanos(ProviderPhase phase) {
+        return phaseTimings.stream()
+                .filter(phaseTiming -> phaseTiming.getPhase() == phase)
+                .mapToLong(PhaseTiming::getDurationNanos)
+                .sum();
+    }
+
+    /**
+     * Writes the summary of every phase and all timings in the order of their ends
+     */
+    String toJson() {
+        List<PhaseTiming> timings = getPhaseTimings();
+        StringBuilder json = new StringBuilder("{\n  \"phases\": {");
+        String separator = "\n";
+        for (ProviderPhase phase : ProviderPhase.values()) {
+            List<PhaseTiming> timingsOfPhase = timings.stream()
+                    .filter(phaseTiming -> phaseTiming.getPhase() == phase)
+                    .collect(toList());
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "    \"%s\": {\"count\": %d, \"totalMillis\": %.3f, \"maxMillis\": %.3f, \"tests\": %d}",
+                    phase.getPhaseName(),
+                    timingsOfPhase.size(),
+                    toMillis(timingsOfPhase.stream().mapToLong(PhaseTiming::getDurationNanos).sum()),
+                    toMillis(timingsOfPhase.stream().mapToLong(PhaseTiming::getDurationNanos).max().orElse(0)),
+                    timingsOfPhase.stream().mapToLong(PhaseTiming::getTestsCount).sum()));
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"timings\": [");
+        separator = "\n";
+        for (PhaseTiming timing : timings) {
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "    {\"phase\": \"%s\", \"startMillis\": %.3f, \"durationMillis\": %.3f, \"tests\": %d}",
+                    timing.getPhase().getPhaseName(), toMillis(timing.getStartNanos()), toMillis(timing.getDurationNanos()), timing.getTestsCount()));
+            separator = ",\n";
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    /**
+     * Overwrites the file of the current fork, so it contains timings of all invocations of the fork
+     */
+    void writeJson(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(METRICS_FILE_PREFIX + ProcessHandle.current().pid() + ".json"), toJson().getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write provider metrics to " + directory, e);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public static final class PhaseTiming {
+
+        private final ProviderPhase phase;
+        private final long startNanos;
+        private final long durationNanos;
+        private final int testsCount;
+
+        PhaseTiming(ProviderPhase phase, long startNanos, long durationNanos, int testsCount) {
+            this.phase = phase;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.testsCount = testsCount;
+        }
+
+        public ProviderPhase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return start of the phase since the creation of the metrics
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public int getTestsCount() {
+            return testsCount;
+        }
+
+    }
+
+}
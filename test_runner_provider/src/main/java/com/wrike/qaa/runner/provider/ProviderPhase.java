@@ -0,0 +1,39 @@
+package com.wrike.qaa.runner.provider;
+
+/**
+ * Phases of {@link JUnitPlatformProvider}, which are timed by {@link ProviderMetrics}.
+ *
+ * <ul>
+ *     <li>{@link #CLASSPATH_SCAN} — test classes are scanned and filtered, tests are counted as classes</li>
+ *     <li>{@link #LAUNCHER_CREATION} — {@link LazyLauncher} opens a launcher session</li>
+ *     <li>{@link #INITIAL_EXECUTION} — all tests are executed once</li>
+ *     <li>{@link #RETRY_DISCOVERY} — failed tests are discovered for a sequential retry, a pack or a parallel attempt,
+ *     tests are counted in the discovered plan</li>
+ *     <li>{@link #RETRY_ROUND} — one sequential retry or the whole parallel retry</li>
+ *     <li>{@link #PARALLEL_PACK} — all attempts of one pack, including the wait for the slowest of them</li>
+ *     <li>{@link #MACHINE_SLOT_WAIT} — an attempt waits for free slots of the {@link MachineSlotBudget}, tests are counted as slots</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+public enum ProviderPhase {
+
+    CLASSPATH_SCAN("classpath.scan"),
+    LAUNCHER_CREATION("launcher.creation"),
+    INITIAL_EXECUTION("initial.execution"),
+    RETRY_DISCOVERY("retry.discovery"),
+    RETRY_ROUND("retry.round"),
+    PARALLEL_PACK("parallel.pack"),
+    MACHINE_SLOT_WAIT("machine.slot.wait");
+
+    ProviderPhase(String phaseName) {
+        this.phaseName = phaseName;
+    }
+
+    private final String phaseName;
+
+    public String getPhaseName() {
+        return phaseName;
+    }
+
+}
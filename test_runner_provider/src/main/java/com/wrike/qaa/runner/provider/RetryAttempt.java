@@ -0,0 +1,45 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+
+/**
+ * One execution of a set of failed tests during the parallel retry.
+ *
+ * @author agent on 18.10.2026
+ */
+class RetryAttempt {
+
+    private final List<TestIdentifier> testIdentifiers;
+    /**
+     * Zero-based number of the attempt among all attempts of the same tests
+     */
+    private final int attemptNumber;
+    private volatile boolean cancelled;
+
+    RetryAttempt(List<TestIdentifier> testIdentifiers, int attemptNumber) {
+        this.testIdentifiers = List.copyOf(testIdentifiers);
+        this.attemptNumber = attemptNumber;
+    }
+
+    public List<TestIdentifier> getTestIdentifiers() {
+        return testIdentifiers;
+    }
+
+    public int getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    /**
+     * The attempt is marked before it's interrupted, so its failures can be told apart from real ones
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+}
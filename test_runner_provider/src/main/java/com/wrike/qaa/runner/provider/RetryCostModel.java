@@ -0,0 +1,115 @@
+package com.wrike.qaa.runner.provider;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Estimates wall-clock time of the remaining retries for {@link RetryMode#ADAPTIVE} mode.
+ *
+ * <p>
+ * One run of tests takes {@code roundOverhead + max(sum / threadCount, max)}, where {@code sum} and {@code max}
+ * are the total and the longest durations of the executed tests. The round overhead is the cost of one launch of retried tests.
+ * It's measured by the previous retry round, until then {@link #DEFAULT_ROUND_OVERHEAD_MILLIS} is used.
+ * The initial run isn't used, because its unexplained time grows with the size of the suite, not with the size of the retry set.
+ * </p>
+ * <ul>
+ *     <li>Sequential retries execute round {@code k} only if at least one test failed all previous rounds.
+ *     Each test fails again with {@code refailureRatio} probability, so round {@code k} happens with
+ *     {@code 1 - (1 - q^k)^n} probability and executes {@code q^k} part of the tests.</li>
+ *     <li>Parallel retries execute all attempts at once, so it's one run of {@code retriesLeft} copies of the tests.</li>
+ *     <li>Parallel retries in packs execute packs of {@code threadCount / retriesLeft} tests one by one,
+ *     and each pack takes the round overhead and its longest test, see {@link DurationAwarePacking}.</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+final class RetryCostModel {
+
+    /**
+     * It's used until the provider observes a retry round
+     */
+    static final double DEFAULT_REFAILURE_RATIO = 0.5;
+    /**
+     * Discovery of retried tests by unique ids and the start of their engine in a warm fork.
+     * It's used until the provider observes a retry round
+     */
+    static final long DEFAULT_ROUND_OVERHEAD_MILLIS = 100;
+
+    private final int threadCount;
+    private final long roundOverheadMillis;
+
+    RetryCostModel(int threadCount, long roundOverheadMillis) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(String.format("Thread count (%d) should be positive!", threadCount));
+        }
+        this.threadCount = threadCount;
+        this.roundOverheadMillis = Math.max(0, roundOverheadMillis);
+    }
+
+    /**
+     * The round overhead is the part of the retry round wall-clock time, which isn't explained by durations of its tests.
+     * Containers are reported with their tests, so only tests are summed.
+     *
+     * @param adapter results of the previous retry round
+     * @param threadCount count of threads
+     */
+    static RetryCostModel fromRetryRound(RunListenerAdapter adapter, int threadCount) {
+        List<Long> durations = adapter.getElapsedTimes().entrySet().stream()
+                .filter(elapsedTime -> elapsedTime.getKey().isTest())
+                .map(elapsedTime -> elapsedTime.getValue().longValue())
+                .collect(toList());
+        long overhead = adapter.getTestPlanElapsedTime() - estimateRun(sum(durations), max(durations), Math.max(1, threadCount));
+        return new RetryCostModel(Math.max(1, threadCount), overhead);
+    }
+
+    long estimateSequentialMillis(Collection<Long> durations, int retriesLeft, double refailureRatio) {
+        double sum = sum(durations);
+        long max = max(durations);
+        int testsCount = durations.size();
+        double estimate = 0;
+        for (int round = 0; round < retriesLeft; round++) {
+            double refailureProbability = Math.pow(refailureRatio, round);
+            double roundProbability = 1 - Math.pow(1 - refailureProbability, testsCount);
+            estimate += roundProbability * (roundOverheadMillis
+                    + Math.max(sum * refailureProbability / threadCount, max));
+        }
+        return Math.round(estimate);
+    }
+
+    long estimateParallelMillis(Collection<Long> durations, int retriesLeft) {
+        return roundOverheadMillis + estimateRun(sum(durations) * retriesLeft, max(durations), threadCount);
+    }
+
+    long estimatePackedParallelMillis(Collection<Long> durations, int retriesLeft) {
+        int packSize = Math.max(1, threadCount / Math.max(1, retriesLeft));
+        List<Long> longestFirst = durations.stream()
+                .sorted(Comparator.reverseOrder())
+                .collect(toList());
+        long estimate = 0;
+        // the first test of every pack is its longest one
+        for (int i = 0; i < longestFirst.size(); i += packSize) {
+            estimate += roundOverheadMillis + longestFirst.get(i);
+        }
+        return estimate;
+    }
+
+    long getRoundOverheadMillis() {
+        return roundOverheadMillis;
+    }
+
+    private static long estimateRun(double sum, long max, int threadCount) {
+        return Math.max(Math.round(sum / threadCount), max);
+    }
+
+    private static double sum(Collection<Long> durations) {
+        return durations.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static long max(Collection<Long> durations) {
+        return durations.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Wall-clock budget of retries.
+ *
+ * <p>
+ * New attempts are not scheduled, when the budget is used, and tests, whose expected duration doesn't fit into
+ * the remaining time, are not retried. Expected durations are taken from the previous run, tests with unknown durations always fit.
+ * The running attempts are not interrupted.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class RetryDeadline {
+
+    private static final LongSupplier SYSTEM_CLOCK_MILLIS = () -> System.nanoTime() / 1_000_000;
+
+    private final long deadlineMillis;
+    private final LongSupplier clockMillis;
+
+    private RetryDeadline(long deadlineMillis, LongSupplier clockMillis) {
+        this.deadlineMillis = deadlineMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    static RetryDeadline unlimited() {
+        return start(0);
+    }
+
+    /**
+     * @param budgetMillis budget from now, 0 or less means the deadline is unlimited
+     */
+    static RetryDeadline start(long budgetMillis) {
+        return start(budgetMillis, SYSTEM_CLOCK_MILLIS);
+    }
+
+    static RetryDeadline start(long budgetMillis, LongSupplier clockMillis) {
+        if (budgetMillis <= 0) {
+            return new RetryDeadline(Long.MAX_VALUE, clockMillis);
+        }
+        return new RetryDeadline(clockMillis.getAsLong() + budgetMillis, clockMillis);
+    }
+
+    /**
+     * @param budgetMillis budget of a round, 0 or less means the round is limited only by this deadline
+     * @return the earliest of this deadline and the deadline of the round
+     */
+    RetryDeadline startRound(long budgetMillis) {
+        RetryDeadline roundDeadline = start(budgetMillis, clockMillis);
+        return roundDeadline.deadlineMillis < deadlineMillis ? roundDeadline : this;
+    }
+
+    boolean isLimited() {
+        return deadlineMillis != Long.MAX_VALUE;
+    }
+
+    boolean isExpired() {
+        return getRemainingMillis() <= 0;
+    }
+
+    long getRemainingMillis() {
+        return isLimited() ? deadlineMillis - clockMillis.getAsLong() : Long.MAX_VALUE;
+    }
+
+    boolean fits(long expectedMillis) {
+        return expectedMillis <= getRemainingMillis();
+    }
+
+    /**
+     * Selects tests for one execution, where tests are executed one after another.
+     * The shortest tests are preferred, so as many tests as possible are retried.
+     *
+     * @return tests, whose total expected duration fits into the remaining time, the order is kept
+     */
+    List<TestIdentifier> selectFittingSequentially(List<TestIdentifier> testIdentifiers, Map<TestIdentifier, Integer> durations) {
+        if (!isLimited()) {
+            return testIdentifiers;
+        }
+        long remainingMillis = getRemainingMillis();
+        Set<TestIdentifier> selected = new HashSet<>();
+        List<TestIdentifier> shortestFirst = testIdentifiers.stream()
+                .sorted(Comparator.comparingLong(testIdentifier -> getDuration(testIdentifier, durations)))
+                .collect(toList());
+        for (TestIdentifier testIdentifier : shortestFirst) {
+            remainingMillis -= getDuration(testIdentifier, durations);
+            if (remainingMillis < 0) {
+                break;
+            }
+            selected.add(testIdentifier);
+        }
+        return testIdentifiers.stream()
+                .filter(selected::contains)
+                .collect(toList());
+    }
+
+    /**
+     * Selects tests for attempts, which are executed at the same time.
+     *
+     * @return tests, whose expected duration fits into the remaining time, the order is kept
+     */
+    List<TestIdentifier> selectFittingInParallel(Collection<TestIdentifier> testIdentifiers, Map<TestIdentifier, Integer> durations) {
+        return testIdentifiers.stream()
+                .filter(testIdentifier -> fits(getDuration(testIdentifier, durations)))
+                .collect(toList());
+    }
+
+    private static long getDuration(TestIdentifier testIdentifier, Map<TestIdentifier, Integer> durations) {
+        return durations.getOrDefault(testIdentifier, 0);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.wrike.qaa.runner.provider;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR events of the retry lifecycle, so retry packs can be correlated with GC pauses, lock contention and CPU load in recordings.
+ *
+ * <p>
+ * Events are instantiated every time, but their fields are filled and committed only if they are enabled in a recording,
+ * so a run without JFR pays only for a few allocations, which are usually eliminated by JIT.
+ * The thread of an event is recorded by JFR itself. Stack traces are not recorded, they are the same for all events of a type.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class RetryFlightEvents {
+
+    private static final String CATEGORY = "Parallel Retries Runner";
+
+    static final String SEQUENTIAL_MODE = "sequential";
+    static final String PARALLEL_MODE = "parallel";
+    static final String STOPPED_MODE = "stopped";
+
+    private RetryFlightEvents() {
+    }
+
+    /**
+     * @param reason name of the {@link EventListener} callback, which is notified about the same decision
+     */
+    static void commitModeDecision(String mode, String reason, int failedTestsCount, int retriesLeft) {
+        RetryModeDecision event = new RetryModeDecision();
+        if (event.shouldCommit()) {
+            event.mode = mode;
+            event.reason = reason;
+            event.failedTestsCount = failedTestsCount;
+            event.retriesLeft = retriesLeft;
+            event.commit();
+        }
+    }
+
+    static void commitRound(RetryRound event, int failedTestsCount, int retriesLeft) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.failedTestsCount = failedTestsCount;
+            event.retriesLeft = retriesLeft;
+            event.commit();
+        }
+    }
+
+    static void commitPack(ParallelPack event, int testsCount, int attemptsCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.testsCount = testsCount;
+            event.attemptsCount = attemptsCount;
+            event.commit();
+        }
+    }
+
+    static void commitAttempt(TestAttempt event, String uniqueId, int attemptNumber, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.uniqueId = uniqueId;
+            event.attemptNumber = attemptNumber;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    @Name("com.wrike.qaa.runner.RetryModeDecision")
+    @Label("Retry Mode Decision")
+    @Description("Mode of the next retry round and the reason, why it's chosen")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class RetryModeDecision extends Event {
+
+        @Label("Mode")
+        String mode;
+
+        @Label("Reason")
+        String reason;
+
+        @Label("Failed Tests")
+        int failedTestsCount;
+
+        @Label("Retries Left")
+        int retriesLeft;
+
+    }
+
+    @Name("com.wrike.qaa.runner.RetryRound")
+    @Label("Retry Round")
+    @Description("One sequential retry or the whole parallel retry")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class RetryRound extends Event {
+
+        @Label("Failed Tests")
+        int failedTestsCount;
+
+        @Label("Retries Left")
+        int retriesLeft;
+
+    }
+
+    @Name("com.wrike.qaa.runner.ParallelPack")
+    @Label("Parallel Pack")
+    @Description("All attempts of one pack, including the wait for the slowest of them")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ParallelPack extends Event {
+
+        @Label("Tests")
+        int testsCount;
+
+        @Label("Attempts")
+        int attemptsCount;
+
+    }
+
+    @Name("com.wrike.qaa.runner.TestAttempt")
+    @Label("Test Attempt")
+    @Description("One execution of a test, the initial run is the attempt 0")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class TestAttempt extends Event {
+
+        @Label("Unique Id")
+        String uniqueId;
+
+        @Label("Attempt Number")
+        int attemptNumber;
+
+        @Label("Outcome")
+        String outcome;
+
+    }
+
+}
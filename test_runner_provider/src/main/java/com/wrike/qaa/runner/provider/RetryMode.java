@@ -8,12 +8,21 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
+ * <ul>
+ *     <li>{@link #SEQUENTIAL} — failed tests are retried once per round until they pass or retries are over</li>
+ *     <li>{@link #PARALLEL} — all remaining attempts of a failed test are started at the same time</li>
+ *     <li>{@link #HEDGED} — like {@link #PARALLEL}, but the other attempts of a test are cancelled as soon as one of them passed, the cancellation is best effort</li>
+ *     <li>{@link #ADAPTIVE} — {@link #SEQUENTIAL} or {@link #PARALLEL} is chosen before each round by {@link RetryCostModel}</li>
+ * </ul>
+ *
  * @author daniil.shylko on 21.11.2022
  */
 enum RetryMode {
 
     SEQUENTIAL("sequential"),
-    PARALLEL("parallel");
+    PARALLEL("parallel"),
+    HEDGED("hedged"),
+    ADAPTIVE("adaptive");
 
     RetryMode(String retryModeString) {
         this.retryModeString = retryModeString;
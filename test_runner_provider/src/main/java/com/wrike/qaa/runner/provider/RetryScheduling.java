@@ -0,0 +1,49 @@
+package com.wrike.qaa.runner.provider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how parallel retry attempts are distributed between threads.
+ *
+ * <ul>
+ *     <li>{@link #PACKS} — failed tests are split into packs, the next pack starts when all attempts of the previous one are finished</li>
+ *     <li>{@link #CONTINUOUS} — every attempt takes a free slot as soon as any other attempt is finished</li>
+ *     <li>{@link #MIXED} — if all attempts don't fit into threads, each round gives as many tests as fit all their attempts,
+ *     and the other tests get fewer attempts in the remaining threads, see {@link MixedRetryPlanner}</li>
+ * </ul>
+ *
+ * @author agent on 18.10.2026
+ */
+enum RetryScheduling {
+
+    PACKS("packs"),
+    CONTINUOUS("continuous"),
+    MIXED("mixed");
+
+    RetryScheduling(String retrySchedulingString) {
+        this.retrySchedulingString = retrySchedulingString;
+    }
+
+    private final String retrySchedulingString;
+
+    public String getRetrySchedulingString() {
+        return retrySchedulingString;
+    }
+
+    private static final Map<String, RetryScheduling> retrySchedulingNamesToEnumValues = Arrays.stream(RetryScheduling.values())
+            .collect(Collectors.toMap(RetryScheduling::getRetrySchedulingString, Function.identity()));
+
+    public static Optional<RetryScheduling> getRetrySchedulingByName(String retrySchedulingName) {
+        return Optional.ofNullable(retrySchedulingNamesToEnumValues.get(retrySchedulingName));
+    }
+
+    public static Set<String> getAvailableRetrySchedulings() {
+        return retrySchedulingNamesToEnumValues.keySet();
+    }
+
+}
@@ -43,6 +43,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -59,18 +60,35 @@ import static org.junit.platform.engine.TestExecutionResult.Status.FAILED;
  */
 final class RunListenerAdapter implements TestExecutionListener, TestOutputReceiver<OutputReportEntry>, RunModeSetter {
 
+    static final String CANCELLED_ATTEMPT_REASON = "The attempt is cancelled, because another attempt of the test passed";
+
     private static final Pattern COMMA_PATTERN = Pattern.compile(",");
 
     private final ClassMethodIndexer classMethodIndexer = new ClassMethodIndexer();
     private final ConcurrentMap<TestIdentifier, Long> testStartTime = new ConcurrentHashMap<>();
     private final ConcurrentMap<TestIdentifier, TestExecutionResult> failures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TestIdentifier, Integer> elapsedTimes = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, TestIdentifier> runningTestIdentifiersByUniqueId = new ConcurrentHashMap<>();
+    /**
+     * It's filled only if {@link RetryFlightEvents.TestAttempt} is enabled in a JFR recording
+     */
+    private final ConcurrentMap<TestIdentifier, RetryFlightEvents.TestAttempt> attemptEvents = new ConcurrentHashMap<>();
     private final TestReportListener<TestOutputReportEntry> runListener;
+    private final TestNameCache testNameCache;
     private volatile TestPlan testPlan;
     private volatile RunMode runMode;
+    private volatile int attemptNumber;
+    private volatile BooleanSupplier cancelled = () -> false;
+    private volatile long testPlanStartTime;
+    private volatile long testPlanElapsedTime;
 
     RunListenerAdapter(TestReportListener<TestOutputReportEntry> runListener) {
+        this(runListener, new TestNameCache());
+    }
+
+    RunListenerAdapter(TestReportListener<TestOutputReportEntry> runListener, TestNameCache testNameCache) {
         this.runListener = runListener;
+        this.testNameCache = testNameCache;
     }
 
     @Override
@@ -78,15 +96,39 @@ final class RunListenerAdapter implements TestExecutionListener, TestOutputRecei
         this.runMode = runMode;
     }
 
+    /**
+     * @param attemptNumber number of the attempt, which is executed by this adapter, 0 is the initial run
+     */
+    void setAttemptNumber(int attemptNumber) {
+        this.attemptNumber = attemptNumber;
+    }
+
+    int getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    /**
+     * Failures of a cancelled attempt are caused by its interruption, so they are reported as skipped and aren't retried.
+     * Passed tests of a cancelled attempt are reported as usual.
+     *
+     * @param cancelled whether the attempt, which is executed by this adapter, is cancelled
+     */
+    void setCancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
     @Override
     public void testPlanExecutionStarted(TestPlan testPlan) {
         this.testPlan = testPlan;
+        testPlanStartTime = System.currentTimeMillis();
     }
 
     @Override
     public void testPlanExecutionFinished(TestPlan testPlan) {
         this.testPlan = null;
+        testPlanElapsedTime += System.currentTimeMillis() - testPlanStartTime;
         testStartTime.clear();
+        attemptEvents.clear();
     }
 
     @Override
@@ -99,6 +141,11 @@ final class RunListenerAdapter implements TestExecutionListener, TestOutputRecei
             runListener.testSetStarting(createReportEntry(testIdentifier));
         } else if (testIdentifier.isTest()) {
             testStartTime.put(testIdentifier, System.currentTimeMillis());
+            RetryFlightEvents.TestAttempt attemptEvent = new RetryFlightEvents.TestAttempt();
+            if (attemptEvent.isEnabled()) {
+                attemptEvent.begin();
+                attemptEvents.put(testIdentifier, attemptEvent);
+            }
             runListener.testStarting(createReportEntry(testIdentifier));
         }
     }
@@ -117,8 +164,24 @@ final class RunListenerAdapter implements TestExecutionListener, TestOutputRecei
 
         boolean isRootContainer = testIdentifier.isContainer() && !testIdentifier.getParentId().isPresent();
 
-        if (failed || isClass || isTest) {
+        if (isTest) {
+            Optional.ofNullable(attemptEvents.remove(testIdentifier))
+                    .ifPresent(attemptEvent -> RetryFlightEvents.commitAttempt(attemptEvent, testIdentifier.getUniqueId(),
+                            attemptNumber, testExecutionResult.getStatus().name()));
+        }
+
+        if (failed && cancelled.getAsBoolean()) {
+            Integer elapsed = computeElapsedTime(testIdentifier);
+            if (isTest) {
+                runListener.testSkipped(createReportEntry(testIdentifier, null, emptyMap(), CANCELLED_ATTEMPT_REASON, elapsed));
+            } else if (isClass || isRootContainer) {
+                runListener.testSetCompleted(createReportEntry(testIdentifier, null, systemProps(), null, elapsed));
+            }
+        } else if (failed || isClass || isTest) {
             Integer elapsed = computeElapsedTime(testIdentifier);
+            if (elapsed != null) {
+                elapsedTimes.put(testIdentifier, elapsed);
+            }
             switch (testExecutionResult.getStatus()) {
                 case ABORTED:
                     if (isTest) {
@@ -252,9 +315,13 @@ final class RunListenerAdapter implements TestExecutionListener, TestOutputRecei
      * </ul>
      *
      * @param testIdentifier a class or method
-     * @return 4 elements string array
+     * @return 4 elements string array, it's shared by all adapters with the same {@link TestNameCache}
      */
     private String[] toClassMethodName(TestIdentifier testIdentifier) {
+        return testNameCache.get(testIdentifier, this::resolveClassMethodName);
+    }
+
+    private String[] resolveClassMethodName(TestIdentifier testIdentifier) {
         Optional<TestSource> testSource = testIdentifier.getSource();
         String display = testIdentifier.getDisplayName();
 
@@ -318,12 +385,27 @@ final class RunListenerAdapter implements TestExecutionListener, TestOutputRecei
         return failures;
     }
 
+    /**
+     * @return elapsed times in milliseconds of finished tests and classes
+     */
+    Map<TestIdentifier, Integer> getElapsedTimes() {
+        return elapsedTimes;
+    }
+
+    /**
+     * @return wall-clock time in milliseconds of all test plan executions
+     */
+    long getTestPlanElapsedTime() {
+        return testPlanElapsedTime;
+    }
+
     boolean hasFailingTests() {
         return !getFailures().isEmpty();
     }
 
     void reset() {
         getFailures().clear();
+        elapsedTimes.clear();
         testPlan = null;
     }
 
@@ -0,0 +1,204 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Occupancy of {@link EnvironmentProvider#getThreadCount()} slots during a parallel retry.
+ *
+ * <p>
+ * A slot is busy while a test is executed, tests are counted by {@link #getTestListener()} of every parallel attempt.
+ * The time of every count of busy slots is accumulated, so it's known how long all slots were busy, and how long the most of them were idle.
+ * Attempts of a pack reserve a slot per test until the pack is joined. Slots of an attempt, which is finished earlier than the pack,
+ * are idle because of the barrier, it's counted separately by {@link Pack}. Continuous attempts don't have barriers.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+public final class SlotUtilization {
+
+    private final int slotCount;
+    private final LongSupplier clockNanos;
+    private final long startNanos;
+    /**
+     * Time with {@code i} busy slots, more busy slots than {@link #slotCount} are counted as {@link #slotCount}
+     */
+    private final long[] busySlotsNanos;
+    private final LongAdder barrierIdleSlotNanos = new LongAdder();
+    private final TestExecutionListener testListener = new TestListener();
+    private long lastChangeNanos;
+    private long busySlotNanos;
+    private int busySlots;
+    private int peakBusySlots;
+    private long finishNanos = -1;
+
+    SlotUtilization(int slotCount) {
+        this(slotCount, System::nanoTime);
+    }
+
+    SlotUtilization(int slotCount, LongSupplier clockNanos) {
+        this.slotCount = slotCount;
+        this.clockNanos = clockNanos;
+        this.busySlotsNanos = new long[slotCount + 1];
+        this.startNanos = clockNanos.getAsLong();
+        this.lastChangeNanos = startNanos;
+    }
+
+    /**
+     * @return listener, which counts busy slots by started and finished tests
+     */
+    TestExecutionListener getTestListener() {
+        return testListener;
+    }
+
+    Pack startPack() {
+        return new Pack();
+    }
+
+    synchronized void testStarted() {
+        accumulate(clockNanos.getAsLong());
+        busySlots++;
+        peakBusySlots = Math.max(peakBusySlots, busySlots);
+    }
+
+    synchronized void testFinished() {
+        accumulate(clockNanos.getAsLong());
+        busySlots--;
+    }
+
+    /**
+     * Stops the accounting, tests finished after it are not counted
+     */
+    synchronized void finish() {
+        if (finishNanos < 0) {
+            finishNanos = clockNanos.getAsLong();
+            accumulate(finishNanos);
+        }
+    }
+
+    private void accumulate(long nowNanos) {
+        if (finishNanos >= 0) {
+            return;
+        }
+        long elapsedNanos = nowNanos - lastChangeNanos;
+        busySlotsNanos[Math.max(0, Math.min(busySlots, slotCount))] += elapsedNanos;
+        busySlotNanos += Math.max(0, busySlots) * elapsedNanos;
+        lastChangeNanos = nowNanos;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public synchronized long getElapsedNanos() {
+        return (finishNanos < 0 ? clockNanos.getAsLong() : finishNanos) - startNanos;
+    }
+
+    public synchronized long getBusySlotNanos() {
+        return busySlotNanos;
+    }
+
+    public long getIdleSlotNanos() {
+        return Math.max(0, slotCount * getElapsedNanos() - getBusySlotNanos());
+    }
+
+    /**
+     * @return part of idle slot time, when slots were reserved by finished attempts of a pack, which wasn't joined yet
+     */
+    public long getBarrierIdleSlotNanos() {
+        return barrierIdleSlotNanos.sum();
+    }
+
+    public synchronized int getPeakBusySlots() {
+        return peakBusySlots;
+    }
+
+    /**
+     * @param busySlots count of busy slots from 0 to {@link #getSlotCount()}
+     * @return how long exactly this count of slots was busy
+     */
+    public synchronized long getTimeWithBusySlotsNanos(int busySlots) {
+        return busySlotsNanos[busySlots];
+    }
+
+    /**
+     * @return busy slot time divided by the capacity of all slots, from 0 to 1
+     */
+    public double getUtilization() {
+        long capacityNanos = slotCount * getElapsedNanos();
+        return capacityNanos <= 0 ? 0 : Math.min(1, (double) getBusySlotNanos() / capacityNanos);
+    }
+
+    String toSummary() {
+        String busySlotsSeconds;
+        synchronized (this) {
+            busySlotsSeconds = Arrays.stream(busySlotsNanos)
+                    .mapToObj(nanos -> String.format(Locale.ROOT, "%.1f", toSeconds(nanos)))
+                    .collect(joining(", ", "[", "]"));
+        }
+        return String.format(Locale.ROOT,
+                "Parallel retries used %.1f%% of %d slots for %.1f s: %.1f busy and %.1f idle slot-seconds, "
+                        + "%.1f idle slot-seconds waiting on pack joins, peak %d busy slots, seconds by busy slots %s",
+                100 * getUtilization(), slotCount, toSeconds(getElapsedNanos()), toSeconds(getBusySlotNanos()),
+                toSeconds(getIdleSlotNanos()), toSeconds(getBarrierIdleSlotNanos()), getPeakBusySlots(), busySlotsSeconds);
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    /**
+     * Attempts of a pack, which wait for each other
+     */
+    final class Pack {
+
+        private final LongAdder finishedSlots = new LongAdder();
+        private final LongAdder finishedSlotNanos = new LongAdder();
+
+        private Pack() {
+        }
+
+        /**
+         * @param slots count of slots reserved by the attempt, it's the count of its tests
+         */
+        void attemptFinished(int slots) {
+            finishedSlots.add(slots);
+            finishedSlotNanos.add(slots * (clockNanos.getAsLong() - startNanos));
+        }
+
+        /**
+         * Slots of every finished attempt were idle since its finish
+         */
+        void join() {
+            barrierIdleSlotNanos.add(Math.max(0, finishedSlots.sum() * (clockNanos.getAsLong() - startNanos) - finishedSlotNanos.sum()));
+        }
+
+    }
+
+    private class TestListener implements TestExecutionListener {
+
+        @Override
+        public void executionStarted(TestIdentifier testIdentifier) {
+            if (testIdentifier.isTest()) {
+                testStarted();
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+            if (testIdentifier.isTest()) {
+                testFinished();
+            }
+        }
+
+    }
+
+}
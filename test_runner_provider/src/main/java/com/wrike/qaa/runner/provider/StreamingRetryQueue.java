@@ -0,0 +1,145 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.removeDescendants;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Retries failures of the initial run while the other tests are still executed.
+ *
+ * <p>
+ * Failures are collected until their top-level container, usually a class, is finished.
+ * So a test isn't retried while its class fixtures are still in use, and a failed class is retried instead of its failed methods.
+ * Then the failures are retried by the executor, whose threads are the slot budget of streaming retries.
+ * Failures, which are not under a top-level container, are released when the test plan is finished.
+ * Busy streaming slots are measured by {@link SlotUtilization}, from the creation of the queue until the end of the initial run.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class StreamingRetryQueue implements TestExecutionListener {
+
+    private static final Logger LOG = LogManager.getLogger(StreamingRetryQueue.class);
+
+    private final ExecutorService executor;
+    private final SlotUtilization slotUtilization;
+    private final List<ExecutorService> attemptExecutors;
+    private final Predicate<TestIdentifier> retrier;
+    private final ConcurrentMap<UniqueId, TestIdentifier> pendingFailures = new ConcurrentHashMap<>();
+    private final Set<TestIdentifier> retriedFailures = ConcurrentHashMap.newKeySet();
+    private final List<Future<?>> retries = new ArrayList<>();
+    private volatile TestPlan testPlan;
+
+    /**
+     * @param executor executor with threads for streaming retries
+     * @param slotUtilization occupancy of streaming slots, it's counted by attempts of the retrier
+     * @param attemptExecutors executors of attempts, which are started by the retrier, they are shut down with the queue
+     * @param retrier retries a failed test until it passed or its retries are over, returns false if the test wasn't retried
+     */
+    StreamingRetryQueue(ExecutorService executor, SlotUtilization slotUtilization, List<ExecutorService> attemptExecutors,
+                        Predicate<TestIdentifier> retrier) {
+        this.executor = executor;
+        this.slotUtilization = slotUtilization;
+        this.attemptExecutors = List.copyOf(attemptExecutors);
+        this.retrier = retrier;
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        this.testPlan = testPlan;
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        release(pendingFailures.keySet().stream().collect(toList()));
+        this.testPlan = null;
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        UniqueId uniqueId = UniqueId.parse(testIdentifier.getUniqueId());
+        if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+            pendingFailures.put(uniqueId, testIdentifier);
+        }
+        if (isTopLevelContainer(testIdentifier)) {
+            release(pendingFailures.keySet().stream()
+                    .filter(failure -> failure.hasPrefix(uniqueId))
+                    .collect(toList()));
+        }
+    }
+
+    /**
+     * Waits until all released failures are retried
+     *
+     * @return retried failures, they shouldn't be retried again
+     */
+    Set<TestIdentifier> awaitRetries() {
+        List<Future<?>> startedRetries;
+        synchronized (retries) {
+            startedRetries = new ArrayList<>(retries);
+        }
+        try {
+            for (Future<?> retry : startedRetries) {
+                retry.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test execution was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Streaming retry failed!", e.getCause());
+        }
+        LOG.info("{} failures were retried while the initial run was executed", retriedFailures.size());
+        return retriedFailures;
+    }
+
+    void shutdownNow() {
+        executor.shutdownNow();
+        attemptExecutors.forEach(ExecutorService::shutdownNow);
+    }
+
+    SlotUtilization getSlotUtilization() {
+        return slotUtilization;
+    }
+
+    private boolean isTopLevelContainer(TestIdentifier testIdentifier) {
+        TestPlan currentTestPlan = testPlan;
+        return testIdentifier.isContainer()
+                && currentTestPlan != null
+                && currentTestPlan.getParent(testIdentifier)
+                .map(parent -> !parent.getParentId().isPresent())
+                .orElse(false);
+    }
+
+    private void release(List<UniqueId> failures) {
+        List<TestIdentifier> failuresToRetry = removeDescendants(failures.stream()
+                .map(pendingFailures::remove)
+                .filter(Objects::nonNull)
+                .collect(toList()));
+        synchronized (retries) {
+            failuresToRetry.forEach(failure -> retries.add(executor.submit(() -> {
+                if (retrier.test(failure)) {
+                    retriedFailures.add(failure);
+                }
+            })));
+        }
+    }
+
+}
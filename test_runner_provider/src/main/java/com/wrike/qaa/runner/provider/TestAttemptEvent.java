@@ -0,0 +1,89 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.util.Optional;
+
+/**
+ * Attempt of one test, which is notified to {@link EventListener#attemptScheduled(TestAttemptEvent)},
+ * {@link EventListener#attemptStarted(TestAttemptEvent)} and {@link EventListener#attemptFinished(TestAttemptEvent)}.
+ *
+ * @author agent on 18.10.2026
+ */
+public final class TestAttemptEvent {
+
+    private final String uniqueId;
+    private final int attemptNumber;
+    private final int round;
+    private final String threadName;
+    private final long queueingDelayMillis;
+    private final long durationMillis;
+    private final TestExecutionResult.Status outcome;
+
+    TestAttemptEvent(String uniqueId, int attemptNumber, int round, String threadName,
+                     long queueingDelayMillis, long durationMillis, TestExecutionResult.Status outcome) {
+        this.uniqueId = uniqueId;
+        this.attemptNumber = attemptNumber;
+        this.round = round;
+        this.threadName = threadName;
+        this.queueingDelayMillis = queueingDelayMillis;
+        this.durationMillis = durationMillis;
+        this.outcome = outcome;
+    }
+
+    /**
+     * @return unique id of the test, a scheduled attempt of a failed container has the id of the container
+     */
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    /**
+     * @return number of the attempt, the first retry is 1. Parallel attempts of one round have different numbers
+     */
+    public int getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    /**
+     * @return number of the retry round, the first retry round is 1. Every round of the mixed scheduling has its own number
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return thread, which scheduled, started or finished the attempt
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return time since the attempt was scheduled till the test was started, it's 0 for the scheduled attempt
+     */
+    public long getQueueingDelayMillis() {
+        return queueingDelayMillis;
+    }
+
+    /**
+     * @return duration of the test, it's 0 until the attempt is finished
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return status of the finished attempt or empty, if it's not finished yet
+     */
+    public Optional<TestExecutionResult.Status> getOutcome() {
+        return Optional.ofNullable(outcome);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TestAttemptEvent{uniqueId=%s, attemptNumber=%d, round=%d, threadName=%s, queueingDelayMillis=%d, durationMillis=%d, outcome=%s}",
+                uniqueId, attemptNumber, round, threadName, queueingDelayMillis, durationMillis, outcome);
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.wrike.qaa.runner.provider;
+
+import java.util.Optional;
+
+/**
+ * Flakiness history of one test, see {@link FlakinessHistoryStore}
+ *
+ * @author agent on 18.10.2026
+ */
+final class TestHistory {
+
+    static final int NEVER_PASSED = -1;
+
+    private static final String SEPARATOR = "\t";
+    private static final int FIELDS_COUNT = 6;
+
+    private final int runs;
+    private final int executions;
+    private final int failures;
+    private final int maxAttemptsToPass;
+    private final long durationMillis;
+
+    /**
+     * @param runs count of runs, where the test was executed
+     * @param executions count of all attempts of the test
+     * @param failures count of failed attempts of the test
+     * @param maxAttemptsToPass the max number of the first passed attempt in a run, where 0 is the initial run,
+     *                          or {@link #NEVER_PASSED}
+     * @param durationMillis duration of the last attempt
+     */
+    TestHistory(int runs, int executions, int failures, int maxAttemptsToPass, long durationMillis) {
+        this.runs = runs;
+        this.executions = executions;
+        this.failures = failures;
+        this.maxAttemptsToPass = maxAttemptsToPass;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @param newer history, which was recorded after this one
+     * @return history of both runs
+     */
+    TestHistory merge(TestHistory newer) {
+        return new TestHistory(
+                runs + newer.runs,
+                executions + newer.executions,
+                failures + newer.failures,
+                Math.max(maxAttemptsToPass, newer.maxAttemptsToPass),
+                newer.durationMillis
+        );
+    }
+
+    /**
+     * A test, which passed on the first retry, needs one attempt, and a test, which needed 3 retries, needs 3 attempts
+     *
+     * @return count of parallel attempts, which are enough to pass the test, or empty if the test never passed on a retry
+     */
+    Optional<Integer> getRecommendedAttempts() {
+        if (maxAttemptsToPass == NEVER_PASSED) {
+            return Optional.empty();
+        }
+        return Optional.of(Math.max(1, maxAttemptsToPass));
+    }
+
+    int getRuns() {
+        return runs;
+    }
+
+    int getExecutions() {
+        return executions;
+    }
+
+    int getFailures() {
+        return failures;
+    }
+
+    int getMaxAttemptsToPass() {
+        return maxAttemptsToPass;
+    }
+
+    long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * The unique id is the last field, so it can contain separators
+     */
+    String toLine(String uniqueId) {
+        return String.join(SEPARATOR,
+                String.valueOf(runs),
+                String.valueOf(executions),
+                String.valueOf(failures),
+                String.valueOf(maxAttemptsToPass),
+                String.valueOf(durationMillis),
+                uniqueId);
+    }
+
+    /**
+     * @return unique id of the test with its history or empty if the line is malformed
+     */
+    static Optional<Entry> parseLine(String line) {
+        String[] fields = line.split(SEPARATOR, FIELDS_COUNT);
+        if (fields.length < FIELDS_COUNT || fields[FIELDS_COUNT - 1].isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            TestHistory history = new TestHistory(
+                    Integer.parseInt(fields[0]),
+                    Integer.parseInt(fields[1]),
+                    Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]),
+                    Long.parseLong(fields[4])
+            );
+            return Optional.of(new Entry(fields[FIELDS_COUNT - 1], history));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    static final class Entry {
+
+        private final String uniqueId;
+        private final TestHistory history;
+
+        Entry(String uniqueId, TestHistory history) {
+            this.uniqueId = uniqueId;
+            this.history = history;
+        }
+
+        String getUniqueId() {
+            return uniqueId;
+        }
+
+        TestHistory getHistory() {
+            return history;
+        }
+    }
+
+}
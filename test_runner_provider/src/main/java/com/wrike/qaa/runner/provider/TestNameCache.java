@@ -0,0 +1,71 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Class and method names of tests resolved by {@link RunListenerAdapter}, by unique ids.
+ *
+ * <p>
+ * Names are resolved for every start and finish event from the whole hierarchy of a test, and they are the same
+ * for all runs of the test. One cache is shared by all adapters of one provider invocation, so names of retried tests are resolved once.
+ * A new cache is created for every invocation, so a reused fork doesn't keep names of all test sets it executed.
+ * Cached arrays are shared, they must not be modified.
+ * </p>
+ *
+ * <p>
+ * {@link #disabled()} resolves names on every call, it's a baseline for benchmarks.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+final class TestNameCache {
+
+    private final ConcurrentMap<String, String[]> namesByUniqueId = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    TestNameCache() {
+        this(true);
+    }
+
+    private TestNameCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return cache which doesn't keep names
+     */
+    static TestNameCache disabled() {
+        return new TestNameCache(false);
+    }
+
+    /**
+     * The resolver can use the cache for parents of the test, so it's not called under a lock of the map
+     *
+     * @param testIdentifier a class or method
+     * @param resolver resolves names, if they aren't cached yet
+     * @return cached names
+     */
+    String[] get(TestIdentifier testIdentifier, Function<TestIdentifier, String[]> resolver) {
+        if (!enabled) {
+            return resolver.apply(testIdentifier);
+        }
+        String[] names = namesByUniqueId.get(testIdentifier.getUniqueId());
+        if (names == null) {
+            names = resolver.apply(testIdentifier);
+            String[] cachedNames = namesByUniqueId.putIfAbsent(testIdentifier.getUniqueId(), names);
+            if (cachedNames != null) {
+                names = cachedNames;
+            }
+        }
+        return names;
+    }
+
+    int size() {
+        return namesByUniqueId.size();
+    }
+
+}
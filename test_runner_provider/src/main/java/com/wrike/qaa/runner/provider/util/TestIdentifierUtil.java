@@ -0,0 +1,74 @@
+package com.wrike.qaa.runner.provider.util;
+
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Util class for selecting tests to retry.
+ *
+ * @author agent on 18.10.2026
+ */
+public final class TestIdentifierUtil {
+
+    private TestIdentifierUtil() {
+    }
+
+    /**
+     * Removes identifiers, which have an ancestor in the same collection.
+     * Such tests are executed together with their ancestor anyway, so selecting them again only makes discovery longer.
+     *
+     * @param identifiers identifiers of failed tests and containers
+     * @return identifiers without descendants of other identifiers, the order is kept
+     */
+    public static List<TestIdentifier> removeDescendants(Collection<TestIdentifier> identifiers) {
+        Set<UniqueId> uniqueIds = identifiers.stream()
+                .map(identifier -> UniqueId.parse(identifier.getUniqueId()))
+                .collect(toSet());
+        return identifiers.stream()
+                .filter(identifier -> !hasAncestorIn(UniqueId.parse(identifier.getUniqueId()), uniqueIds))
+                .collect(toList());
+    }
+
+    private static boolean hasAncestorIn(UniqueId uniqueId, Set<UniqueId> uniqueIds) {
+        UniqueId ancestor = uniqueId;
+        while (ancestor.getSegments().size() > 1) {
+            ancestor = ancestor.removeLastSegment();
+            if (uniqueIds.contains(ancestor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param identifier identifier of a retried test or container
+     * @param failures identifiers of failed tests and containers of an attempt
+     * @return true if the identifier, its descendant or its ancestor failed
+     */
+    public static boolean isFailed(TestIdentifier identifier, Collection<TestIdentifier> failures) {
+        UniqueId uniqueId = UniqueId.parse(identifier.getUniqueId());
+        return failures.stream()
+                .map(failure -> UniqueId.parse(failure.getUniqueId()))
+                .anyMatch(failure -> failure.hasPrefix(uniqueId) || uniqueId.hasPrefix(failure));
+    }
+
+    /**
+     * @param identifier identifier of a failed test or container
+     * @param retried identifiers of retried tests and containers
+     * @return true if the identifier or its ancestor was retried, a failed ancestor of a retried test isn't retried with it
+     */
+    public static boolean isRetriedWith(TestIdentifier identifier, Collection<TestIdentifier> retried) {
+        UniqueId uniqueId = UniqueId.parse(identifier.getUniqueId());
+        return retried.stream()
+                .map(retriedIdentifier -> UniqueId.parse(retriedIdentifier.getUniqueId()))
+                .anyMatch(uniqueId::hasPrefix);
+    }
+
+}
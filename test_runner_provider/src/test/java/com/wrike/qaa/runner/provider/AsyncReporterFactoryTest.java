@@ -0,0 +1,134 @@
+package com.wrike.qaa.runner.provider;
+
+import org.apache.maven.surefire.api.report.ReportEntry;
+import org.apache.maven.surefire.api.report.ReporterFactory;
+import org.apache.maven.surefire.api.report.SimpleReportEntry;
+import org.apache.maven.surefire.api.report.TestOutputReportEntry;
+import org.apache.maven.surefire.api.report.TestReportListener;
+import org.apache.maven.surefire.api.suite.RunResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.wrike.qaa.runner.provider.ProviderMockUtils.runListenerMock;
+import static org.apache.maven.surefire.api.report.RunMode.NORMAL_RUN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class AsyncReporterFactoryTest {
+
+    @Test
+    void checkEventsAreForwardedInOrderByOneThread() {
+        TestReportListener<TestOutputReportEntry> runListener = runListenerMock();
+        Set<String> reportingThreads = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> reportingThreads.add(Thread.currentThread().getName())).when(runListener).testStarting(any());
+        Mockito.doAnswer(invocation -> reportingThreads.add(Thread.currentThread().getName())).when(runListener).testSucceeded(any());
+        ReporterFactory reporterFactory = reporterFactoryMock(runListener);
+        AsyncReporterFactory asyncReporterFactory = new AsyncReporterFactory(reporterFactory, 2);
+
+        List<ReportEntry> entries = IntStream.range(0, 100)
+                .mapToObj(i -> new SimpleReportEntry(NORMAL_RUN, (long) i, "Class", null, "test" + i, null))
+                .collect(Collectors.toList());
+        TestReportListener<TestOutputReportEntry> asyncRunListener = asyncReporterFactory.createTestReportListener();
+        entries.forEach(entry -> {
+            asyncRunListener.testStarting(entry);
+            asyncRunListener.testSucceeded(entry);
+        });
+        asyncReporterFactory.close();
+
+        InOrder inOrder = Mockito.inOrder(runListener, reporterFactory);
+        entries.forEach(entry -> {
+            inOrder.verify(runListener).testStarting(entry);
+            inOrder.verify(runListener).testSucceeded(entry);
+        });
+        inOrder.verify(reporterFactory).close();
+        assertThat(reportingThreads)
+                .as("Check events are forwarded by the writer thread only")
+                .containsExactly("async-report-writer");
+    }
+
+    @Test
+    void checkEventOfInterruptedThreadIsNotLost() {
+        TestReportListener<TestOutputReportEntry> runListener = runListenerMock();
+        AsyncReporterFactory asyncReporterFactory = new AsyncReporterFactory(reporterFactoryMock(runListener), 1);
+        ReportEntry entry = new SimpleReportEntry(NORMAL_RUN, 1L, "Class", null, "test", null);
+
+        Thread.currentThread().interrupt();
+        asyncReporterFactory.createTestReportListener().testFailed(entry);
+
+        assertThat(Thread.interrupted())
+                .as("Check interruption is restored")
+                .isTrue();
+        asyncReporterFactory.close();
+        Mockito.verify(runListener).testFailed(entry);
+    }
+
+    @Test
+    void checkEventsPublishedConcurrentlyWithCloseAreNotLost() throws InterruptedException {
+        TestReportListener<TestOutputReportEntry> runListener = runListenerMock();
+        AtomicInteger forwardedEvents = new AtomicInteger();
+        Mockito.doAnswer(invocation -> forwardedEvents.incrementAndGet()).when(runListener).testSucceeded(any());
+        AsyncReporterFactory asyncReporterFactory = new AsyncReporterFactory(reporterFactoryMock(runListener), 4);
+        ReportEntry entry = new SimpleReportEntry(NORMAL_RUN, 1L, "Class", null, "test", null);
+        CountDownLatch publishingStarted = new CountDownLatch(4);
+
+        List<Thread> publishers = IntStream.range(0, 4)
+                .mapToObj(i -> new Thread(() -> {
+                    TestReportListener<TestOutputReportEntry> asyncRunListener = asyncReporterFactory.createTestReportListener();
+                    publishingStarted.countDown();
+                    IntStream.range(0, 1000).forEach(event -> asyncRunListener.testSucceeded(entry));
+                }))
+                .collect(Collectors.toList());
+        publishers.forEach(Thread::start);
+        publishingStarted.await();
+        asyncReporterFactory.close();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertThat(forwardedEvents.get())
+                .as("Check events published before, during and after closing are forwarded")
+                .isEqualTo(4000);
+    }
+
+    @Test
+    void checkFirstForwardingFailureIsRethrownOnClose() {
+        TestReportListener<TestOutputReportEntry> runListener = runListenerMock();
+        IllegalStateException firstFailure = new IllegalStateException("It's expected exception");
+        IllegalStateException secondFailure = new IllegalStateException("It's expected exception");
+        Mockito.doThrow(firstFailure, secondFailure).doNothing().when(runListener).testFailed(any());
+        ReporterFactory reporterFactory = reporterFactoryMock(runListener);
+        AsyncReporterFactory asyncReporterFactory = new AsyncReporterFactory(reporterFactory, 4);
+        ReportEntry entry = new SimpleReportEntry(NORMAL_RUN, 1L, "Class", null, "test", null);
+
+        TestReportListener<TestOutputReportEntry> asyncRunListener = asyncReporterFactory.createTestReportListener();
+        IntStream.range(0, 3).forEach(i -> asyncRunListener.testFailed(entry));
+
+        assertThatThrownBy(asyncReporterFactory::close)
+                .as("Check the first failure is rethrown with the next ones suppressed")
+                .isSameAs(firstFailure)
+                .hasSuppressedException(secondFailure);
+        Mockito.verify(runListener, Mockito.times(3)).testFailed(entry);
+        Mockito.verify(reporterFactory).close();
+    }
+
+    private static ReporterFactory reporterFactoryMock(TestReportListener<TestOutputReportEntry> runListener) {
+        ReporterFactory reporterFactory = Mockito.mock(ReporterFactory.class);
+        Mockito.when(reporterFactory.createTestReportListener()).thenReturn(runListener);
+        Mockito.when(reporterFactory.close()).thenReturn(RunResult.noTestsRun());
+        return reporterFactory;
+    }
+
+}
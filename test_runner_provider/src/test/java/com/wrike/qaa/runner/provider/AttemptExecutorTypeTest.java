@@ -0,0 +1,49 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import static com.wrike.qaa.runner.provider.AttemptExecutorType.getAttemptExecutorTypeByName;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class AttemptExecutorTypeTest {
+
+    @ParameterizedTest(name = "{displayName} for {0}")
+    @EnumSource(AttemptExecutorType.class)
+    @DisplayName("Check attempt executor type is parsed correctly")
+    void checkAttemptExecutorTypeIsParsedCorrectly(AttemptExecutorType attemptExecutorType) {
+        assertThat(getAttemptExecutorTypeByName(attemptExecutorType.getAttemptExecutorTypeString()))
+                .as("Check attempt executor type %s is parsed from string", attemptExecutorType)
+                .contains(attemptExecutorType);
+    }
+
+    @Test
+    void checkAttemptExecutorTypeForWrongString() {
+        assertThat(getAttemptExecutorTypeByName("wrong value"))
+                .as("Check wrong attempt executor type is not parsed")
+                .isEmpty();
+    }
+
+    @ParameterizedTest(name = "{displayName} for {0}")
+    @EnumSource(AttemptExecutorType.class)
+    @DisplayName("Check executor runs attempts on any JDK")
+    void checkExecutorRunsAttempts(AttemptExecutorType attemptExecutorType) throws ExecutionException, InterruptedException {
+        ExecutorService executor = attemptExecutorType.create(2);
+        try {
+            assertThat(executor.submit(() -> true).get())
+                    .as("Check %s executor runs an attempt", attemptExecutorType)
+                    .isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
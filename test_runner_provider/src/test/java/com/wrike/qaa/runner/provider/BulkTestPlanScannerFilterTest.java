@@ -0,0 +1,82 @@
+package com.wrike.qaa.runner.provider;
+
+import com.wrike.qaa.runner.provider.dummy.ProviderDummy2Test;
+import com.wrike.qaa.runner.provider.dummy.ProviderDummyTest;
+import com.wrike.qaa.runner.provider.dummy.ProviderNestedDummyTest;
+import com.wrike.qaa.runner.provider.dummy.ProviderRetryDummyTest;
+import org.apache.maven.surefire.api.util.ScanResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class BulkTestPlanScannerFilterTest {
+
+    private static final List<Class<?>> CANDIDATES = List.of(
+            ProviderDummyTest.class,
+            ProviderDummy2Test.class,
+            ProviderRetryDummyTest.class,
+            ProviderNestedDummyTest.class,
+            ProviderNestedDummyTest.NestedWithTest.class,
+            ProviderNestedDummyTest.NestedWithTestFactory.class,
+            ProviderNestedDummyTest.NestedWithoutTests.class,
+            ProviderMockUtils.class,
+            TestResults.class,
+            String.class
+    );
+
+    private final Launcher launcher = LauncherFactory.create();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 100})
+    void checkBulkFilterAcceptsTheSameClassesAsPerClassFilter(int batchSize) {
+        checkBulkFilterAcceptsTheSameClassesAsPerClassFilter(batchSize, new Filter<?>[0]);
+    }
+
+    @Test
+    void checkBulkFilterAcceptsTheSameClassesAsPerClassFilterWithTagFilter() {
+        checkBulkFilterAcceptsTheSameClassesAsPerClassFilter(2, new Filter<?>[]{TagFilter.includeTags("unknown")});
+    }
+
+    @Test
+    void checkBatchSizeShouldBePositive() {
+        assertThatThrownBy(() -> new BulkTestPlanScannerFilter(launcher, new Filter<?>[0], scanResultMock(),
+                getClass().getClassLoader(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void checkBulkFilterAcceptsTheSameClassesAsPerClassFilter(int batchSize, Filter<?>[] filters) {
+        TestPlanScannerFilter perClassFilter = new TestPlanScannerFilter(launcher, filters);
+        BulkTestPlanScannerFilter bulkFilter = new BulkTestPlanScannerFilter(launcher, filters, scanResultMock(),
+                getClass().getClassLoader(), batchSize);
+
+        List<Class<?>> expected = CANDIDATES.stream().filter(perClassFilter::accept).collect(toList());
+        List<Class<?>> actual = CANDIDATES.stream().filter(bulkFilter::accept).collect(toList());
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static ScanResult scanResultMock() {
+        ScanResult scanResult = mock(ScanResult.class);
+        when(scanResult.size()).thenReturn(CANDIDATES.size());
+        for (int i = 0; i < CANDIDATES.size(); i++) {
+            when(scanResult.getClassName(i)).thenReturn(CANDIDATES.get(i).getName());
+        }
+        return scanResult;
+    }
+
+}
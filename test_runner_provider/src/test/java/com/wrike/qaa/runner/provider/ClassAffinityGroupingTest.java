@@ -0,0 +1,85 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class ClassAffinityGroupingTest {
+
+    private static final UniqueId FIRST_CLASS = UniqueId.forEngine("engine").append("class", "First");
+    private static final UniqueId SECOND_CLASS = UniqueId.forEngine("engine").append("class", "Second");
+
+    private static final TestIdentifier FIRST_CLASS_TEST = identifier(FIRST_CLASS.append("method", "first"));
+    private static final TestIdentifier FIRST_CLASS_NESTED_TEST = identifier(FIRST_CLASS.append("nested-class", "Nested").append("method", "nested"));
+    private static final TestIdentifier FIRST_CLASS_OTHER_TEST = identifier(FIRST_CLASS.append("method", "other"));
+    private static final TestIdentifier FIRST_CLASS_OTHER_NESTED_TEST = identifier(FIRST_CLASS.append("nested-class", "Nested").append("method", "otherNested"));
+    private static final TestIdentifier SECOND_CLASS_TEST = identifier(SECOND_CLASS.append("method", "second"));
+
+    @Test
+    void checkTestsOfTheSameClassAreGroupedTogether() {
+        List<List<TestIdentifier>> groups = ClassAffinityGrouping.group(
+                List.of(FIRST_CLASS_TEST, SECOND_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST), 3);
+
+        assertThat(groups)
+                .as("Check tests of nested classes are grouped with their top-level class and the order is kept")
+                .containsExactly(List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST), List.of(SECOND_CLASS_TEST));
+        assertThat(ClassAffinityGrouping.countSavedClassSetups(groups, 2))
+                .as("Check two setups of the first class are saved in every attempt")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void checkLargeClassIsSplitByGroupSize() {
+        List<List<TestIdentifier>> groups = ClassAffinityGrouping.group(
+                List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST, SECOND_CLASS_TEST), 2);
+
+        assertThat(groups)
+                .as("Check groups don't exceed the group size")
+                .containsExactly(List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST), List.of(FIRST_CLASS_OTHER_TEST), List.of(SECOND_CLASS_TEST));
+        assertThat(ClassAffinityGrouping.countSavedClassSetups(groups, 1))
+                .as("Check only the setup shared by the first group is saved")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkTestsOfTheSameClassAreKeptInOnePack() {
+        List<List<TestIdentifier>> packs = ClassAffinityGrouping.pack(
+                List.of(FIRST_CLASS_TEST, SECOND_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST), 3);
+
+        assertThat(packs)
+                .as("Check the class isn't split between packs, if it fits into one")
+                .containsExactly(List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST), List.of(SECOND_CLASS_TEST));
+    }
+
+    @Test
+    void checkSmallClassesFillFreeSpaceOfPacks() {
+        List<List<TestIdentifier>> packs = ClassAffinityGrouping.pack(
+                List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_TEST, SECOND_CLASS_TEST), 2);
+
+        assertThat(packs)
+                .as("Check the rest of the large class shares a pack with the next class")
+                .containsExactly(List.of(FIRST_CLASS_TEST, FIRST_CLASS_NESTED_TEST), List.of(FIRST_CLASS_OTHER_TEST, SECOND_CLASS_TEST));
+    }
+
+    @Test
+    void checkSetupsOfNestedClassesAreCounted() {
+        List<List<TestIdentifier>> groups = List.of(List.of(FIRST_CLASS_NESTED_TEST, FIRST_CLASS_OTHER_NESTED_TEST), List.of(SECOND_CLASS_TEST));
+
+        assertThat(ClassAffinityGrouping.countSavedClassSetups(groups, 3))
+                .as("Check setups of both the top-level and the nested class are saved in every attempt")
+                .isEqualTo(6);
+    }
+
+    private static TestIdentifier identifier(UniqueId uniqueId) {
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, uniqueId.getLastSegment().getValue()));
+    }
+
+}
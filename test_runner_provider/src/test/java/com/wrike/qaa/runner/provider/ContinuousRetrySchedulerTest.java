@@ -0,0 +1,164 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class ContinuousRetrySchedulerTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void checkRunningAttemptsCountDoesNotExceedSlotCount() {
+        AtomicInteger runningAttempts = new AtomicInteger();
+        AtomicInteger maxRunningAttempts = new AtomicInteger();
+        AtomicInteger finishedAttempts = new AtomicInteger();
+
+        new ContinuousRetryScheduler(executor, 3).run(attempts(10, 1), attempt -> {
+            maxRunningAttempts.accumulateAndGet(runningAttempts.incrementAndGet(), Math::max);
+            sleep(20);
+            runningAttempts.decrementAndGet();
+            finishedAttempts.incrementAndGet();
+            return false;
+        });
+
+        assertThat(finishedAttempts)
+                .as("Check all attempts were finished")
+                .hasValue(10);
+        assertThat(maxRunningAttempts)
+                .as("Check running attempts count does not exceed slot count")
+                .hasValueLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void checkSchedulersWithSharedSlotsDoNotExceedSlotCountTogether() throws Exception {
+        AtomicInteger runningAttempts = new AtomicInteger();
+        AtomicInteger maxRunningAttempts = new AtomicInteger();
+        ContinuousRetryScheduler scheduler = new ContinuousRetryScheduler(executor, new Semaphore(2), 2, false);
+
+        List<Future<?>> runs = IntStream.range(0, 4)
+                .mapToObj(run -> executor.submit(() -> scheduler.run(attempts(1, 3), attempt -> {
+                    maxRunningAttempts.accumulateAndGet(runningAttempts.incrementAndGet(), Math::max);
+                    sleep(20);
+                    runningAttempts.decrementAndGet();
+                    return false;
+                })))
+                .collect(Collectors.toList());
+        for (Future<?> run : runs) {
+            run.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxRunningAttempts)
+                .as("Check concurrent runs share the slots")
+                .hasValueLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void checkGroupedAttemptTakesSlotPerTest() {
+        List<TestIdentifier> group = attempts(2, 1).stream()
+                .flatMap(attempt -> attempt.getTestIdentifiers().stream())
+                .collect(Collectors.toList());
+        List<RetryAttempt> attempts = IntStream.range(0, 3)
+                .mapToObj(attemptNumber -> new RetryAttempt(group, attemptNumber))
+                .collect(Collectors.toList());
+        AtomicInteger runningTests = new AtomicInteger();
+        AtomicInteger maxRunningTests = new AtomicInteger();
+
+        new ContinuousRetryScheduler(executor, 4).run(attempts, attempt -> {
+            maxRunningTests.accumulateAndGet(runningTests.addAndGet(attempt.getTestIdentifiers().size()), Math::max);
+            sleep(20);
+            runningTests.addAndGet(-attempt.getTestIdentifiers().size());
+            return false;
+        });
+
+        assertThat(maxRunningTests)
+                .as("Check running tests count does not exceed slot count")
+                .hasValueLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void checkExceptionInAttemptIsPropagated() {
+        IllegalStateException expectedException = new IllegalStateException("It's expected exception");
+
+        assertThatThrownBy(() -> new ContinuousRetryScheduler(executor, 2).run(attempts(4, 1), attempt -> {
+            throw expectedException;
+        }))
+                .as("Check exception in attempt is propagated")
+                .isInstanceOf(IllegalStateException.class)
+                .hasCause(expectedException);
+    }
+
+    @Test
+    void checkHedgedSchedulerCancelsSiblingsOfPassedAttempt() {
+        AtomicInteger startedAttempts = new AtomicInteger();
+
+        // only one slot, so the first attempt passes before its siblings are started
+        new ContinuousRetryScheduler(executor, 1, true).run(attempts(1, 5), attempt -> {
+            startedAttempts.incrementAndGet();
+            return true;
+        });
+
+        assertThat(startedAttempts)
+                .as("Check queued siblings of the passed attempt were not started")
+                .hasValue(1);
+    }
+
+    @Test
+    void checkHedgedSchedulerMarksCancelledSiblings() {
+        List<RetryAttempt> attempts = attempts(1, 3);
+
+        // only one slot, so the siblings are queued, when the first attempt passes
+        new ContinuousRetryScheduler(executor, 1, true).run(attempts, attempt -> true);
+
+        assertThat(attempts)
+                .as("Check only siblings of the passed attempt are marked as cancelled")
+                .extracting(RetryAttempt::isCancelled)
+                .containsExactly(false, true, true);
+    }
+
+    private static List<RetryAttempt> attempts(int testsCount, int attemptsCount) {
+        return IntStream.range(0, testsCount)
+                .mapToObj(i -> TestIdentifier.from(new EngineDescriptor(UniqueId.forEngine("engine-" + i), "Test " + i)))
+                .flatMap(identifier -> IntStream.range(0, attemptsCount)
+                        .mapToObj(attemptNumber -> new RetryAttempt(List.of(identifier), attemptNumber)))
+                .collect(Collectors.toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
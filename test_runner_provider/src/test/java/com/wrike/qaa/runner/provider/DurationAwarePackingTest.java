@@ -0,0 +1,76 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class DurationAwarePackingTest {
+
+    private static final TestIdentifier SHORT_TEST = identifier("short");
+    private static final TestIdentifier LONG_TEST = identifier("long");
+    private static final TestIdentifier MEDIUM_TEST = identifier("medium");
+    private static final TestIdentifier SECOND_LONG_TEST = identifier("secondLong");
+    private static final TestIdentifier UNKNOWN_TEST = identifier("unknown");
+
+    private static final Map<TestIdentifier, Integer> DURATIONS = Map.of(
+            SHORT_TEST, 100,
+            LONG_TEST, 10_000,
+            MEDIUM_TEST, 1_000,
+            SECOND_LONG_TEST, 9_000
+    );
+
+    @Test
+    void checkLongTestsArePackedTogether() {
+        List<List<TestIdentifier>> packs = DurationAwarePacking.pack(List.of(SHORT_TEST, LONG_TEST, MEDIUM_TEST, SECOND_LONG_TEST), DURATIONS, 2);
+
+        assertThat(packs)
+                .as("Check the longest tests share the first pack")
+                .containsExactly(List.of(LONG_TEST, SECOND_LONG_TEST), List.of(MEDIUM_TEST, SHORT_TEST));
+        assertThat(DurationAwarePacking.estimateMakespan(packs, DURATIONS))
+                .as("Check makespan is the sum of the longest tests of packs")
+                .isEqualTo(11_000);
+    }
+
+    @Test
+    void checkPackingInFailureOrderGivesLongerMakespan() {
+        List<List<TestIdentifier>> packsInFailureOrder = List.of(List.of(SHORT_TEST, LONG_TEST), List.of(MEDIUM_TEST, SECOND_LONG_TEST));
+
+        assertThat(DurationAwarePacking.estimateMakespan(packsInFailureOrder, DURATIONS))
+                .as("Check long tests in different packs make the retry longer")
+                .isEqualTo(19_000);
+    }
+
+    @Test
+    void checkTestsWithUnknownDurationGoLast() {
+        assertThat(DurationAwarePacking.sortLongestFirst(List.of(UNKNOWN_TEST, SHORT_TEST, LONG_TEST), DURATIONS))
+                .as("Check tests are sorted longest first")
+                .containsExactly(LONG_TEST, SHORT_TEST, UNKNOWN_TEST);
+    }
+
+    @Test
+    void checkIdealMakespanIsLimitedByTheLongestTest() {
+        List<TestIdentifier> tests = List.of(SHORT_TEST, LONG_TEST, MEDIUM_TEST, SECOND_LONG_TEST);
+
+        assertThat(DurationAwarePacking.estimateIdealMakespan(tests, DURATIONS, 2, 8))
+                .as("Check ideal makespan isn't less than the longest test")
+                .isEqualTo(10_000);
+        assertThat(DurationAwarePacking.estimateIdealMakespan(tests, DURATIONS, 2, 2))
+                .as("Check ideal makespan is all attempts spread over threads")
+                .isEqualTo(20_100);
+    }
+
+    private static TestIdentifier identifier(String name) {
+        UniqueId uniqueId = UniqueId.forEngine("engine").append("method", name);
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, name));
+    }
+
+}
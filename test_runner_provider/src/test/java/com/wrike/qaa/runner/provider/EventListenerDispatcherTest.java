@@ -0,0 +1,154 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.BLOCK;
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.COALESCE;
+import static com.wrike.qaa.runner.provider.ListenerOverflowPolicy.DROP;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class EventListenerDispatcherTest {
+
+    @Test
+    void checkNotificationsAreDispatchedInOrderByOneThreadBeforeFlushReturns() {
+        RecordingListener listener = new RecordingListener(false);
+        EventListenerDispatcher dispatcher = new EventListenerDispatcher(List.of(listener), 2, BLOCK);
+
+        IntStream.range(0, 100).forEach(i -> dispatcher.notify(eventListener -> ((RecordingListener) eventListener).record("event" + i)));
+        dispatcher.flush();
+
+        assertThat(listener.events)
+                .as("Check all notifications are dispatched in order")
+                .containsExactlyElementsOf(IntStream.range(0, 100).mapToObj(i -> "event" + i).collect(Collectors.toList()));
+        assertThat(listener.threads)
+                .as("Check notifications are dispatched by the dispatcher thread only")
+                .containsOnly("event-listener-dispatcher");
+    }
+
+    @Test
+    void checkSynchronousListenerIsNotifiedByNotifyingThread() {
+        RecordingListener synchronousListener = new RecordingListener(true);
+        RecordingListener asynchronousListener = new RecordingListener(false);
+        EventListenerDispatcher dispatcher = new EventListenerDispatcher(List.of(synchronousListener, asynchronousListener), 1, BLOCK);
+
+        dispatcher.notify(eventListener -> ((RecordingListener) eventListener).record("event"));
+
+        assertThat(synchronousListener.threads)
+                .as("Check the synchronous listener is notified before notify returns")
+                .containsExactly(Thread.currentThread().getName());
+        dispatcher.flush();
+        assertThat(asynchronousListener.threads)
+                .as("Check the asynchronous listener is notified by the dispatcher thread")
+                .containsExactly("event-listener-dispatcher");
+    }
+
+    @Test
+    void checkNotificationsAreDroppedIfQueueIsFull() throws InterruptedException {
+        BlockedListener listener = new BlockedListener();
+        EventListenerDispatcher dispatcher = new EventListenerDispatcher(List.of(listener), 1, DROP);
+
+        dispatcher.notify(eventListener -> ((BlockedListener) eventListener).record("taken"));
+        listener.awaitFirstEvent();
+        dispatcher.notify(eventListener -> ((BlockedListener) eventListener).record("queued"));
+        dispatcher.notify(eventListener -> ((BlockedListener) eventListener).record("dropped"));
+        listener.release();
+        dispatcher.flush();
+
+        assertThat(listener.events)
+                .as("Check the notification is dropped instead of waiting for the slow listener")
+                .containsExactly("taken", "queued");
+    }
+
+    @Test
+    void checkNotificationOfTheSameAttemptIsCoalescedIfQueueIsFull() throws InterruptedException {
+        BlockedListener listener = new BlockedListener();
+        EventListenerDispatcher dispatcher = new EventListenerDispatcher(List.of(listener), 1, COALESCE);
+
+        dispatcher.notify(eventListener -> ((BlockedListener) eventListener).record("taken"));
+        listener.awaitFirstEvent();
+        dispatcher.notify("attempt", eventListener -> ((BlockedListener) eventListener).record("started"));
+        dispatcher.notify("attempt", eventListener -> ((BlockedListener) eventListener).record("finished"));
+        listener.release();
+        dispatcher.flush();
+
+        assertThat(listener.events)
+                .as("Check the queued notification is replaced by the latest one of the same attempt")
+                .containsExactly("taken", "finished");
+    }
+
+    @Test
+    void checkAllListenersAreNotifiedSynchronouslyWithoutQueue() {
+        RecordingListener listener = new RecordingListener(false);
+        EventListenerDispatcher dispatcher = new EventListenerDispatcher(List.of(listener), 0, null);
+
+        dispatcher.notify(eventListener -> ((RecordingListener) eventListener).record("event"));
+
+        assertThat(listener.threads)
+                .as("Check the listener is notified before notify returns")
+                .containsExactly(Thread.currentThread().getName());
+    }
+
+    private static class RecordingListener implements EventListener {
+
+        private final boolean synchronous;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        RecordingListener(boolean synchronous) {
+            this.synchronous = synchronous;
+        }
+
+        @Override
+        public boolean requiresSynchronousNotifications() {
+            return synchronous;
+        }
+
+        void record(String event) {
+            events.add(event);
+            threads.add(Thread.currentThread().getName());
+        }
+
+    }
+
+    /**
+     * The first notification is blocked until it's released, so the queue is filled
+     */
+    private static class BlockedListener implements EventListener {
+
+        private final CountDownLatch firstEvent = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        void record(String event) {
+            events.add(event);
+            firstEvent.countDown();
+            try {
+                released.await(10, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitFirstEvent() throws InterruptedException {
+            assertThat(firstEvent.await(10, SECONDS))
+                    .as("Check the first notification is taken by the dispatcher")
+                    .isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import static com.wrike.qaa.runner.provider.TestHistory.NEVER_PASSED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class FlakinessHistoryRecorderTest {
+
+    private static final TestIdentifier TEST = testIdentifier("test()");
+
+    @Test
+    void checkFirstPassedAttemptIsRecordedIfItFinishedLast() {
+        FlakinessHistoryRecorder recorder = new FlakinessHistoryRecorder();
+        TestExecutionListener firstRetry = recorder.forAttempt(1);
+        TestExecutionListener secondRetry = recorder.forAttempt(2);
+
+        recorder.forAttempt(0).executionFinished(TEST, TestExecutionResult.failed(new AssertionError()));
+        firstRetry.executionStarted(TEST);
+        secondRetry.executionStarted(TEST);
+        secondRetry.executionFinished(TEST, TestExecutionResult.successful());
+        firstRetry.executionFinished(TEST, TestExecutionResult.successful());
+
+        TestHistory history = recorder.getHistories().get(TEST.getUniqueId());
+        assertThat(history.getExecutions()).as("Check all attempts are counted").isEqualTo(3);
+        assertThat(history.getFailures()).as("Check failed attempts are counted").isEqualTo(1);
+        assertThat(history.getMaxAttemptsToPass()).as("Check the least passed attempt is recorded").isEqualTo(1);
+    }
+
+    @Test
+    void checkTestIsNeverPassedIfAllAttemptsFailed() {
+        FlakinessHistoryRecorder recorder = new FlakinessHistoryRecorder();
+
+        recorder.forAttempt(0).executionFinished(TEST, TestExecutionResult.failed(new AssertionError()));
+        recorder.forAttempt(2).executionFinished(TEST, TestExecutionResult.failed(new AssertionError()));
+        recorder.forAttempt(1).executionFinished(TEST, TestExecutionResult.failed(new AssertionError()));
+
+        assertThat(recorder.getHistories().get(TEST.getUniqueId()).getMaxAttemptsToPass())
+                .as("Check the test is recorded as never passed")
+                .isEqualTo(NEVER_PASSED);
+    }
+
+    @Test
+    void checkAttemptNumbersAreTakenPerTest() {
+        FlakinessHistoryRecorder recorder = new FlakinessHistoryRecorder();
+        TestIdentifier otherTest = testIdentifier("otherTest()");
+        TestExecutionListener listener = recorder.forAttempt(testIdentifier -> testIdentifier.equals(TEST) ? 3 : 1);
+
+        listener.executionFinished(TEST, TestExecutionResult.successful());
+        listener.executionFinished(otherTest, TestExecutionResult.successful());
+
+        assertThat(recorder.getHistories().get(TEST.getUniqueId()).getMaxAttemptsToPass())
+                .as("Check the attempt number of the first test")
+                .isEqualTo(3);
+        assertThat(recorder.getHistories().get(otherTest.getUniqueId()).getMaxAttemptsToPass())
+                .as("Check the attempt number of the other test")
+                .isEqualTo(1);
+    }
+
+    private static TestIdentifier testIdentifier(String name) {
+        UniqueId uniqueId = UniqueId.forEngine("engine").append("method", name);
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, name) {
+            @Override
+            public Type getType() {
+                return Type.TEST;
+            }
+        });
+    }
+
+}
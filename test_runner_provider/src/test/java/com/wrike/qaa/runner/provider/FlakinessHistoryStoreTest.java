@@ -0,0 +1,95 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.wrike.qaa.runner.provider.FlakinessHistoryStore.HISTORY_FILE_NAME;
+import static com.wrike.qaa.runner.provider.TestHistory.NEVER_PASSED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class FlakinessHistoryStoreTest {
+
+    private static final String FLAKY_TEST_ID = "[engine:junit-jupiter]/[class:FlakyTest]/[method:test()]";
+    private static final String BROKEN_TEST_ID = "[engine:junit-jupiter]/[class:BrokenTest]/[method:test(java.lang.String)]";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void checkHistoriesOfRunsAreMerged() {
+        FlakinessHistoryStore store = new FlakinessHistoryStore(directory);
+        store.append(Map.of(FLAKY_TEST_ID, new TestHistory(1, 2, 1, 1, 100), BROKEN_TEST_ID, new TestHistory(1, 3, 3, NEVER_PASSED, 50)));
+        store.append(Map.of(FLAKY_TEST_ID, new TestHistory(1, 4, 3, 3, 200)));
+
+        Map<String, TestHistory> histories = new FlakinessHistoryStore(directory).load();
+
+        TestHistory flakyTestHistory = histories.get(FLAKY_TEST_ID);
+        assertThat(flakyTestHistory.getRuns()).as("Check runs are summed").isEqualTo(2);
+        assertThat(flakyTestHistory.getExecutions()).as("Check executions are summed").isEqualTo(6);
+        assertThat(flakyTestHistory.getFailures()).as("Check failures are summed").isEqualTo(4);
+        assertThat(flakyTestHistory.getDurationMillis()).as("Check the last duration is kept").isEqualTo(200);
+        assertThat(flakyTestHistory.getRecommendedAttempts()).as("Check the max attempts to pass are recommended").contains(3);
+        assertThat(histories.get(BROKEN_TEST_ID).getRecommendedAttempts())
+                .as("Check there is no recommendation for a test, which never passed")
+                .isEmpty();
+    }
+
+    @Test
+    void checkTestWhichPassedOnTheFirstRetryIsRecommendedOneAttempt() {
+        assertThat(new TestHistory(1, 2, 1, 1, 100).getRecommendedAttempts())
+                .as("Check one attempt is recommended")
+                .contains(1);
+        assertThat(new TestHistory(1, 1, 0, 0, 100).getRecommendedAttempts())
+                .as("Check one attempt is recommended for a stable test")
+                .contains(1);
+    }
+
+    @Test
+    void checkHistoryIsCompactedIfItHasTooManyLines() throws IOException {
+        FlakinessHistoryStore store = new FlakinessHistoryStore(directory);
+        for (int run = 0; run < 10; run++) {
+            store.append(Map.of(FLAKY_TEST_ID, new TestHistory(1, 2, 1, 1, run)));
+        }
+
+        Map<String, TestHistory> histories = store.load();
+
+        assertThat(Files.readAllLines(directory.resolve(HISTORY_FILE_NAME), UTF_8))
+                .as("Check history is compacted to one line per test")
+                .hasSize(1);
+        assertThat(store.load().get(FLAKY_TEST_ID))
+                .as("Check compacted history is the same")
+                .usingRecursiveComparison()
+                .isEqualTo(histories.get(FLAKY_TEST_ID));
+    }
+
+    @Test
+    void checkMalformedLinesAreSkipped() throws IOException {
+        Files.write(directory.resolve(HISTORY_FILE_NAME), List.of(
+                "not a history line",
+                new TestHistory(1, 1, 0, 0, 10).toLine(FLAKY_TEST_ID),
+                "1\t1\t0"
+        ), UTF_8);
+
+        assertThat(new FlakinessHistoryStore(directory).load())
+                .as("Check only correct lines are loaded")
+                .containsOnlyKeys(FLAKY_TEST_ID);
+    }
+
+    @Test
+    void checkMissingHistoryIsEmpty() {
+        assertThat(new FlakinessHistoryStore(directory.resolve("missing")).load())
+                .as("Check there is no history before the first run")
+                .isEmpty();
+    }
+
+}
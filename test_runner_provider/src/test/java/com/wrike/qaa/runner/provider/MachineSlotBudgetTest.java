@@ -0,0 +1,125 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class MachineSlotBudgetTest {
+
+    @TempDir
+    Path slotsDirectory;
+
+    @Test
+    void checkSlotsAreSharedByBudgetsOfTheSameDirectory() {
+        MachineSlotBudget firstFork = new MachineSlotBudget(slotsDirectory, 2);
+        MachineSlotBudget secondFork = new MachineSlotBudget(slotsDirectory, 2);
+
+        try (MachineSlotBudget.Lease lease = firstFork.acquire(2)) {
+            assertThat(lease.getSlotCount())
+                    .as("Check all requested slots are taken")
+                    .isEqualTo(2);
+            assertThat(secondFork.tryAcquire(1))
+                    .as("Check slots taken by one budget are not available to another budget")
+                    .isEmpty();
+        }
+        assertThat(secondFork.tryAcquire(1))
+                .as("Check slots are available after the lease is closed")
+                .hasValueSatisfying(MachineSlotBudget.Lease::close);
+    }
+
+    @Test
+    void checkSlotsAreTakenAllOrNothing() {
+        MachineSlotBudget budget = new MachineSlotBudget(slotsDirectory, 3);
+
+        try (MachineSlotBudget.Lease lease = budget.acquire(2)) {
+            Optional<MachineSlotBudget.Lease> notEnoughSlots = budget.tryAcquire(2);
+            assertThat(notEnoughSlots)
+                    .as("Check the attempt doesn't take slots, if there are not enough of them")
+                    .isEmpty();
+            assertThat(budget.tryAcquire(1))
+                    .as("Check the free slot is not held by the failed attempt")
+                    .hasValueSatisfying(MachineSlotBudget.Lease::close);
+        }
+    }
+
+    @Test
+    void checkRequestedSlotsAreLimitedBySlotCount() {
+        MachineSlotBudget budget = new MachineSlotBudget(slotsDirectory, 2);
+
+        try (MachineSlotBudget.Lease lease = budget.acquire(5)) {
+            assertThat(lease.getSlotCount())
+                    .as("Check an attempt with more tests than slots takes all slots")
+                    .isEqualTo(2);
+        }
+    }
+
+    @Test
+    void checkAttemptWaitsUntilSlotIsReleased() throws Exception {
+        MachineSlotBudget budget = new MachineSlotBudget(slotsDirectory, 1);
+        MachineSlotBudget.Lease firstLease = budget.acquire(1);
+
+        CompletableFuture<Integer> secondAttempt = CompletableFuture.supplyAsync(() -> {
+            try (MachineSlotBudget.Lease lease = budget.acquire(1)) {
+                return lease.getSlotCount();
+            }
+        });
+        Thread.sleep(100);
+        assertThat(secondAttempt)
+                .as("Check the second attempt waits while the slot is taken")
+                .isNotDone();
+        firstLease.close();
+
+        assertThat(secondAttempt.get(10, TimeUnit.SECONDS))
+                .as("Check the second attempt takes the released slot")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkLargeAttemptIsNotStarvedByStreamOfSmallAttempts() throws Exception {
+        MachineSlotBudget budget = new MachineSlotBudget(slotsDirectory, 2, 300);
+        AtomicBoolean largeAttemptFinished = new AtomicBoolean();
+        ExecutorService smallAttempts = Executors.newFixedThreadPool(2);
+        try {
+            IntStream.range(0, 2).forEach(i -> smallAttempts.execute(() -> {
+                while (!largeAttemptFinished.get()) {
+                    try (MachineSlotBudget.Lease lease = budget.acquire(1)) {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }));
+            Thread.sleep(100);
+
+            CompletableFuture<Integer> largeAttempt = CompletableFuture.supplyAsync(() -> {
+                try (MachineSlotBudget.Lease lease = budget.acquire(2)) {
+                    return lease.getSlotCount();
+                } finally {
+                    largeAttemptFinished.set(true);
+                }
+            });
+
+            assertThat(largeAttempt.get(10, TimeUnit.SECONDS))
+                    .as("Check the large attempt takes all slots, while small attempts keep taking them")
+                    .isEqualTo(2);
+        } finally {
+            largeAttemptFinished.set(true);
+            smallAttempts.shutdownNow();
+            smallAttempts.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+}
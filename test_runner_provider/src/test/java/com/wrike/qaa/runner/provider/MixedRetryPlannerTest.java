@@ -0,0 +1,98 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class MixedRetryPlannerTest {
+
+    private static final TestIdentifier FIRST_TEST = identifier("first");
+    private static final TestIdentifier SECOND_TEST = identifier("second");
+    private static final TestIdentifier THIRD_TEST = identifier("third");
+
+    @Test
+    void checkFirstTestsGetAllRetriesAndTheNextOneGetsRemainingSlots() {
+        Map<TestIdentifier, Integer> retriesLeft = retriesLeft(3, 3, 3);
+
+        assertThat(MixedRetryPlanner.planRound(retriesLeft, 6))
+                .as("Check all slots are used")
+                .containsExactly(
+                        Map.entry(FIRST_TEST, 3),
+                        Map.entry(SECOND_TEST, 2),
+                        Map.entry(THIRD_TEST, 1)
+                );
+    }
+
+    @Test
+    void checkEachTestGetsOneAttemptIfSlotsAreNotEnough() {
+        Map<TestIdentifier, Integer> retriesLeft = retriesLeft(3, 3, 3);
+
+        assertThat(MixedRetryPlanner.planRound(retriesLeft, 2))
+                .as("Check each test gets one attempt")
+                .containsExactly(
+                        Map.entry(FIRST_TEST, 1),
+                        Map.entry(SECOND_TEST, 1),
+                        Map.entry(THIRD_TEST, 1)
+                );
+    }
+
+    @Test
+    void checkTestsDontGetMoreAttemptsThanRetriesLeft() {
+        Map<TestIdentifier, Integer> retriesLeft = retriesLeft(1, 2, 0);
+
+        assertThat(MixedRetryPlanner.planRound(retriesLeft, 10))
+                .as("Check attempts are limited by retries left")
+                .containsExactly(
+                        Map.entry(FIRST_TEST, 1),
+                        Map.entry(SECOND_TEST, 2)
+                );
+    }
+
+    @Test
+    void checkRecommendedAttemptsLeaveSlotsForOtherTests() {
+        Map<TestIdentifier, Integer> retriesLeft = retriesLeft(3, 3, 3);
+
+        assertThat(MixedRetryPlanner.planRound(retriesLeft, Map.of(FIRST_TEST, 1), 6))
+                .as("Check the first test gets only recommended attempts")
+                .containsExactly(
+                        Map.entry(FIRST_TEST, 1),
+                        Map.entry(SECOND_TEST, 3),
+                        Map.entry(THIRD_TEST, 2)
+                );
+    }
+
+    @Test
+    void checkSlotsAreUsedEvenIfMoreAttemptsThanRecommendedAreNeeded() {
+        Map<TestIdentifier, Integer> retriesLeft = retriesLeft(3, 3, 0);
+
+        assertThat(MixedRetryPlanner.planRound(retriesLeft, Map.of(FIRST_TEST, 1, SECOND_TEST, 1), 5))
+                .as("Check free slots are given without recommendations")
+                .containsExactly(
+                        Map.entry(FIRST_TEST, 3),
+                        Map.entry(SECOND_TEST, 2)
+                );
+    }
+
+    private static Map<TestIdentifier, Integer> retriesLeft(int first, int second, int third) {
+        Map<TestIdentifier, Integer> retriesLeft = new LinkedHashMap<>();
+        retriesLeft.put(FIRST_TEST, first);
+        retriesLeft.put(SECOND_TEST, second);
+        retriesLeft.put(THIRD_TEST, third);
+        return retriesLeft;
+    }
+
+    private static TestIdentifier identifier(String name) {
+        UniqueId uniqueId = UniqueId.forEngine("engine").append("method", name);
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, name));
+    }
+
+}
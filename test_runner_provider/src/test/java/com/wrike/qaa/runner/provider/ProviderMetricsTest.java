@@ -0,0 +1,50 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class ProviderMetricsTest {
+
+    @Test
+    void checkTimingsOfPhaseAreSummed() {
+        ProviderMetrics metrics = new ProviderMetrics();
+        long startNanos = System.nanoTime() - 1_000_000;
+
+        metrics.record(ProviderPhase.PARALLEL_PACK, startNanos, 3);
+        metrics.record(ProviderPhase.PARALLEL_PACK, startNanos, 2);
+        metrics.record(ProviderPhase.RETRY_ROUND, startNanos, 5);
+
+        assertThat(metrics.getPhaseTimings(ProviderPhase.PARALLEL_PACK))
+                .as("Check timings are filtered by phase")
+                .extracting(ProviderMetrics.PhaseTiming::getTestsCount)
+                .containsExactly(3, 2);
+        assertThat(metrics.getTotalNanos(ProviderPhase.PARALLEL_PACK))
+                .as("Check durations of packs are summed")
+                .isGreaterThanOrEqualTo(2_000_000);
+        assertThat(metrics.getTotalNanos(ProviderPhase.CLASSPATH_SCAN))
+                .as("Check phase without timings takes no time")
+                .isZero();
+    }
+
+    @Test
+    void checkJsonContainsAllPhases() {
+        ProviderMetrics metrics = new ProviderMetrics();
+        metrics.record(ProviderPhase.INITIAL_EXECUTION, System.nanoTime(), 7);
+
+        String json = metrics.toJson();
+
+        for (ProviderPhase phase : ProviderPhase.values()) {
+            assertThat(json)
+                    .as("Check summary of %s is written", phase)
+                    .contains("\"" + phase.getPhaseName() + "\": {\"count\": ");
+        }
+        assertThat(json)
+                .as("Check the timing is written")
+                .containsPattern("\\{\"phase\": \"initial.execution\", \"startMillis\": [0-9.]+, \"durationMillis\": [0-9.]+, \"tests\": 7}");
+    }
+
+}
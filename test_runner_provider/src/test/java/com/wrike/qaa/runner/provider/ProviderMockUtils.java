@@ -19,6 +19,7 @@ package com.wrike.qaa.runner.provider;
  * under the License.
  */
 
+import com.wrike.qaa.runner.provider.dummy.ProviderHedgedRetryDummyTest;
 import com.wrike.qaa.runner.provider.dummy.ProviderRetryDummyTest;
 import org.apache.maven.surefire.api.provider.ProviderParameters;
 import org.apache.maven.surefire.api.report.ReporterFactory;
@@ -49,7 +50,7 @@ class ProviderMockUtils {
 
     /**
      * Providers are invoked one by one due to overriding System.in and System.out,
-     * and {@link ProviderRetryDummyTest#resetCounts()}
+     * and {@link ProviderRetryDummyTest#resetCounts()}, {@link ProviderHedgedRetryDummyTest#resetCounts()}
      *
      * @param provider instance of {@link JUnitPlatformProvider}
      * @param testsToRun test classes to run
@@ -58,6 +59,7 @@ class ProviderMockUtils {
     static synchronized void invokeProvider(JUnitPlatformProvider provider, TestsToRun testsToRun)
             throws TestSetFailedException {
         ProviderRetryDummyTest.resetCounts();
+        ProviderHedgedRetryDummyTest.resetCounts();
         PrintStream systemOut = System.out;
         PrintStream systemErr = System.err;
         try {
@@ -109,6 +111,15 @@ class ProviderMockUtils {
         return providerParameters;
     }
 
+    /**
+     * The attempt executor type is used without null checks, so the mock returns its default
+     */
+    static EnvironmentProvider environmentProviderMock() {
+        EnvironmentProvider environmentProvider = mock(EnvironmentProvider.class);
+        when(environmentProvider.getAttemptExecutorType()).thenReturn(AttemptExecutorType.PLATFORM);
+        return environmentProvider;
+    }
+
     static TestsToRun newTestsToRun(Class<?>... testClasses) {
         List<Class<?>> classesList = Arrays.asList(testClasses);
         return new TestsToRun(new LinkedHashSet<>(classesList));
@@ -0,0 +1,86 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class RetryCostModelTest {
+
+    @Test
+    void checkManyFastFailuresAreEstimatedToBeRetriedFasterInParallel() {
+        RetryCostModel costModel = new RetryCostModel(8, 1000);
+        List<Long> durations = Collections.nCopies(50, 100L);
+
+        assertThat(costModel.estimateParallelMillis(durations, 3))
+                .as("Check parallel retries of fast tests are estimated to be faster")
+                .isEqualTo(2875)
+                .isLessThan(costModel.estimateSequentialMillis(durations, 3, 0.5));
+    }
+
+    @Test
+    void checkRarelyRefailingTestsAreEstimatedToBeRetriedFasterSequentially() {
+        RetryCostModel costModel = new RetryCostModel(4, 0);
+        List<Long> durations = Collections.nCopies(40, 1000L);
+
+        assertThat(costModel.estimateSequentialMillis(durations, 3, 0.1))
+                .as("Check sequential retries are estimated to be faster if threads are overloaded by parallel attempts")
+                .isLessThan(costModel.estimateParallelMillis(durations, 3));
+    }
+
+    @Test
+    void checkFewLongFailuresAreEstimatedToBeRetriedFasterInParallel() {
+        RetryCostModel costModel = new RetryCostModel(20, 1000);
+        List<Long> durations = Collections.nCopies(5, 600_000L);
+
+        assertThat(costModel.estimateParallelMillis(durations, 3))
+                .as("Check all attempts of long tests take one round")
+                .isEqualTo(601_000)
+                .isLessThan(costModel.estimateSequentialMillis(durations, 3, 0.5));
+    }
+
+    @Test
+    void checkSequentialEstimateOfOneRoundDoesNotDependOnRefailureRatio() {
+        RetryCostModel costModel = new RetryCostModel(2, 100);
+        List<Long> durations = List.of(300L, 100L);
+
+        assertThat(costModel.estimateSequentialMillis(durations, 1, 0.9))
+                .as("Check the first retry round always happens")
+                .isEqualTo(costModel.estimateSequentialMillis(durations, 1, 0.1))
+                .isEqualTo(400);
+    }
+
+    @Test
+    void checkPacksAreEstimatedOneByOne() {
+        RetryCostModel costModel = new RetryCostModel(4, 100);
+        List<Long> durations = List.of(100L, 500L, 200L, 300L, 400L);
+
+        assertThat(costModel.estimatePackedParallelMillis(durations, 2))
+                .as("Check packs of 2 tests take their longest tests and the round overhead each")
+                .isEqualTo((100 + 500) + (100 + 300) + (100 + 100));
+    }
+
+    @Test
+    void checkFewFailuresInSeveralPacksAreEstimatedToBeRetriedFasterInParallel() {
+        RetryCostModel costModel = new RetryCostModel(8, 100);
+        List<Long> durations = Collections.nCopies(4, 1000L);
+
+        assertThat(costModel.estimatePackedParallelMillis(durations, 3))
+                .as("Check two packs are faster than three rounds, which are likely to happen")
+                .isEqualTo(2200)
+                .isLessThan(costModel.estimateSequentialMillis(durations, 3, 0.5));
+    }
+
+    @Test
+    void checkThreadCountShouldBePositive() {
+        assertThatThrownBy(() -> new RetryCostModel(0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class RetryDeadlineTest {
+
+    private static final TestIdentifier SHORT_TEST = identifier("short");
+    private static final TestIdentifier LONG_TEST = identifier("long");
+    private static final TestIdentifier MEDIUM_TEST = identifier("medium");
+    private static final TestIdentifier UNKNOWN_TEST = identifier("unknown");
+
+    private static final Map<TestIdentifier, Integer> DURATIONS = Map.of(
+            SHORT_TEST, 100,
+            LONG_TEST, 10_000,
+            MEDIUM_TEST, 1_000
+    );
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void checkDeadlineExpiresWhenBudgetIsUsed() {
+        RetryDeadline deadline = RetryDeadline.start(5_000, clock::get);
+        clock.addAndGet(4_000);
+
+        assertThat(deadline.isExpired())
+                .as("Check deadline isn't expired before the budget is used")
+                .isFalse();
+        assertThat(deadline.getRemainingMillis())
+                .as("Check remaining time")
+                .isEqualTo(1_000);
+
+        clock.addAndGet(1_000);
+        assertThat(deadline.isExpired())
+                .as("Check deadline is expired when the budget is used")
+                .isTrue();
+    }
+
+    @Test
+    void checkShortestTestsAreSelectedForSequentialRetry() {
+        RetryDeadline deadline = RetryDeadline.start(1_500, clock::get);
+
+        assertThat(deadline.selectFittingSequentially(List.of(LONG_TEST, UNKNOWN_TEST, MEDIUM_TEST, SHORT_TEST), DURATIONS))
+                .as("Check tests fitting into the remaining time together are selected in the original order")
+                .containsExactly(UNKNOWN_TEST, MEDIUM_TEST, SHORT_TEST);
+    }
+
+    @Test
+    void checkEachTestShouldFitForParallelRetry() {
+        RetryDeadline deadline = RetryDeadline.start(1_000, clock::get);
+
+        assertThat(deadline.selectFittingInParallel(List.of(LONG_TEST, MEDIUM_TEST, SHORT_TEST, UNKNOWN_TEST), DURATIONS))
+                .as("Check tests fitting into the remaining time one by one are selected")
+                .containsExactly(MEDIUM_TEST, SHORT_TEST, UNKNOWN_TEST);
+    }
+
+    @Test
+    void checkRoundIsLimitedByTheEarliestDeadline() {
+        RetryDeadline deadline = RetryDeadline.start(5_000, clock::get);
+
+        assertThat(deadline.startRound(2_000).getRemainingMillis())
+                .as("Check round budget limits the round")
+                .isEqualTo(2_000);
+        assertThat(deadline.startRound(10_000).getRemainingMillis())
+                .as("Check round can't exceed the retry budget")
+                .isEqualTo(5_000);
+        assertThat(deadline.startRound(0).getRemainingMillis())
+                .as("Check round without budget is limited by the retry budget")
+                .isEqualTo(5_000);
+    }
+
+    @Test
+    void checkUnlimitedDeadlineSelectsAllTests() {
+        RetryDeadline deadline = RetryDeadline.start(0, clock::get);
+
+        assertThat(deadline.isLimited())
+                .as("Check deadline without budget is unlimited")
+                .isFalse();
+        assertThat(deadline.selectFittingSequentially(List.of(LONG_TEST, SHORT_TEST), DURATIONS))
+                .as("Check all tests are selected")
+                .containsExactly(LONG_TEST, SHORT_TEST);
+    }
+
+    private static TestIdentifier identifier(String name) {
+        UniqueId uniqueId = UniqueId.forEngine("engine").append("method", name);
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, name));
+    }
+
+}
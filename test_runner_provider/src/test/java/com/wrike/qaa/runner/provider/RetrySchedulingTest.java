@@ -0,0 +1,32 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static com.wrike.qaa.runner.provider.RetryScheduling.getRetrySchedulingByName;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class RetrySchedulingTest {
+
+    @ParameterizedTest(name = "{displayName} for {0}")
+    @EnumSource(RetryScheduling.class)
+    @DisplayName("Check retry scheduling is parsed correctly")
+    void checkRetrySchedulingIsParsedCorrectly(RetryScheduling retryScheduling) {
+        assertThat(getRetrySchedulingByName(retryScheduling.getRetrySchedulingString()))
+                .as("Check retry scheduling %s is parsed from string", retryScheduling)
+                .contains(retryScheduling);
+    }
+
+    @Test
+    void checkRetrySchedulingForWrongString() {
+        assertThat(getRetrySchedulingByName("wrong value"))
+                .as("Check wrong retry scheduling is not parsed")
+                .isEmpty();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class SlotUtilizationTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void checkBusyAndIdleSlotTimeIsAccumulated() {
+        SlotUtilization slotUtilization = new SlotUtilization(4, clock::get);
+
+        slotUtilization.testStarted();
+        slotUtilization.testStarted();
+        clock.addAndGet(10);
+        slotUtilization.testFinished();
+        clock.addAndGet(10);
+        slotUtilization.testFinished();
+        slotUtilization.finish();
+        clock.addAndGet(100);
+
+        assertThat(slotUtilization.getElapsedNanos())
+                .as("Check time after the finish is not counted")
+                .isEqualTo(20);
+        assertThat(slotUtilization.getBusySlotNanos())
+                .as("Check 2 slots were busy for 10 ns and 1 slot for 10 ns")
+                .isEqualTo(30);
+        assertThat(slotUtilization.getIdleSlotNanos())
+                .as("Check idle slot time is the rest of the capacity")
+                .isEqualTo(50);
+        assertThat(slotUtilization.getTimeWithBusySlotsNanos(2))
+                .as("Check time with 2 busy slots")
+                .isEqualTo(10);
+        assertThat(slotUtilization.getPeakBusySlots())
+                .as("Check peak of busy slots")
+                .isEqualTo(2);
+        assertThat(slotUtilization.getUtilization())
+                .as("Check utilization is busy time divided by capacity")
+                .isEqualTo(30 / 80.0);
+    }
+
+    @Test
+    void checkSlotsOfFinishedAttemptsAreIdleUntilPackIsJoined() {
+        SlotUtilization slotUtilization = new SlotUtilization(4, clock::get);
+        SlotUtilization.Pack pack = slotUtilization.startPack();
+
+        clock.addAndGet(5);
+        pack.attemptFinished(2);
+        clock.addAndGet(10);
+        pack.attemptFinished(2);
+        pack.join();
+
+        assertThat(slotUtilization.getBarrierIdleSlotNanos())
+                .as("Check 2 slots of the first attempt waited for the second attempt")
+                .isEqualTo(20);
+    }
+
+}
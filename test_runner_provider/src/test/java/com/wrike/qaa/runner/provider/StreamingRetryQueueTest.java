@@ -0,0 +1,109 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class StreamingRetryQueueTest {
+
+    private final List<TestIdentifier> retriedTests = new CopyOnWriteArrayList<>();
+    private TestPlan testPlan;
+    private TestIdentifier classIdentifier;
+    private TestIdentifier methodIdentifier;
+    private StreamingRetryQueue queue;
+
+    @BeforeEach
+    void createTestPlan() {
+        EngineDescriptor engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "engine");
+        TestDescriptor classDescriptor = new DummyDescriptor(engineDescriptor.getUniqueId().append("class", "DummyTest"), TestDescriptor.Type.CONTAINER);
+        TestDescriptor methodDescriptor = new DummyDescriptor(classDescriptor.getUniqueId().append("method", "test()"), TestDescriptor.Type.TEST);
+        engineDescriptor.addChild(classDescriptor);
+        classDescriptor.addChild(methodDescriptor);
+        testPlan = TestPlan.from(List.of(engineDescriptor), Mockito.mock(ConfigurationParameters.class));
+        classIdentifier = testPlan.getTestIdentifier(classDescriptor.getUniqueId().toString());
+        methodIdentifier = testPlan.getTestIdentifier(methodDescriptor.getUniqueId().toString());
+        queue = new StreamingRetryQueue(Executors.newSingleThreadExecutor(), new SlotUtilization(1), List.of(), retriedTests::add);
+        queue.testPlanExecutionStarted(testPlan);
+    }
+
+    @Test
+    void checkFailedTestIsRetriedAfterItsClassFinished() {
+        queue.executionFinished(methodIdentifier, TestExecutionResult.failed(new AssertionError()));
+
+        assertThat(queue.awaitRetries())
+                .as("Check test isn't retried while its class is executed")
+                .isEmpty();
+
+        queue.executionFinished(classIdentifier, TestExecutionResult.successful());
+
+        assertThat(queue.awaitRetries())
+                .as("Check test is released after its class finished")
+                .containsExactly(methodIdentifier);
+        assertThat(retriedTests)
+                .as("Check test is retried")
+                .containsExactly(methodIdentifier);
+        queue.shutdownNow();
+    }
+
+    @Test
+    void checkFailedClassIsRetriedInsteadOfItsTests() {
+        queue.executionFinished(methodIdentifier, TestExecutionResult.failed(new AssertionError()));
+        queue.executionFinished(classIdentifier, TestExecutionResult.failed(new IllegalStateException()));
+
+        assertThat(queue.awaitRetries())
+                .as("Check only the class is released")
+                .containsExactly(classIdentifier);
+        assertThat(retriedTests)
+                .as("Check only the class is retried")
+                .containsExactly(classIdentifier);
+        queue.shutdownNow();
+    }
+
+    @Test
+    void checkFailureIsNotReturnedIfRetrierDidNotRetryIt() {
+        StreamingRetryQueue rejectingQueue = new StreamingRetryQueue(Executors.newSingleThreadExecutor(), new SlotUtilization(1), List.of(),
+                failure -> false);
+        rejectingQueue.testPlanExecutionStarted(testPlan);
+        rejectingQueue.executionFinished(methodIdentifier, TestExecutionResult.failed(new AssertionError()));
+        rejectingQueue.executionFinished(classIdentifier, TestExecutionResult.successful());
+
+        assertThat(rejectingQueue.awaitRetries())
+                .as("Check failure isn't returned, so it's retried after the initial run")
+                .isEmpty();
+        rejectingQueue.shutdownNow();
+        queue.shutdownNow();
+    }
+
+    private static class DummyDescriptor extends AbstractTestDescriptor {
+
+        private final Type type;
+
+        DummyDescriptor(UniqueId uniqueId, Type type) {
+            super(uniqueId, uniqueId.getLastSegment().getValue());
+            this.type = type;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.wrike.qaa.runner.provider;
+
+import com.wrike.qaa.runner.provider.synthetic.DurationDistribution;
+import com.wrike.qaa.runner.provider.synthetic.SyntheticSuite;
+import com.wrike.qaa.runner.provider.synthetic.SyntheticSuiteSpec;
+import com.wrike.qaa.runner.provider.synthetic.SyntheticTestEngine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.maven.surefire.api.report.TestOutputReceiver;
+import org.apache.maven.surefire.api.report.TestOutputReportEntry;
+import org.apache.maven.surefire.api.report.TestReportListener;
+import org.apache.maven.surefire.api.testset.TestSetFailedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.wrike.qaa.runner.provider.ProviderMockUtils.environmentProviderMock;
+import static com.wrike.qaa.runner.provider.ProviderMockUtils.invokeProvider;
+import static com.wrike.qaa.runner.provider.ProviderMockUtils.newTestsToRun;
+import static com.wrike.qaa.runner.provider.ProviderMockUtils.providerParametersMock;
+import static com.wrike.qaa.runner.provider.RetryMode.ADAPTIVE;
+import static com.wrike.qaa.runner.provider.RetryMode.PARALLEL;
+import static com.wrike.qaa.runner.provider.RetryMode.SEQUENTIAL;
+import static com.wrike.qaa.runner.provider.RetryScheduling.CONTINUOUS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Runs retries of thousands of synthetic failures, see {@link SyntheticTestEngine}.
+ * Runs with more than 1000 failures take minutes, so they are enabled by {@code -Dsynthetic.scale=true}.
+ *
+ * @author agent on 18.10.2026
+ */
+class SyntheticRetrySchedulingTest {
+
+    private static final Logger LOG = LogManager.getLogger(SyntheticRetrySchedulingTest.class);
+
+    private static final int DEFAULT_FAILURES_COUNT = 1_000;
+    private static final int THREAD_COUNT = 8;
+    private static final int RETRIES_COUNT = 2;
+
+    static Stream<Arguments> retryStrategies() {
+        return Stream.of(1_000, 10_000, 100_000)
+                .flatMap(failuresCount -> Stream.of(Arguments.of(failuresCount, SEQUENTIAL), Arguments.of(failuresCount, PARALLEL)));
+    }
+
+    @ParameterizedTest(name = "{displayName} for {0} failures in {1} mode")
+    @MethodSource("retryStrategies")
+    void checkRetriesOfSyntheticFailuresAreReproducible(int failuresCount, RetryMode retryMode) throws TestSetFailedException {
+        assumeTrue(failuresCount <= DEFAULT_FAILURES_COUNT || Boolean.getBoolean("synthetic.scale"),
+                "Large synthetic suites are run with -Dsynthetic.scale=true only");
+        // all tests fail initially, 30% of them fail the first retry, nobody fails later
+        SyntheticSuiteSpec spec = SyntheticSuiteSpec.builder()
+                .testsCount(failuresCount)
+                .testsPerClass(20)
+                .depth(3)
+                .durationDistribution(failuresCount <= DEFAULT_FAILURES_COUNT ? DurationDistribution.uniform(0, 1) : DurationDistribution.fixed(0))
+                .failureProbabilities(1, 0.3, 0)
+                .build();
+
+        SyntheticTestEngine firstEngine = runProvider(spec, retryMode);
+        SyntheticTestEngine secondEngine = runProvider(spec, retryMode);
+
+        assertThat(secondEngine.getExecutionsCount())
+                .as("Check the same count of tests is executed with the same seed")
+                .isEqualTo(firstEngine.getExecutionsCount());
+        assertThat(secondEngine.getFailuresCount())
+                .as("Check the same count of tests failed with the same seed")
+                .isEqualTo(firstEngine.getFailuresCount());
+        assertThat(IntStream.range(0, failuresCount).map(secondEngine::getAttemptsCount).toArray())
+                .as("Check every test is executed the same count of times with the same seed")
+                .containsExactly(IntStream.range(0, failuresCount).map(firstEngine::getAttemptsCount).toArray());
+        assertThat(IntStream.range(0, failuresCount).map(firstEngine::getAttemptsCount).boxed())
+                .as("Check every failed test is retried, but not more than %d times", RETRIES_COUNT)
+                .allMatch(attemptsCount -> attemptsCount >= 2 && attemptsCount <= RETRIES_COUNT + 1);
+    }
+
+    @Test
+    void checkAdaptiveModeRetriesSequentiallyIfThreadsAreOverloadedByParallelAttempts() throws TestSetFailedException {
+        // 40 failures of 30 ms on 2 threads: sequential ~(100 + 600) + (100 + 300) ms, parallel ~100 + 1200 ms
+        SyntheticSuiteSpec spec = SyntheticSuiteSpec.builder()
+                .testsCount(40)
+                .testsPerClass(20)
+                .depth(1)
+                .durationDistribution(DurationDistribution.fixed(30))
+                .failureProbabilities(1, 0)
+                .build();
+        EventListener eventListener = Mockito.mock(EventListener.class);
+
+        SyntheticTestEngine engine = runProvider(spec, ADAPTIVE, 2, List.of(eventListener));
+
+        Mockito.verify(eventListener).sequentialRetryStartedDueToCostEstimate(anyLong(), anyLong());
+        Mockito.verify(eventListener, Mockito.never()).parallelRetryStarted();
+        assertThat(engine.getExecutionsCount())
+                .as("Check every failure is retried once, because nothing fails the sequential retry")
+                .isEqualTo(80);
+    }
+
+    private static SyntheticTestEngine runProvider(SyntheticSuiteSpec spec, RetryMode retryMode) throws TestSetFailedException {
+        return runProvider(spec, retryMode, THREAD_COUNT, List.of());
+    }
+
+    private static SyntheticTestEngine runProvider(
+            SyntheticSuiteSpec spec,
+            RetryMode retryMode,
+            int threadCount,
+            List<EventListener> eventListeners
+    ) throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(retryMode);
+        Mockito.when(environmentProvider.getRetryScheduling()).thenReturn(CONTINUOUS);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(threadCount);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(RETRIES_COUNT);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(Integer.MAX_VALUE);
+        SyntheticTestEngine engine = new SyntheticTestEngine(spec);
+        JUnitPlatformProvider provider = new JUnitPlatformProvider(
+                providerParametersMock(stubOnlyRunListenerMock(), SyntheticSuite.class),
+                engine.createLauncher(),
+                environmentProvider,
+                eventListeners
+        );
+
+        long start = System.nanoTime();
+        invokeProvider(provider, newTestsToRun(SyntheticSuite.class));
+        long wallMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        LOG.info("{} in {} mode: {} executions, {} failures, wall-clock time {} ms, busy time {} ms, slot utilization {}%, max {} tests at once",
+                spec, retryMode, engine.getExecutionsCount(), engine.getFailuresCount(), wallMillis, engine.getBusyMillis(),
+                100 * engine.getBusyMillis() / (wallMillis * threadCount), engine.getMaxRunningTestsCount());
+        return engine;
+    }
+
+    /**
+     * Invocations are not recorded, so hundreds of thousands of events don't take the memory
+     */
+    @SuppressWarnings("unchecked")
+    private static TestReportListener<TestOutputReportEntry> stubOnlyRunListenerMock() {
+        return Mockito.mock(TestReportListener.class, Mockito.withSettings().stubOnly().extraInterfaces(TestOutputReceiver.class));
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.wrike.qaa.runner.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class TestNameCacheTest {
+
+    @Test
+    void checkNamesAreResolvedOncePerUniqueId() {
+        TestNameCache testNameCache = new TestNameCache();
+        AtomicInteger resolutions = new AtomicInteger();
+        Function<TestIdentifier, String[]> resolver = testIdentifier -> {
+            resolutions.incrementAndGet();
+            return new String[]{"Class", "Class", testIdentifier.getDisplayName(), testIdentifier.getDisplayName()};
+        };
+
+        String[] names = testNameCache.get(identifier("first"), resolver);
+
+        assertThat(testNameCache.get(identifier("first"), resolver))
+                .as("Check names of another identifier with the same unique id are taken from the cache")
+                .isSameAs(names);
+        assertThat(testNameCache.get(identifier("second"), resolver))
+                .as("Check names of another test are resolved")
+                .containsExactly("Class", "Class", "second", "second");
+        assertThat(resolutions)
+                .as("Check names are resolved once per unique id")
+                .hasValue(2);
+    }
+
+    @Test
+    void checkResolverCanUseCacheForParents() {
+        TestNameCache testNameCache = new TestNameCache();
+        TestIdentifier parent = identifier("parent");
+
+        String[] names = testNameCache.get(identifier("child"), child -> {
+            String[] parentNames = testNameCache.get(parent, identifier -> new String[]{"Parent", "Parent", null, null});
+            return new String[]{parentNames[0], parentNames[1], "child", "child"};
+        });
+
+        assertThat(names)
+                .as("Check names of the child contain names of the parent")
+                .containsExactly("Parent", "Parent", "child", "child");
+        assertThat(testNameCache.size())
+                .as("Check names of the parent are cached too")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void checkDisabledCacheResolvesNamesEveryTime() {
+        TestNameCache testNameCache = TestNameCache.disabled();
+        AtomicInteger resolutions = new AtomicInteger();
+        Function<TestIdentifier, String[]> resolver = testIdentifier -> {
+            resolutions.incrementAndGet();
+            return new String[]{"Class", "Class", testIdentifier.getDisplayName(), testIdentifier.getDisplayName()};
+        };
+
+        testNameCache.get(identifier("first"), resolver);
+        testNameCache.get(identifier("first"), resolver);
+
+        assertThat(resolutions)
+                .as("Check names are resolved on every call")
+                .hasValue(2);
+        assertThat(testNameCache.size())
+                .as("Check names are not kept")
+                .isZero();
+    }
+
+    private static TestIdentifier identifier(String name) {
+        UniqueId uniqueId = UniqueId.forEngine("engine").append("method", name);
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, name));
+    }
+
+}
@@ -2,31 +2,56 @@ package com.wrike.qaa.runner.provider;
 
 import com.wrike.qaa.runner.provider.dummy.ProviderDummy2Test;
 import com.wrike.qaa.runner.provider.dummy.ProviderDummyTest;
+import com.wrike.qaa.runner.provider.dummy.ProviderHedgedRetryDummyTest;
 import com.wrike.qaa.runner.provider.dummy.ProviderRetryDummyTest;
 import com.wrike.qaa.runner.provider.util.ExecutionRecorder;
 import com.wrike.qaa.runner.provider.util.RunResult;
+import org.apache.maven.surefire.api.report.ReportEntry;
+import org.apache.maven.surefire.api.report.TestOutputReportEntry;
+import org.apache.maven.surefire.api.report.TestReportListener;
 import org.apache.maven.surefire.api.testset.TestSetFailedException;
 import org.apache.maven.surefire.api.util.TestsToRun;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.wrike.qaa.runner.provider.ProviderMockUtils.*;
+import static com.wrike.qaa.runner.provider.RetryMode.ADAPTIVE;
+import static com.wrike.qaa.runner.provider.RetryMode.HEDGED;
 import static com.wrike.qaa.runner.provider.RetryMode.PARALLEL;
 import static com.wrike.qaa.runner.provider.RetryMode.SEQUENTIAL;
+import static com.wrike.qaa.runner.provider.RetryScheduling.CONTINUOUS;
+import static com.wrike.qaa.runner.provider.RetryScheduling.MIXED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.junit.platform.engine.TestExecutionResult.Status.*;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.times;
 
 /**
@@ -36,7 +61,7 @@ class WrikePlatformProviderTest {
 
     @Test
     void checkAllGivenTestsToRunAreInvoked() throws TestSetFailedException {
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
 
         ExecutionRecorder executionRecorder = runAllTestsInClasses(
                 List.of(),
@@ -72,7 +97,7 @@ class WrikePlatformProviderTest {
     @Test
     void checkTestsAreRetriedInSequentialModeByDefault() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(SEQUENTIAL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
@@ -85,6 +110,8 @@ class WrikePlatformProviderTest {
         );
 
         Mockito.verify(eventListener, times(2)).sequentialRetryStartedDueToModeSpecified();
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForSequentialRuns();
@@ -113,7 +140,7 @@ class WrikePlatformProviderTest {
     @Test
     void checkTestsAreRetriedInSequentialModeIfOnlyOneRetryLeft() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(1);
@@ -126,6 +153,8 @@ class WrikePlatformProviderTest {
         );
 
         Mockito.verify(eventListener).sequentialRetryStartedDueToOneRetryLeft();
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForSequentialRuns();
@@ -149,7 +178,7 @@ class WrikePlatformProviderTest {
     @Test
     void checkTestsAreRetriedInSequentialModeIfAllRetriesCantStartAtTheSameTime() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(7);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
@@ -163,6 +192,8 @@ class WrikePlatformProviderTest {
 
         Mockito.verify(eventListener).sequentialRetryStartedBecauseAllRetriesCantStartAtTheSameTime(2, 4, 7);
         Mockito.verify(eventListener).sequentialRetryStartedDueToOneRetryLeft();
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForSequentialRuns();
@@ -191,7 +222,7 @@ class WrikePlatformProviderTest {
     @Test
     void checkTestsAreRetriedInSequentialModeIfTooManyTestsFailed() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(7);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
@@ -204,6 +235,8 @@ class WrikePlatformProviderTest {
 
         Mockito.verify(eventListener).sequentialRetryStartedDueToTooManyFailedTests(4, 3);
         Mockito.verify(eventListener).sequentialRetryStartedDueToOneRetryLeft();
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForSequentialRuns();
@@ -232,7 +265,7 @@ class WrikePlatformProviderTest {
     @Test
     void checkTestsAreRetriedInParallelModeIfAllCriteriaAreFulfilled() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(8);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
@@ -247,7 +280,14 @@ class WrikePlatformProviderTest {
         Mockito.verify(eventListener).parallelRetryStarted();
         Mockito.verify(eventListener).parallelRetryNextPackStarted();
         Mockito.verify(eventListener).parallelRetryFinished();
+        ArgumentCaptor<SlotUtilization> slotUtilization = ArgumentCaptor.forClass(SlotUtilization.class);
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(slotUtilization.capture());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
+        assertThat(slotUtilization.getValue().getPeakBusySlots())
+                .as("Check attempts of the pack are counted in slots of all threads")
+                .isBetween(1, 8);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForParallelRetry(List.of(1, 2));
         checkListsOfExecutedTests(results, List.of(
@@ -278,10 +318,65 @@ class WrikePlatformProviderTest {
         );
     }
 
+    @Test
+    void checkAdaptiveModeRetriesInParallelIfAllAttemptsFitIntoThreads() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(ADAPTIVE);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(8);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(1);
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderRetryDummyTest.class
+        );
+
+        Mockito.verify(eventListener).parallelRetryStarted();
+        Mockito.verify(eventListener).parallelRetryNextPackStarted();
+        Mockito.verify(eventListener).parallelRetryFinished();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
+        Mockito.verifyNoMoreInteractions(eventListener);
+
+        Map<Integer, RunResult> results = executionRecorder.getResultsForParallelRetry(List.of(1, 2));
+        checkRunResultsStatuses(
+                results,
+                1,
+                List.of(
+                        new TestResults("testPassesOnTheThirdAttempt()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testPassesOnTheThirdAttempt2()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testPassesOnTheSecondAttempt()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testAlwaysFail()", List.of(FAILED, FAILED))
+                )
+        );
+    }
+
+    @Test
+    void checkAdaptiveModeRetriesInSeveralPacksIfAllAttemptsDontFitIntoThreads() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(ADAPTIVE);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(8);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(3);
+
+        runAllTestsInClasses(List.of(eventListener), environmentProvider, ProviderRetryDummyTest.class);
+
+        // 3 attempts of 4 failed tests don't fit into 8 threads, so they are packed by 2 tests
+        Mockito.verify(eventListener, Mockito.never()).sequentialRetryStartedBecauseAllRetriesCantStartAtTheSameTime(
+                Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(eventListener, Mockito.never()).sequentialRetryStartedDueToCostEstimate(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(eventListener).parallelRetryStarted();
+        Mockito.verify(eventListener, times(2)).parallelRetryNextPackStarted();
+        Mockito.verify(eventListener).parallelRetryFinished();
+    }
+
     @Test
     void checkParallelRetriesStartsAfterSuccessfulSequentialRetry() throws TestSetFailedException {
         EventListener eventListener = Mockito.mock(EventListener.class);
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(5);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(5);
@@ -298,6 +393,9 @@ class WrikePlatformProviderTest {
         Mockito.verify(eventListener).parallelRetryStarted();
         Mockito.verify(eventListener).parallelRetryNextPackStarted();
         Mockito.verify(eventListener).parallelRetryFinished();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
         Mockito.verifyNoMoreInteractions(eventListener);
 
         Map<Integer, RunResult> results = executionRecorder.getResultsForParallelRetry(List.of(3, 4, 5));
@@ -332,10 +430,160 @@ class WrikePlatformProviderTest {
         );
     }
 
+    @Test
+    void checkTestsAreRetriedContinuouslyIfAllRetriesOfOneTestFitIntoThreads() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getRetryScheduling()).thenReturn(CONTINUOUS);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderRetryDummyTest.class
+        );
+
+        Mockito.verify(eventListener).parallelRetryStarted();
+        Mockito.verify(eventListener).parallelRetryNextPackStarted();
+        Mockito.verify(eventListener).parallelRetryFinished();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
+        Mockito.verifyNoMoreInteractions(eventListener);
+
+        // each attempt of each test is a separate execution: 4 failed tests * 2 attempts
+        Map<Integer, RunResult> results = executionRecorder.getResultsForParallelRetry(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+        checkRunResultsStatuses(
+                results,
+                1,
+                List.of(
+                        new TestResults("testPassesOnTheThirdAttempt()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testPassesOnTheThirdAttempt2()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testPassesOnTheSecondAttempt()", List.of(FAILED, SUCCESSFUL)),
+                        new TestResults("testAlwaysFail()", List.of(FAILED, FAILED))
+                )
+        );
+    }
+
+    @Test
+    void checkMixedRetryUsesAllThreadsIfAllRetriesDontFitIntoThreads() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getRetryScheduling()).thenReturn(MIXED);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(5);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderRetryDummyTest.class
+        );
+
+        // 4 failed tests * 3 retries don't fit into 5 threads, so attempts are split into rounds
+        Mockito.verify(eventListener).parallelRetryStarted();
+        Mockito.verify(eventListener, atLeast(2)).parallelRetryNextPackStarted();
+        Mockito.verify(eventListener).parallelRetryFinished();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
+        Mockito.verifyNoMoreInteractions(eventListener);
+
+        Map<String, List<TestExecutionResult.Status>> statuses = getAllStatuses(executionRecorder);
+        assertThat(statuses.get("testAlwaysFail()"))
+                .as("Check always failing test used all retries")
+                .containsExactly(FAILED, FAILED, FAILED, FAILED);
+        List.of("testPassesOnTheThirdAttempt()", "testPassesOnTheThirdAttempt2()", "testPassesOnTheSecondAttempt()")
+                .forEach(testName -> assertThat(statuses.get(testName))
+                        .as("Check %s passed once and wasn't executed more than 1 + retries times", testName)
+                        .containsOnlyOnce(SUCCESSFUL)
+                        .hasSizeLessThanOrEqualTo(4));
+    }
+
+    @Test
+    void checkHedgedRetryCancelsSiblingAttemptsAfterOneOfThemPassed() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(HEDGED);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+
+        long startTime = System.currentTimeMillis();
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderHedgedRetryDummyTest.class
+        );
+        long duration = System.currentTimeMillis() - startTime;
+
+        Mockito.verify(eventListener).parallelRetryStarted();
+        Mockito.verify(eventListener).parallelRetryNextPackStarted();
+        Mockito.verify(eventListener).parallelRetryFinished();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
+        Mockito.verifyNoMoreInteractions(eventListener);
+
+        assertThat(duration)
+                .as("Check hanging attempts were cancelled after the sibling attempt passed")
+                .isLessThan(ProviderHedgedRetryDummyTest.HANGING_ATTEMPT_DURATION_MILLIS);
+
+        // siblings, which were not started before the passed attempt, are skipped, and the running ones are interrupted
+        Map<Integer, RunResult> results = executionRecorder.getResultsForParallelRetry(List.of(1, 2, 3));
+        assertThat(results.get(1).getFinishedTests().values())
+                .as("Check retry results statuses")
+                .flatExtracting(retryResults -> retryResults.stream()
+                        .map(TestExecutionResult::getStatus)
+                        .collect(Collectors.toList()))
+                .containsOnlyOnce(SUCCESSFUL)
+                .isSubsetOf(SUCCESSFUL, FAILED);
+    }
+
+    @Test
+    void checkFailuresOfCancelledHedgedAttemptsAreReportedAsSkipped() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        TestReportListener<TestOutputReportEntry> runListener = runListenerMock();
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(HEDGED);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        JUnitPlatformProvider provider = new JUnitPlatformProvider(
+                providerParametersMock(runListener, ProviderHedgedRetryDummyTest.class),
+                LauncherFactory.create(),
+                environmentProvider,
+                List.of(eventListener)
+        );
+
+        invokeProvider(provider, newTestsToRun(ProviderHedgedRetryDummyTest.class));
+
+        // all 3 attempts run at the same time, the second execution passes and the other ones are interrupted
+        ArgumentCaptor<ReportEntry> skippedTests = ArgumentCaptor.forClass(ReportEntry.class);
+        Mockito.verify(runListener, atLeast(1)).testSkipped(skippedTests.capture());
+        assertThat(skippedTests.getAllValues())
+                .as("Check interrupted attempts are reported as cancelled")
+                .extracting(ReportEntry::getMessage)
+                .containsOnly(RunListenerAdapter.CANCELLED_ATTEMPT_REASON);
+        Mockito.verify(runListener).testFailed(Mockito.any());
+        Mockito.verify(runListener, Mockito.never()).testError(Mockito.any());
+        ArgumentCaptor<TestAttemptEvent> finishedAttempts = ArgumentCaptor.forClass(TestAttemptEvent.class);
+        Mockito.verify(eventListener, atLeast(1)).attemptFinished(finishedAttempts.capture());
+        assertThat(finishedAttempts.getAllValues())
+                .as("Check interrupted attempts are finished as aborted")
+                .extracting(event -> event.getOutcome().orElse(null))
+                .containsOnlyOnce(SUCCESSFUL)
+                .isSubsetOf(SUCCESSFUL, ABORTED);
+    }
+
     @Test
     void checkBrokenEventListenerDoesNotFailExecution() {
         EventListener brokenEventListener = getBrokenEventListener();
-        EnvironmentProvider environmentProvider = Mockito.mock(EnvironmentProvider.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
         Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
         Mockito.when(environmentProvider.getThreadCount()).thenReturn(5);
         Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(5);
@@ -356,6 +604,350 @@ class WrikePlatformProviderTest {
         });
     }
 
+    @Test
+    void checkLauncherSessionIsClosedAfterInitialRunByDefault() throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(SEQUENTIAL);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        ClosingCountLauncher launcher = new ClosingCountLauncher();
+
+        runAllTestsInClasses(launcher, List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        assertThat(launcher.getCloseCount())
+                .as("Check launcher was closed after the initial run and after retries")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void checkSharedLauncherSessionIsClosedOnlyOnce() throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        Mockito.when(environmentProvider.isLauncherSessionShared()).thenReturn(true);
+        ClosingCountLauncher launcher = new ClosingCountLauncher();
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(launcher, List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        assertThat(launcher.getCloseCount())
+                .as("Check launcher was closed only after the last retry")
+                .isEqualTo(1);
+        assertThat(executionRecorder.getResultsForSequentialRuns())
+                .as("Check tests were retried in the same session")
+                .hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void checkEveryParallelAttemptIsExecutedByItsOwnDiscoveredPlan() throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(3);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        ClosingCountLauncher launcher = new ClosingCountLauncher();
+
+        runAllTestsInClasses(launcher, List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        assertThat(launcher.getDiscoveryCount())
+                .as("Check the pack is discovered once for every attempt")
+                .isEqualTo(3);
+        assertThat(launcher.getRequestExecutionCount())
+                .as("Check only the initial run is executed by a request")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkEveryContinuousAttemptIsExecutedByItsOwnDiscoveredPlan() throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getRetryScheduling()).thenReturn(CONTINUOUS);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        ClosingCountLauncher launcher = new ClosingCountLauncher();
+
+        runAllTestsInClasses(launcher, List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        assertThat(launcher.getDiscoveryCount())
+                .as("Check every attempt of every failed test is discovered once")
+                .isEqualTo(8);
+        assertThat(launcher.getRequestExecutionCount())
+                .as("Check only the initial run is executed by a request")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkFlakinessHistoryIsRecordedForAllAttempts(@TempDir Path historyDirectory) throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(SEQUENTIAL);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getRetryHistoryDirectory()).thenReturn(Optional.of(historyDirectory));
+
+        runAllTestsInClasses(List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        Map<String, TestHistory> histories = new FlakinessHistoryStore(historyDirectory).load();
+        assertThat(histories.entrySet())
+                .as("Check attempts to pass are recorded")
+                .filteredOn(history -> history.getKey().contains("[method:"))
+                .extracting(history -> history.getKey().replaceAll(".*\\[method:(.*)\\]", "$1"),
+                        history -> history.getValue().getMaxAttemptsToPass(),
+                        history -> history.getValue().getExecutions())
+                .containsExactlyInAnyOrder(
+                        Tuple.tuple("testPassesOnTheThirdAttempt()", 2, 3),
+                        Tuple.tuple("testPassesOnTheThirdAttempt2()", 2, 3),
+                        Tuple.tuple("testPassesOnTheSecondAttempt()", 1, 2),
+                        Tuple.tuple("testAlwaysFail()", TestHistory.NEVER_PASSED, 3),
+                        Tuple.tuple("testAlwaysPass()", 0, 1)
+                );
+    }
+
+    @Test
+    void checkFlakinessHistoryIsAppendedOncePerInvocationOfReusedFork(@TempDir Path historyDirectory) throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryHistoryDirectory()).thenReturn(Optional.of(historyDirectory));
+        JUnitPlatformProvider provider = new JUnitPlatformProvider(
+                providerParametersMock(),
+                LauncherFactory.create(),
+                environmentProvider,
+                List.of()
+        );
+
+        invokeProvider(provider, newTestsToRun(ProviderDummyTest.class));
+        invokeProvider(provider, newTestsToRun(ProviderDummyTest.class));
+
+        Map<String, TestHistory> histories = new FlakinessHistoryStore(historyDirectory).load();
+        assertThat(histories.entrySet())
+                .as("Check every invocation records only its own executions")
+                .filteredOn(history -> history.getKey().contains("[method:"))
+                .isNotEmpty()
+                .extracting(history -> history.getValue().getRuns(), history -> history.getValue().getExecutions())
+                .containsOnly(Tuple.tuple(2, 2));
+    }
+
+    @Test
+    void checkFlakinessHistoryIsRecordedForParallelAttempts(@TempDir Path historyDirectory) throws TestSetFailedException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getRetryScheduling()).thenReturn(CONTINUOUS);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(20);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        Mockito.when(environmentProvider.getRetryHistoryDirectory()).thenReturn(Optional.of(historyDirectory));
+
+        runAllTestsInClasses(List.of(), environmentProvider, ProviderRetryDummyTest.class);
+
+        // both retries run at the same time, so it depends on the order of their starts, which of them passes
+        Map<String, TestHistory> histories = new FlakinessHistoryStore(historyDirectory).load();
+        assertThat(histories.entrySet())
+                .as("Check all parallel attempts are recorded")
+                .filteredOn(history -> history.getKey().contains("[method:"))
+                .extracting(history -> history.getKey().replaceAll(".*\\[method:(.*)\\]", "$1"),
+                        history -> history.getValue().getExecutions(),
+                        history -> history.getValue().getMaxAttemptsToPass() > 0)
+                .containsExactlyInAnyOrder(
+                        Tuple.tuple("testPassesOnTheThirdAttempt()", 3, true),
+                        Tuple.tuple("testPassesOnTheThirdAttempt2()", 3, true),
+                        Tuple.tuple("testPassesOnTheSecondAttempt()", 3, true),
+                        Tuple.tuple("testAlwaysFail()", 3, false),
+                        Tuple.tuple("testAlwaysPass()", 1, false)
+                );
+        assertThat(histories.entrySet())
+                .as("Check attempts to pass are real attempt numbers of parallel retries")
+                .filteredOn(history -> history.getKey().contains("Attempt"))
+                .extracting(history -> history.getValue().getMaxAttemptsToPass())
+                .hasSize(3)
+                .allMatch(attemptsToPass -> attemptsToPass == 1 || attemptsToPass == 2);
+    }
+
+    @Test
+    void checkStreamingRetriesRetryFailuresDuringTheInitialRun() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(SEQUENTIAL);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getStreamingRetrySlots()).thenReturn(2);
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderRetryDummyTest.class
+        );
+
+        verifyAttemptEventsAreNotified(eventListener);
+        Mockito.verify(eventListener).streamingRetriesStarted();
+        Mockito.verify(eventListener).parallelRetrySlotUtilizationCollected(Mockito.any());
+        Mockito.verify(eventListener).streamingRetriesFinished();
+        Mockito.verify(eventListener).providerMetricsCollected(Mockito.any());
+        Mockito.verifyNoMoreInteractions(eventListener);
+
+        assertThat(getAllStatuses(executionRecorder))
+                .as("Check each failed test was retried until it passed or its retries are over")
+                .containsOnly(
+                        Map.entry("testPassesOnTheThirdAttempt()", List.of(FAILED, FAILED, SUCCESSFUL)),
+                        Map.entry("testPassesOnTheThirdAttempt2()", List.of(FAILED, FAILED, SUCCESSFUL)),
+                        Map.entry("testPassesOnTheSecondAttempt()", List.of(FAILED, SUCCESSFUL)),
+                        Map.entry("testAlwaysFail()", List.of(FAILED, FAILED, FAILED)),
+                        Map.entry("testAlwaysPass()", List.of(SUCCESSFUL))
+                );
+    }
+
+    @Test
+    void checkParallelStreamingRetriesOfAllFailuresShareStreamingSlots() throws TestSetFailedException {
+        AtomicInteger runningAttempts = new AtomicInteger();
+        AtomicInteger maxRunningAttempts = new AtomicInteger();
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        Mockito.doAnswer(invocation -> maxRunningAttempts.accumulateAndGet(runningAttempts.incrementAndGet(), Math::max))
+                .when(eventListener).attemptStarted(Mockito.argThat(event -> event.getAttemptNumber() > 0));
+        Mockito.doAnswer(invocation -> runningAttempts.decrementAndGet())
+                .when(eventListener).attemptFinished(Mockito.argThat(event -> event.getAttemptNumber() > 0));
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getStreamingRetrySlots()).thenReturn(1);
+
+        ExecutionRecorder executionRecorder = runAllTestsInClasses(
+                List.of(eventListener),
+                environmentProvider,
+                ProviderRetryDummyTest.class
+        );
+
+        InOrder inOrder = Mockito.inOrder(eventListener);
+        inOrder.verify(eventListener).streamingRetriesStarted();
+        inOrder.verify(eventListener).streamingRetriesFinished();
+        Mockito.verify(eventListener, Mockito.never()).parallelRetryStarted();
+        assertThat(maxRunningAttempts)
+                .as("Check attempts of all streamed failures run on the only streaming slot")
+                .hasValue(1);
+        assertThat(getAllStatuses(executionRecorder).get("testAlwaysFail()"))
+                .as("Check all attempts of the failed test are started at once")
+                .containsExactly(FAILED, FAILED, FAILED);
+    }
+
+    @Test
+    void checkProviderMetricsAreCollectedForAllPhases(@TempDir Path metricsDirectory) throws TestSetFailedException, IOException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(8);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        Mockito.when(environmentProvider.getMetricsDirectory()).thenReturn(Optional.of(metricsDirectory));
+
+        runAllTestsInClasses(List.of(eventListener), environmentProvider, ProviderRetryDummyTest.class);
+
+        ArgumentCaptor<ProviderMetrics> metrics = ArgumentCaptor.forClass(ProviderMetrics.class);
+        Mockito.verify(eventListener).providerMetricsCollected(metrics.capture());
+        assertThat(metrics.getValue().getPhaseTimings())
+                .as("Check tests of every executed phase are counted, both attempts of the pack are discovered")
+                .extracting(ProviderMetrics.PhaseTiming::getPhase, ProviderMetrics.PhaseTiming::getTestsCount)
+                .containsExactlyInAnyOrder(
+                        Tuple.tuple(ProviderPhase.INITIAL_EXECUTION, 5),
+                        Tuple.tuple(ProviderPhase.RETRY_DISCOVERY, 4),
+                        Tuple.tuple(ProviderPhase.RETRY_DISCOVERY, 4),
+                        Tuple.tuple(ProviderPhase.PARALLEL_PACK, 4),
+                        Tuple.tuple(ProviderPhase.RETRY_ROUND, 4)
+                );
+        try (Stream<Path> metricsFiles = Files.list(metricsDirectory)) {
+            assertThat(metricsFiles)
+                    .as("Check metrics of the fork are written")
+                    .singleElement()
+                    .satisfies(metricsFile -> assertThat(metricsFile).content().contains("\"parallel.pack\": {\"count\": 1"));
+        }
+    }
+
+    @Test
+    void checkRetryLifecycleIsRecordedByJfr(@TempDir Path recordingDirectory) throws TestSetFailedException, IOException {
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(PARALLEL);
+        Mockito.when(environmentProvider.getThreadCount()).thenReturn(8);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+        Mockito.when(environmentProvider.getFailedTestsThresholdForParallelRetry()).thenReturn(10);
+        Path recordingFile = recordingDirectory.resolve("retries.jfr");
+
+        try (Recording recording = new Recording()) {
+            Stream.of(RetryFlightEvents.RetryModeDecision.class, RetryFlightEvents.RetryRound.class,
+                    RetryFlightEvents.ParallelPack.class, RetryFlightEvents.TestAttempt.class).forEach(recording::enable);
+            recording.start();
+            runAllTestsInClasses(List.of(), environmentProvider, ProviderRetryDummyTest.class);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        assertThat(events)
+                .as("Check the mode decision is recorded with the reason")
+                .filteredOn(event -> event.getEventType().getName().equals("com.wrike.qaa.runner.RetryModeDecision"))
+                .extracting(event -> event.getString("mode"), event -> event.getString("reason"), event -> event.getInt("failedTestsCount"))
+                .containsExactly(Tuple.tuple("parallel", "parallelRetryStarted", 4));
+        assertThat(events)
+                .as("Check the round and its pack are recorded")
+                .extracting(event -> event.getEventType().getName())
+                .containsOnlyOnce("com.wrike.qaa.runner.RetryRound", "com.wrike.qaa.runner.ParallelPack");
+        assertThat(events)
+                .as("Check each attempt of the always failing test is recorded")
+                .filteredOn(event -> event.getEventType().getName().equals("com.wrike.qaa.runner.TestAttempt"))
+                .filteredOn(event -> event.getString("uniqueId").contains("testAlwaysFail()"))
+                .extracting(event -> event.getInt("attemptNumber"), event -> event.getString("outcome"))
+                .containsExactlyInAnyOrder(Tuple.tuple(0, "FAILED"), Tuple.tuple(1, "FAILED"), Tuple.tuple(2, "FAILED"));
+    }
+
+    @Test
+    void checkAttemptEventsAreNotifiedForEverySequentialRetry() throws TestSetFailedException {
+        EventListener eventListener = Mockito.mock(EventListener.class);
+        EnvironmentProvider environmentProvider = environmentProviderMock();
+        Mockito.when(environmentProvider.getRetryMode()).thenReturn(SEQUENTIAL);
+        Mockito.when(environmentProvider.getRerunFailingTestsCount()).thenReturn(2);
+
+        runAllTestsInClasses(List.of(eventListener), environmentProvider, ProviderRetryDummyTest.class);
+
+        ArgumentCaptor<TestAttemptEvent> scheduled = ArgumentCaptor.forClass(TestAttemptEvent.class);
+        ArgumentCaptor<TestAttemptEvent> started = ArgumentCaptor.forClass(TestAttemptEvent.class);
+        ArgumentCaptor<TestAttemptEvent> finished = ArgumentCaptor.forClass(TestAttemptEvent.class);
+        Mockito.verify(eventListener, times(7)).attemptScheduled(scheduled.capture());
+        Mockito.verify(eventListener, times(7)).attemptStarted(started.capture());
+        Mockito.verify(eventListener, times(7)).attemptFinished(finished.capture());
+        assertThat(scheduled.getAllValues())
+                .as("Check scheduled attempts are not started yet")
+                .allSatisfy(event -> assertThat(event.getOutcome()).isEmpty())
+                .extracting(TestAttemptEvent::getAttemptNumber)
+                .containsOnly(1, 2);
+        assertThat(finished.getAllValues())
+                .as("Check every attempt of the always failing test is finished in its round")
+                .filteredOn(event -> event.getUniqueId().contains("testAlwaysFail()"))
+                .extracting(TestAttemptEvent::getAttemptNumber, TestAttemptEvent::getRound, TestAttemptEvent::getOutcome)
+                .containsExactly(Tuple.tuple(1, 1, Optional.of(FAILED)), Tuple.tuple(2, 2, Optional.of(FAILED)));
+        assertThat(finished.getAllValues())
+                .as("Check the thread and the timings of finished attempts are known")
+                .allSatisfy(event -> {
+                    assertThat(event.getThreadName()).isNotBlank();
+                    assertThat(event.getQueueingDelayMillis()).isNotNegative();
+                    assertThat(event.getDurationMillis()).isNotNegative();
+                });
+    }
+
+    /**
+     * Attempt events are checked in detail by {@link #checkAttemptEventsAreNotifiedForEverySequentialRetry()}
+     */
+    private static void verifyAttemptEventsAreNotified(EventListener eventListener) {
+        Mockito.verify(eventListener, atLeast(1)).attemptScheduled(Mockito.any());
+        Mockito.verify(eventListener, atLeast(1)).attemptStarted(Mockito.any());
+        Mockito.verify(eventListener, atLeast(1)).attemptFinished(Mockito.any());
+    }
+
+    /**
+     * @return statuses of all executions of tests by their display names, statuses of one test are sorted by finish time
+     */
+    private static Map<String, List<TestExecutionResult.Status>> getAllStatuses(ExecutionRecorder executionRecorder) {
+        return executionRecorder.getResultsForSequentialRuns().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .flatMap(runResult -> runResult.getValue().getFinishedTests().entrySet().stream())
+                .collect(Collectors.groupingBy(
+                        entry -> entry.getKey().getDisplayName(),
+                        Collectors.flatMapping(entry -> entry.getValue().stream().map(TestExecutionResult::getStatus), Collectors.toList())
+                ));
+    }
+
     private void checkRunResultsStatuses(Map<Integer, RunResult> results, int runNumber, List<TestResults> expectedTestResults) {
         Map<TestIdentifier, List<TestExecutionResult>> retriedTests = results.get(runNumber).getFinishedTests();
         List<TestResults> actualTestResults = retriedTests.entrySet().stream()
@@ -391,7 +983,15 @@ class WrikePlatformProviderTest {
             EnvironmentProvider environmentProvider,
             Class<?>... testClasses
     ) throws TestSetFailedException {
-        Launcher launcher = LauncherFactory.create();
+        return runAllTestsInClasses(LauncherFactory.create(), eventListeners, environmentProvider, testClasses);
+    }
+
+    private ExecutionRecorder runAllTestsInClasses(
+            Launcher launcher,
+            List<EventListener> eventListeners,
+            EnvironmentProvider environmentProvider,
+            Class<?>... testClasses
+    ) throws TestSetFailedException {
         JUnitPlatformProvider provider = new JUnitPlatformProvider(
                 providerParametersMock(),
                 launcher,
@@ -407,4 +1007,62 @@ class WrikePlatformProviderTest {
         return executionRecorder;
     }
 
+    /**
+     * It counts how many times the launcher session was closed, and how many times tests were discovered
+     */
+    private static class ClosingCountLauncher implements Launcher, AutoCloseable {
+
+        private final Launcher launcher = LauncherFactory.create();
+        private final AtomicInteger closeCount = new AtomicInteger();
+        private final AtomicInteger discoveryCount = new AtomicInteger();
+        private final AtomicInteger requestExecutionCount = new AtomicInteger();
+
+        @Override
+        public void registerLauncherDiscoveryListeners(LauncherDiscoveryListener... listeners) {
+            launcher.registerLauncherDiscoveryListeners(listeners);
+        }
+
+        @Override
+        public void registerTestExecutionListeners(TestExecutionListener... listeners) {
+            launcher.registerTestExecutionListeners(listeners);
+        }
+
+        @Override
+        public TestPlan discover(LauncherDiscoveryRequest launcherDiscoveryRequest) {
+            discoveryCount.incrementAndGet();
+            return launcher.discover(launcherDiscoveryRequest);
+        }
+
+        @Override
+        public void execute(LauncherDiscoveryRequest launcherDiscoveryRequest, TestExecutionListener... listeners) {
+            requestExecutionCount.incrementAndGet();
+            launcher.execute(launcherDiscoveryRequest, listeners);
+        }
+
+        @Override
+        public void execute(TestPlan testPlan, TestExecutionListener... listeners) {
+            launcher.execute(testPlan, listeners);
+        }
+
+        @Override
+        public void close() {
+            closeCount.incrementAndGet();
+        }
+
+        int getCloseCount() {
+            return closeCount.get();
+        }
+
+        int getDiscoveryCount() {
+            return discoveryCount.get();
+        }
+
+        /**
+         * Execution by a request discovers tests internally
+         */
+        int getRequestExecutionCount() {
+            return requestExecutionCount.get();
+        }
+    }
+
 }
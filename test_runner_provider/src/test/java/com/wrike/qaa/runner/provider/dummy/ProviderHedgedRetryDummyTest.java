@@ -0,0 +1,40 @@
+package com.wrike.qaa.runner.provider.dummy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author agent on 18.10.2026
+ */
+public class ProviderHedgedRetryDummyTest {
+
+    public static final long HANGING_ATTEMPT_DURATION_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static AtomicInteger ATTEMPT_COUNTER = new AtomicInteger(1);
+
+    /**
+     * Call this method before each launcher invoking
+     */
+    public static void resetCounts() {
+        ATTEMPT_COUNTER = new AtomicInteger(1);
+    }
+
+    /**
+     * The first attempt fails, the second one passes, and all the next attempts hang until they are interrupted
+     */
+    @Test
+    void testPassesOnTheSecondAttemptAndHangsAfterIt() throws InterruptedException {
+        int attempt = ATTEMPT_COUNTER.getAndIncrement();
+        if (attempt == 1) {
+            fail("Test fails on the first attempt");
+        } else if (attempt > 2) {
+            Thread.sleep(HANGING_ATTEMPT_DURATION_MILLIS);
+            fail("Test hangs after the second attempt");
+        }
+    }
+
+}
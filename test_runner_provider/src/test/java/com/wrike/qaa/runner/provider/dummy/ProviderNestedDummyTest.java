@@ -0,0 +1,47 @@
+package com.wrike.qaa.runner.provider.dummy;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * It contains tests only in nested classes and dynamic tests, which are registered during the execution
+ *
+ * @author agent on 18.10.2026
+ */
+public class ProviderNestedDummyTest {
+
+    @Nested
+    public class NestedWithTest {
+
+        @Test
+        void testAlwaysPassInNestedClass() {
+            //this test always pass
+        }
+    }
+
+    @Nested
+    public class NestedWithTestFactory {
+
+        @TestFactory
+        Stream<DynamicTest> testFactory() {
+            return Stream.of(dynamicTest("dynamic test", () -> {
+                //this test always pass
+            }));
+        }
+    }
+
+    @Nested
+    public class NestedWithoutTests {
+
+        void notATest() {
+            //this method is not a test
+        }
+    }
+
+}
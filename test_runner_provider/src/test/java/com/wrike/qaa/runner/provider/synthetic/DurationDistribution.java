@@ -0,0 +1,30 @@
+package com.wrike.qaa.runner.provider.synthetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of durations of synthetic tests
+ *
+ * @author agent on 18.10.2026
+ */
+@FunctionalInterface
+public interface DurationDistribution {
+
+    long sampleMillis(SplittableRandom random);
+
+    static DurationDistribution fixed(long millis) {
+        return random -> millis;
+    }
+
+    static DurationDistribution uniform(long minMillis, long maxMillis) {
+        return random -> minMillis + random.nextLong(maxMillis - minMillis + 1);
+    }
+
+    /**
+     * Most tests are short, but there is a long tail of slow tests
+     */
+    static DurationDistribution exponential(double meanMillis) {
+        return random -> Math.round(-meanMillis * Math.log(1 - random.nextDouble()));
+    }
+
+}
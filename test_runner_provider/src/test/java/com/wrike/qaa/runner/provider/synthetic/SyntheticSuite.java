@@ -0,0 +1,13 @@
+package com.wrike.qaa.runner.provider.synthetic;
+
+/**
+ * Selecting this class selects all tests of {@link SyntheticTestEngine}, it doesn't contain tests itself
+ *
+ * @author agent on 18.10.2026
+ */
+public final class SyntheticSuite {
+
+    private SyntheticSuite() {
+    }
+
+}
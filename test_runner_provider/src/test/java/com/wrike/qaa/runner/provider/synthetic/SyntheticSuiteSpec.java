@@ -0,0 +1,131 @@
+package com.wrike.qaa.runner.provider.synthetic;
+
+import java.util.Arrays;
+
+/**
+ * Shape and behavior of tests generated by {@link SyntheticTestEngine}.
+ *
+ * <p>
+ * Tests are split into top-level classes of {@code testsPerClass} tests, and each class has a chain of nested classes,
+ * so the hierarchy under the engine is {@code depth} containers deep. Durations are sampled once per test.
+ * The failure probability is taken by the attempt number, the last probability is used for all later attempts.
+ * All random values are derived from the seed, the test index and the attempt number,
+ * so results don't depend on the order, in which attempts are executed.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+public final class SyntheticSuiteSpec {
+
+    private final int testsCount;
+    private final int testsPerClass;
+    private final int depth;
+    private final DurationDistribution durationDistribution;
+    private final double[] failureProbabilities;
+    private final long seed;
+
+    private SyntheticSuiteSpec(Builder builder) {
+        this.testsCount = builder.testsCount;
+        this.testsPerClass = builder.testsPerClass;
+        this.depth = builder.depth;
+        this.durationDistribution = builder.durationDistribution;
+        this.failureProbabilities = builder.failureProbabilities.clone();
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getTestsCount() {
+        return testsCount;
+    }
+
+    public int getTestsPerClass() {
+        return testsPerClass;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getClassesCount() {
+        return (testsCount + testsPerClass - 1) / testsPerClass;
+    }
+
+    public DurationDistribution getDurationDistribution() {
+        return durationDistribution;
+    }
+
+    public double getFailureProbability(int attemptNumber) {
+        return failureProbabilities[Math.min(attemptNumber, failureProbabilities.length - 1)];
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d tests, %d per class, depth %d, failure probabilities %s, seed %d",
+                testsCount, testsPerClass, depth, Arrays.toString(failureProbabilities), seed);
+    }
+
+    public static final class Builder {
+
+        private int testsCount = 100;
+        private int testsPerClass = 10;
+        private int depth = 1;
+        private DurationDistribution durationDistribution = DurationDistribution.fixed(0);
+        private double[] failureProbabilities = {0};
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        public Builder testsCount(int testsCount) {
+            this.testsCount = testsCount;
+            return this;
+        }
+
+        public Builder testsPerClass(int testsPerClass) {
+            this.testsPerClass = testsPerClass;
+            return this;
+        }
+
+        /**
+         * @param depth count of containers between the engine and tests, 1 means tests are in top-level classes
+         */
+        public Builder depth(int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder durationDistribution(DurationDistribution durationDistribution) {
+            this.durationDistribution = durationDistribution;
+            return this;
+        }
+
+        /**
+         * @param failureProbabilities probabilities of failure for the initial run, the first retry and so on
+         */
+        public Builder failureProbabilities(double... failureProbabilities) {
+            this.failureProbabilities = failureProbabilities;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SyntheticSuiteSpec build() {
+            if (testsCount < 1 || testsPerClass < 1 || depth < 1 || failureProbabilities.length == 0) {
+                throw new IllegalArgumentException("Invalid synthetic suite: " + testsCount + " tests, " + testsPerClass + " per class, depth " + depth);
+            }
+            return new SyntheticSuiteSpec(this);
+        }
+
+    }
+
+}
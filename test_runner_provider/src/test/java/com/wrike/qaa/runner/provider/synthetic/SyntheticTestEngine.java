@@ -0,0 +1,233 @@
+package com.wrike.qaa.runner.provider.synthetic;
+
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Test engine, which generates tests by {@link SyntheticSuiteSpec}, to check retry scheduling at scale reproducibly.
+ *
+ * <p>
+ * All tests are discovered by selecting {@link SyntheticSuite}, retries select them by unique ids.
+ * The engine counts attempts of every test itself, so it can be shared by simultaneous executions,
+ * and collects statistics of all executions. Use {@link #createLauncher()} to get a launcher with this engine only.
+ * </p>
+ *
+ * @author agent on 18.10.2026
+ */
+public class SyntheticTestEngine implements TestEngine {
+
+    public static final String ENGINE_ID = "synthetic";
+
+    private static final String CLASS_SEGMENT_TYPE = "class";
+    private static final String NESTED_CLASS_SEGMENT_TYPE = "nested-class";
+    private static final String TEST_SEGMENT_TYPE = "test";
+    private static final String CLASS_NAME_PREFIX = "com.wrike.qaa.synthetic.SyntheticClass";
+
+    private final SyntheticSuiteSpec spec;
+    private final AtomicIntegerArray attempts;
+    private final AtomicLong executionsCount = new AtomicLong();
+    private final AtomicLong failuresCount = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicInteger runningTestsCount = new AtomicInteger();
+    private final AtomicInteger maxRunningTestsCount = new AtomicInteger();
+
+    public SyntheticTestEngine(SyntheticSuiteSpec spec) {
+        this.spec = spec;
+        this.attempts = new AtomicIntegerArray(spec.getTestsCount());
+    }
+
+    public Launcher createLauncher() {
+        return LauncherFactory.create(LauncherConfig.builder()
+                .enableTestEngineAutoRegistration(false)
+                .enableTestExecutionListenerAutoRegistration(false)
+                .addTestEngines(this)
+                .build());
+    }
+
+    @Override
+    public String getId() {
+        return ENGINE_ID;
+    }
+
+    @Override
+    public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+        DescriptorTree tree = new DescriptorTree(uniqueId);
+        boolean suiteSelected = discoveryRequest.getSelectorsByType(ClassSelector.class).stream()
+                .anyMatch(selector -> SyntheticSuite.class.getName().equals(selector.getClassName()));
+        if (suiteSelected) {
+            IntStream.range(0, spec.getTestsCount()).forEach(tree::addTest);
+        }
+        discoveryRequest.getSelectorsByType(UniqueIdSelector.class).stream()
+                .map(UniqueIdSelector::getUniqueId)
+                .filter(selectedId -> selectedId.hasPrefix(uniqueId))
+                .forEach(tree::addSelected);
+        return tree.engineDescriptor;
+    }
+
+    @Override
+    public void execute(ExecutionRequest request) {
+        execute(request.getRootTestDescriptor(), request.getEngineExecutionListener());
+    }
+
+    private void execute(TestDescriptor descriptor, EngineExecutionListener listener) {
+        listener.executionStarted(descriptor);
+        if (descriptor instanceof SyntheticTestDescriptor && descriptor.isTest()) {
+            listener.executionFinished(descriptor, executeTest(((SyntheticTestDescriptor) descriptor).testIndex));
+        } else {
+            descriptor.getChildren().forEach(child -> execute(child, listener));
+            listener.executionFinished(descriptor, TestExecutionResult.successful());
+        }
+    }
+
+    private TestExecutionResult executeTest(int testIndex) {
+        int attemptNumber = attempts.getAndIncrement(testIndex);
+        long testSeed = mix(spec.getSeed(), testIndex);
+        long durationMillis = spec.getDurationDistribution().sampleMillis(new SplittableRandom(testSeed));
+        boolean failed = new SplittableRandom(mix(testSeed, attemptNumber + 1L)).nextDouble() < spec.getFailureProbability(attemptNumber);
+        maxRunningTestsCount.accumulateAndGet(runningTestsCount.incrementAndGet(), Math::max);
+        long start = System.nanoTime();
+        try {
+            if (durationMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(durationMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TestExecutionResult.failed(e);
+        } finally {
+            busyNanos.addAndGet(System.nanoTime() - start);
+            runningTestsCount.decrementAndGet();
+            executionsCount.incrementAndGet();
+        }
+        if (failed) {
+            failuresCount.incrementAndGet();
+            return TestExecutionResult.failed(new AssertionError(String.format("Synthetic test %d failed on attempt %d", testIndex, attemptNumber)));
+        }
+        return TestExecutionResult.successful();
+    }
+
+    public int getAttemptsCount(int testIndex) {
+        return attempts.get(testIndex);
+    }
+
+    public long getExecutionsCount() {
+        return executionsCount.get();
+    }
+
+    public long getFailuresCount() {
+        return failuresCount.get();
+    }
+
+    public long getBusyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+    }
+
+    public int getMaxRunningTestsCount() {
+        return maxRunningTestsCount.get();
+    }
+
+    private static long mix(long seed, long value) {
+        return new SplittableRandom(seed ^ (value * 0x9E3779B97F4A7C15L)).nextLong();
+    }
+
+    /**
+     * Creates only descriptors of selected tests and their ancestors
+     */
+    private class DescriptorTree {
+
+        private final EngineDescriptor engineDescriptor;
+        private final Map<Integer, TestDescriptor> leafContainers = new HashMap<>();
+        private final Map<Integer, TestDescriptor> tests = new HashMap<>();
+
+        DescriptorTree(UniqueId engineId) {
+            engineDescriptor = new EngineDescriptor(engineId, "Synthetic");
+        }
+
+        /**
+         * A selected container selects all tests of its top-level class, because nested classes are a chain
+         */
+        void addSelected(UniqueId selectedId) {
+            List<UniqueId.Segment> segments = selectedId.getSegments();
+            UniqueId.Segment lastSegment = segments.get(segments.size() - 1);
+            if (TEST_SEGMENT_TYPE.equals(lastSegment.getType())) {
+                addTest(Integer.parseInt(lastSegment.getValue()));
+            } else if (segments.size() > 1) {
+                int classIndex = Integer.parseInt(segments.get(1).getValue());
+                int firstTest = classIndex * spec.getTestsPerClass();
+                IntStream.range(firstTest, Math.min(firstTest + spec.getTestsPerClass(), spec.getTestsCount())).forEach(this::addTest);
+            } else {
+                IntStream.range(0, spec.getTestsCount()).forEach(this::addTest);
+            }
+        }
+
+        void addTest(int testIndex) {
+            if (testIndex < 0 || testIndex >= spec.getTestsCount() || tests.containsKey(testIndex)) {
+                return;
+            }
+            TestDescriptor container = leafContainers.computeIfAbsent(testIndex / spec.getTestsPerClass(), this::createContainers);
+            String className = ((ClassSource) container.getSource().orElseThrow()).getClassName();
+            TestDescriptor test = new SyntheticTestDescriptor(container.getUniqueId().append(TEST_SEGMENT_TYPE, String.valueOf(testIndex)),
+                    "test" + testIndex + "()", MethodSource.from(className, "test" + testIndex, ""), TestDescriptor.Type.TEST, testIndex);
+            container.addChild(test);
+            tests.put(testIndex, test);
+        }
+
+        private TestDescriptor createContainers(int classIndex) {
+            String className = CLASS_NAME_PREFIX + classIndex;
+            TestDescriptor container = new SyntheticTestDescriptor(engineDescriptor.getUniqueId().append(CLASS_SEGMENT_TYPE, String.valueOf(classIndex)),
+                    "SyntheticClass" + classIndex, ClassSource.from(className), TestDescriptor.Type.CONTAINER, -1);
+            engineDescriptor.addChild(container);
+            for (int level = 1; level < spec.getDepth(); level++) {
+                className = className + "$Level" + level;
+                TestDescriptor nested = new SyntheticTestDescriptor(container.getUniqueId().append(NESTED_CLASS_SEGMENT_TYPE, String.valueOf(level)),
+                        "Level" + level, ClassSource.from(className), TestDescriptor.Type.CONTAINER, -1);
+                container.addChild(nested);
+                container = nested;
+            }
+            return container;
+        }
+
+    }
+
+    private static class SyntheticTestDescriptor extends AbstractTestDescriptor {
+
+        private final Type type;
+        private final int testIndex;
+
+        SyntheticTestDescriptor(UniqueId uniqueId, String displayName, org.junit.platform.engine.TestSource source, Type type, int testIndex) {
+            super(uniqueId, displayName, source);
+            this.type = type;
+            this.testIndex = testIndex;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+    }
+
+}
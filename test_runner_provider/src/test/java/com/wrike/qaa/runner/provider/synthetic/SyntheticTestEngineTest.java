@@ -0,0 +1,63 @@
+package com.wrike.qaa.runner.provider.synthetic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class SyntheticTestEngineTest {
+
+    @Test
+    void checkSuiteSelectsAllTestsInNestedClasses() {
+        SyntheticSuiteSpec spec = SyntheticSuiteSpec.builder().testsCount(25).testsPerClass(10).depth(3).build();
+        Launcher launcher = new SyntheticTestEngine(spec).createLauncher();
+
+        TestPlan testPlan = launcher.discover(request().selectors(selectClass(SyntheticSuite.class)).build());
+        Set<TestIdentifier> tests = testPlan.getRoots().stream()
+                .flatMap(root -> testPlan.getDescendants(root).stream())
+                .filter(TestIdentifier::isTest)
+                .collect(Collectors.toSet());
+
+        assertThat(tests)
+                .as("Check all tests are discovered")
+                .hasSize(25)
+                .allMatch(test -> UniqueId.parse(test.getUniqueId()).getSegments().size() == 5);
+        assertThat(testPlan.getChildren(testPlan.getRoots().iterator().next()))
+                .as("Check tests are split into classes")
+                .hasSize(spec.getClassesCount());
+    }
+
+    @Test
+    void checkFailuresDependOnSeedAndAttemptOnly() {
+        SyntheticSuiteSpec spec = SyntheticSuiteSpec.builder().testsCount(1_000).failureProbabilities(0.5, 0).seed(7).build();
+        SyntheticTestEngine firstEngine = new SyntheticTestEngine(spec);
+        SyntheticTestEngine secondEngine = new SyntheticTestEngine(spec);
+
+        firstEngine.createLauncher().execute(request().selectors(selectClass(SyntheticSuite.class)).build());
+        secondEngine.createLauncher().execute(request().selectors(selectUniqueId("[engine:synthetic]/[class:3]/[test:35]")).build());
+        secondEngine.createLauncher().execute(request().selectors(selectClass(SyntheticSuite.class)).build());
+
+        assertThat(firstEngine.getFailuresCount())
+                .as("Check about a half of tests failed")
+                .isBetween(400L, 600L);
+        assertThat(secondEngine.getExecutionsCount())
+                .as("Check the test selected by unique id is executed once more")
+                .isEqualTo(firstEngine.getExecutionsCount() + 1);
+        assertThat(secondEngine.getAttemptsCount(35))
+                .as("Check attempts of the test are counted")
+                .isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.wrike.qaa.runner.provider.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.List;
+
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.isFailed;
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.isRetriedWith;
+import static com.wrike.qaa.runner.provider.util.TestIdentifierUtil.removeDescendants;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author agent on 18.10.2026
+ */
+class TestIdentifierUtilTest {
+
+    private static final UniqueId ENGINE_ID = UniqueId.forEngine("engine");
+    private static final UniqueId CLASS_ID = ENGINE_ID.append("class", "FirstTest");
+    private static final UniqueId METHOD_ID = CLASS_ID.append("method", "test()");
+    private static final UniqueId OTHER_METHOD_ID = ENGINE_ID.append("class", "SecondTest").append("method", "test()");
+
+    @Test
+    void checkDescendantsOfFailedContainerAreRemoved() {
+        assertThat(removeDescendants(List.of(identifier(METHOD_ID), identifier(CLASS_ID), identifier(OTHER_METHOD_ID))))
+                .as("Check method of failed class is removed")
+                .extracting(TestIdentifier::getUniqueId)
+                .containsExactly(CLASS_ID.toString(), OTHER_METHOD_ID.toString());
+    }
+
+    @Test
+    void checkIndependentTestsAreKept() {
+        assertThat(removeDescendants(List.of(identifier(METHOD_ID), identifier(OTHER_METHOD_ID))))
+                .as("Check independent tests are kept")
+                .extracting(TestIdentifier::getUniqueId)
+                .containsExactly(METHOD_ID.toString(), OTHER_METHOD_ID.toString());
+    }
+
+    @Test
+    void checkTestIsFailedIfItsDescendantOrAncestorFailed() {
+        assertThat(isFailed(identifier(CLASS_ID), List.of(identifier(METHOD_ID))))
+                .as("Check class is failed if its method failed")
+                .isTrue();
+        assertThat(isFailed(identifier(METHOD_ID), List.of(identifier(CLASS_ID))))
+                .as("Check method is failed if its class failed")
+                .isTrue();
+        assertThat(isFailed(identifier(METHOD_ID), List.of(identifier(OTHER_METHOD_ID))))
+                .as("Check method isn't failed if an independent test failed")
+                .isFalse();
+    }
+
+    @Test
+    void checkOnlyRetriedTestAndItsDescendantsAreRetried() {
+        assertThat(isRetriedWith(identifier(METHOD_ID), List.of(identifier(CLASS_ID))))
+                .as("Check method is retried with its class")
+                .isTrue();
+        assertThat(isRetriedWith(identifier(METHOD_ID), List.of(identifier(METHOD_ID))))
+                .as("Check method is retried with itself")
+                .isTrue();
+        assertThat(isRetriedWith(identifier(CLASS_ID), List.of(identifier(METHOD_ID))))
+                .as("Check failed class isn't retried with its method")
+                .isFalse();
+    }
+
+    private static TestIdentifier identifier(UniqueId uniqueId) {
+        return TestIdentifier.from(new EngineDescriptor(uniqueId, uniqueId.toString()));
+    }
+
+}